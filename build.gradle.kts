@@ -3,6 +3,7 @@ plugins {
     application
     id("org.openjfx.javafxplugin") version "0.1.0"
     id("org.beryx.jlink") version "3.0.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.sillylabs"
@@ -46,6 +47,87 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Консольний perft без GUI: ./gradlew perft -Pperft="--suite 5" або -Pperft="--divide 3 <FEN>"
+tasks.register<JavaExec>("perft") {
+    group = "verification"
+    description = "Runs the chess move generation perft harness"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.perft.ChessPerft")
+    args = (project.findProperty("perft") as String?)?.split(" ") ?: listOf("--suite")
+}
+
+tasks.register<JavaExec>("checkersPerft") {
+    group = "verification"
+    description = "Runs the checkers move generation perft harness"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.perft.CheckersPerft")
+    args = (project.findProperty("perft") as String?)?.split(" ") ?: listOf("--suite")
+}
+
+// База шашкових ендшпілів: ./gradlew checkersEndgames -Pegdb="4 checkers.egdb" (кількість фігур, файл)
+tasks.register<JavaExec>("checkersEndgames") {
+    group = "build"
+    description = "Generates the checkers win/loss/draw endgame database by retrograde analysis"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.engine.CheckersEndgameGenerator")
+    args = (project.findProperty("egdb") as String?)?.split(" ") ?: listOf()
+}
+
+// Шашкова дебютна книга: ./gradlew checkersBook -Pbook="100 20 checkers.book games.txt" (партії, мс на хід, файл, записані партії)
+tasks.register<JavaExec>("checkersBook") {
+    group = "build"
+    description = "Builds the checkers opening book from recorded and self-played games"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.engine.CheckersBookBuilder")
+    args = (project.findProperty("book") as String?)?.split(" ") ?: listOf()
+}
+
+// Шахові таблиці ендшпілів: ./gradlew chessTablebases -Ptablebases="4 tablebases KQKR" (фігури, каталог, набори)
+tasks.register<JavaExec>("chessTablebases") {
+    group = "build"
+    description = "Generates 3-4 piece chess distance-to-mate tablebases by retrograde analysis"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.engine.ChessTablebaseGenerator")
+    args = (project.findProperty("tablebases") as String?)?.split(" ") ?: listOf()
+}
+
+// Впорядкування ходів: вузли до глибини і частка відсікань першим ходом, ./gradlew searchBench -Pbench="7"
+tasks.register<JavaExec>("searchBench") {
+    group = "verification"
+    description = "Reports nodes-to-depth and first-move cutoff rate over a benchmark position set"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.engine.SearchBench")
+    args = (project.findProperty("bench") as String?)?.split(" ") ?: listOf()
+}
+
+// Крива масштабування Lazy SMP: ./gradlew smpScaling -Psmp="32 8" (максимум потоків, глибина[, хеш у МБ])
+tasks.register<JavaExec>("smpScaling") {
+    group = "verification"
+    description = "Reports Lazy SMP nodes per second and time-to-depth against thread count"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.engine.SmpScaling")
+    args = (project.findProperty("smp") as String?)?.split(" ") ?: listOf()
+}
+
+// Вбудований рушій як UCI-програма на stdin/stdout (для оболонок і UciEnginePool): ./gradlew -q uciEngine
+tasks.register<JavaExec>("uciEngine") {
+    group = "application"
+    description = "Runs the built-in chess engine as a UCI engine on standard input and output"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.sillylabs.engine.UciMain")
+    standardInput = System.`in`
+}
+
+// Мікробенчмарки з src/jmh: ./gradlew jmh (пропускна здатність + профайлер gc для швидкості алокацій)
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+}
+
 jlink {
     imageZip.set(layout.buildDirectory.file("/distributions/app-${javafx.platform.classifier}.zip"))
     options.set(listOf("--strip-debug", "--compress", "2", "--no-header-files", "--no-man-pages"))
@@ -0,0 +1,43 @@
+package org.sillylabs;
+
+import org.openjdk.jmh.annotations.*;
+import org.sillylabs.pieces.Color;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckersRulesBenchmark {
+    // start - взять немає; capture - чорна шашка на (4, 1) під боєм двох білих
+    @Param({"start", "capture"})
+    public String position;
+
+    private final Board board = new Board();
+    private final CheckersRules rules = new CheckersRules();
+    private final int[] moves = new int[Move.MAX_MOVES];
+
+    @Setup
+    public void setup() {
+        board.setupBoard(GameMode.CHECKERS);
+        if (position.equals("capture")) {
+            board.setPieceAt(4, 1, board.getPieceAt(2, 1));
+            board.setPieceAt(2, 1, null);
+        }
+    }
+
+    @Benchmark
+    public boolean hasAvailableCaptures() {
+        return rules.hasAvailableCaptures(board, true);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return rules.generateMoves(board, Color.WHITE, moves);
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return rules.isGameOver(board, Color.WHITE);
+    }
+}
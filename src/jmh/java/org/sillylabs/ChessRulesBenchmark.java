@@ -0,0 +1,83 @@
+package org.sillylabs;
+
+import org.openjdk.jmh.annotations.*;
+import org.sillylabs.pieces.Color;
+import org.sillylabs.pieces.Piece;
+
+import java.util.concurrent.TimeUnit;
+
+// Гарячі шляхи шахових правил на початковій позиції та на насиченому тактикою Kiwipete
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChessRulesBenchmark {
+    @Param({"startpos", "kiwipete"})
+    public String position;
+
+    private final Board board = new Board();
+    private final ChessRules rules = new ChessRules();
+    private final GameCoordinator coordinator = new GameCoordinator();
+    private final int[] moves = new int[Move.MAX_MOVES];
+    private Color sideToMove;
+    private int fromRow, fromColumn, toRow, toColumn;
+    private int lastMove;
+
+    @Setup
+    public void setup() {
+        String fen = position.equals("kiwipete")
+                ? "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"
+                : Fen.START_POSITION;
+        sideToMove = Fen.load(board, fen);
+        // Перевіряємо останній легальний хід зі списку, щоб isValidMove не зупинявся на першій фігурі
+        int count = rules.generateMoves(board, sideToMove, moves);
+        int move = moves[count - 1];
+        lastMove = move;
+        fromRow = Move.from(move) / 8;
+        fromColumn = Move.from(move) % 8;
+        toRow = Move.to(move) / 8;
+        toColumn = Move.to(move) % 8;
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        return rules.isValidMove(board, fromRow, fromColumn, toRow, toColumn, sideToMove == Color.WHITE, false);
+    }
+
+    @Benchmark
+    public boolean hasLegalMoves() {
+        return rules.hasLegalMoves(board, sideToMove);
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return rules.isKingInCheck(board, sideToMove);
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return rules.generateMoves(board, sideToMove, moves);
+    }
+
+    @Benchmark
+    public Piece[][] getGrid() {
+        return board.getGrid();
+    }
+
+    // Знімок після зміни розстановки: make/unmake піднімають версію, тож копіюються 64 коди фігур
+    @Benchmark
+    public BoardView snapshot() {
+        board.makeMove(lastMove);
+        board.unmakeMove(lastMove);
+        return board.snapshot();
+    }
+
+    @Benchmark
+    public String generateFEN() {
+        return coordinator.generateFEN(board.getGrid(), sideToMove == Color.WHITE);
+    }
+
+    @Benchmark
+    public String generateBoardState() {
+        return coordinator.generateBoardState(board, sideToMove);
+    }
+}
@@ -0,0 +1,51 @@
+package org.sillylabs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Повний шлях ходу через координатор: перевірка, нотація, історія, повторення позицій, мат/пат
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameCoordinatorBenchmark {
+    // Відкриття з рокіровкою: e4 e5 Nf3 Nc6 Bc4 Bc5 O-O Nf6
+    private static final int[][] OPENING = {
+            {6, 4, 4, 4}, {1, 4, 3, 4}, {7, 6, 5, 5}, {0, 1, 2, 2},
+            {7, 5, 4, 2}, {0, 5, 3, 2}, {7, 4, 7, 6}, {0, 6, 2, 5},
+    };
+
+    private final GameCoordinator coordinator = new GameCoordinator();
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void silenceLogging() {
+        // Правила друкують кожен хід у консоль; у вимірі це лише шум
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreLogging() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public boolean start() {
+        coordinator.start(GameMode.CHESS);
+        return coordinator.isWhiteTurn();
+    }
+
+    // Включає вартість start(): віднімайте результат бенчмарку start, щоб отримати ціну восьми ходів
+    @Benchmark
+    public boolean makeMoves() {
+        coordinator.start(GameMode.CHESS);
+        boolean allMade = true;
+        for (int[] move : OPENING) {
+            allMade &= coordinator.makeMove(move[0], move[1], move[2], move[3]);
+        }
+        return allMade;
+    }
+}
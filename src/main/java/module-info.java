@@ -8,6 +8,8 @@ module org.sillylabs {
     exports org.sillylabs;
     exports org.sillylabs.gui;
     opens org.sillylabs.gui to javafx.fxml;
+    exports org.sillylabs.engine;
+    exports org.sillylabs.perft;
     exports org.sillylabs.pieces;
     opens org.sillylabs.pieces to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,237 @@
+package org.sillylabs;
+
+import org.sillylabs.pieces.Color;
+
+public final class AttackTables {
+    // Атаки стрибунів, передобчислені для кожної клітинки (клітинка = row * 8 + column)
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // PAWN_ATTACKS[колір][клітинка] - клітинки, які б'є пішак цього кольору
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    // Клітинки строго між двома полями на одній лінії (інакше 0) - для зв'язок і закриття від шаху
+    private static final long[][] BETWEEN = new long[64][64];
+    // Уся лінія (горизонталь, вертикаль чи діагональ) через два поля, включно з ними
+    private static final long[][] LINE = new long[64][64];
+
+    // Магічні бітборди для тур і слонів
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    // Магічні множники для розкладки клітинок row * 8 + column (знайдені перебором заздалегідь,
+    // щоб не витрачати сотні мілісекунд на пошук під час старту)
+    private static final long[] ROOK_MAGICS = {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+            0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+            0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+            0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+            0x0001818014000800L, 0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+            0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+            0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L, 0x8004048102000854L,
+            0x4420802040008006L, 0x0880500020004002L, 0x0801200241050010L, 0x8400080010008080L,
+            0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+            0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+            0x8044110480002441L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L, 0x000220920280002DL,
+            0x32040421000B0284L, 0x1002080404000400L, 0x0004160892080040L, 0x2203024206204201L,
+            0x0002404264010200L, 0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+            0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L, 0x0010050080908820L,
+            0x0C90A04490824802L, 0x000200A008210130L, 0x0C08001000204010L, 0x0008000186014480L,
+            0x0601044820080021L, 0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+            0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L, 0x2020120000400440L,
+            0x0108840200802003L, 0x0009070082009492L, 0x020C0C0038424245L, 0xCA44005808210410L,
+            0x8011212000500404L, 0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+            0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L, 0x0242061040002400L,
+            0x90020202400821A0L, 0x00C9009004E01002L, 0x58C2060202023100L, 0x0000012214040800L,
+            0x0210846810100200L, 0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+            0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L, 0x2080001042020004L,
+            0x0544021020288104L, 0x1103501408083020L, 0x4010451004960002L, 0x003010091C44902CL,
+            0x0102402884202000L, 0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+            0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L, 0x0045010808008680L
+    };
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int column = square % 8;
+            KNIGHT_ATTACKS[square] = stepAttacks(row, column, KNIGHT_STEPS);
+            KING_ATTACKS[square] = stepAttacks(row, column, KING_STEPS);
+            // Білі пішаки йдуть вгору (row - 1), чорні - вниз (row + 1)
+            PAWN_ATTACKS[0][square] = stepAttacks(row, column, new int[][]{{-1, -1}, {-1, 1}});
+            PAWN_ATTACKS[1][square] = stepAttacks(row, column, new int[][]{{1, -1}, {1, 1}});
+        }
+        for (int square = 0; square < 64; square++) {
+            initSlider(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_TABLE);
+            initSlider(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_TABLE);
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long target = 1L << to;
+                long ends = target | (1L << from);
+                if ((rookAttacks(from, 0L) & target) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, target) & rookAttacks(to, 1L << from);
+                    LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | ends;
+                } else if ((bishopAttacks(from, 0L) & target) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, target) & bishopAttacks(to, 1L << from);
+                    LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN_ATTACKS[Board.colorIndex(color)][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    // Усі фігури обох кольорів, що атакують клітинку при заданій зайнятості
+    public static long attackersTo(Board board, int square, long occupied) {
+        long diagonal = board.getPieces(Board.BISHOP) | board.getPieces(Board.BISHOP + Board.BLACK_OFFSET)
+                | board.getPieces(Board.QUEEN) | board.getPieces(Board.QUEEN + Board.BLACK_OFFSET);
+        long straight = board.getPieces(Board.ROOK) | board.getPieces(Board.ROOK + Board.BLACK_OFFSET)
+                | board.getPieces(Board.QUEEN) | board.getPieces(Board.QUEEN + Board.BLACK_OFFSET);
+        return (PAWN_ATTACKS[1][square] & board.getPieces(Board.PAWN))
+                | (PAWN_ATTACKS[0][square] & board.getPieces(Board.PAWN + Board.BLACK_OFFSET))
+                | (KNIGHT_ATTACKS[square] & (board.getPieces(Board.KNIGHT) | board.getPieces(Board.KNIGHT + Board.BLACK_OFFSET)))
+                | (KING_ATTACKS[square] & (board.getPieces(Board.KING) | board.getPieces(Board.KING + Board.BLACK_OFFSET)))
+                | (bishopAttacks(square, occupied) & diagonal)
+                | (rookAttacks(square, occupied) & straight);
+    }
+
+    public static boolean isSquareAttacked(Board board, int square, Color attackerColor) {
+        return isSquareAttacked(board, square, attackerColor, board.getOccupied());
+    }
+
+    // Перевірка атаки за кілька звернень до таблиць; зайнятість можна підмінити (напр. без короля)
+    public static boolean isSquareAttacked(Board board, int square, Color attackerColor, long occupied) {
+        Color defenderColor = attackerColor == Color.WHITE ? Color.BLACK : Color.WHITE;
+        if ((pawnAttacks(defenderColor, square) & board.getPieces(attackerColor, Board.PAWN)) != 0) return true;
+        if ((KNIGHT_ATTACKS[square] & board.getPieces(attackerColor, Board.KNIGHT)) != 0) return true;
+        if ((KING_ATTACKS[square] & board.getPieces(attackerColor, Board.KING)) != 0) return true;
+        long queens = board.getPieces(attackerColor, Board.QUEEN);
+        if ((bishopAttacks(square, occupied) & (board.getPieces(attackerColor, Board.BISHOP) | queens)) != 0) return true;
+        return (rookAttacks(square, occupied) & (board.getPieces(attackerColor, Board.ROOK) | queens)) != 0;
+    }
+
+    // --- Ініціалізація таблиць ---
+
+    private static long stepAttacks(int row, int column, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int toRow = row + step[0];
+            int toColumn = column + step[1];
+            if (toRow >= 0 && toRow < 8 && toColumn >= 0 && toColumn < 8) {
+                attacks |= 1L << Board.square(toRow, toColumn);
+            }
+        }
+        return attacks;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = square / 8 + direction[0];
+            int column = square % 8 + direction[1];
+            while (row >= 0 && row < 8 && column >= 0 && column < 8) {
+                long bit = 1L << Board.square(row, column);
+                attacks |= bit;
+                if ((occupied & bit) != 0) break;
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // Маска релевантних блокерів: промінь без крайньої клітинки
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int row = square / 8 + direction[0];
+            int column = square % 8 + direction[1];
+            while (row + direction[0] >= 0 && row + direction[0] < 8 && column + direction[1] >= 0 && column + direction[1] < 8) {
+                mask |= 1L << Board.square(row, column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initSlider(int square, int[][] directions, long[] masks, long[] magics, int[] shifts, long[][] tables) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+
+        // Перебираємо всі підмножини маски (carry-rippler)
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long magic = magics[square];
+        long[] table = new long[size];
+        boolean[] filled = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+            if (filled[index] && table[index] != attacks[i]) {
+                throw new IllegalStateException("Bad magic for square " + square);
+            }
+            filled[index] = true;
+            table[index] = attacks[i];
+        }
+        masks[square] = mask;
+        shifts[square] = 64 - bits;
+        tables[square] = table;
+    }
+}
@@ -0,0 +1,38 @@
+package org.sillylabs;
+
+// Відповідь UCI-рушія з пулу: хід (Move.fromUci, NONE для "bestmove (none)"), його запис,
+// хід для обдумування на час суперника (або null) і скільки тривав запит
+public final class BestMove {
+    private final int move;
+    private final String uci;
+    private final String ponder;
+    private final long timeMillis;
+
+    public BestMove(String uci, String ponder, long timeMillis) {
+        this.move = Move.fromUci(uci);
+        this.uci = uci;
+        this.ponder = ponder;
+        this.timeMillis = timeMillis;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public String getUci() {
+        return uci;
+    }
+
+    public String getPonder() {
+        return ponder;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "bestmove " + uci + (ponder == null ? "" : " ponder " + ponder) + " (" + timeMillis + " ms)";
+    }
+}
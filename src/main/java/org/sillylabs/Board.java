@@ -2,23 +2,92 @@ package org.sillylabs;
 
 import org.sillylabs.pieces.*;
 
-public class Board {
+import java.util.Arrays;
+
+public class Board implements BoardView {
     private final Piece[][] grid;
     private static final int BOARD_SIZE = 8;
 
+    // Індекси шахових бітбордів: тип фігури + BLACK_OFFSET для чорних
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int BLACK_OFFSET = 6;
+    public static final int NO_PIECE = -1;
+
+    // Коди шашок продовжують нумерацію після шахових (для маски фігур і ключа Zobrist)
+    public static final int WHITE_CHECKERS_MAN = 12;
+    public static final int WHITE_CHECKERS_KING = 13;
+    public static final int BLACK_CHECKERS_MAN = 14;
+    public static final int BLACK_CHECKERS_KING = 15;
+
+    // Права на рокіровку (бітова маска)
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // Дванадцять бітбордів фігур + маски зайнятості (клітинка = row * 8 + column)
+    private final long[] pieceBitboards;
+    private final long[] colorOccupancy;
+    private long occupied;
+    private final byte[] pieceIndices;
+
+    // Стан позиції, потрібний генератору ходів без GameCoordinator
+    private int castlingRights;
+    private int enPassantSquare = -1;
+    private int halfmoveClock;
+
+    // Версія розстановки для BoardView і останній знятий з неї знімок
+    private long version;
+    private BoardSnapshot snapshot;
+
+    // Ключ Zobrist позиції (без урахування черги ходу), оновлюється інкрементально
+    private long zobristKey;
+    private long enPassantKey;
+
+    // Суми PieceSquareTables для шахових фігур (білі "+", чорні "-") і фаза гри - оновлюються разом з ключем
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Стек скасування для makeMove/unmakeMove: стан (разом з кодами фігур) упакований у long
+    private long[] undoStack = new long[256];
+    private long[] keyStack = new long[256];
+    private int undoSize;
+
+    public static final int ALL_CASTLING = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+
+    // Маска прав на рокіровку, яка лишається після ходу з/на клітинку
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[square(7, 7)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASK[square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[square(0, 0)] &= ~BLACK_QUEENSIDE;
+    }
+
     public Board() {
         grid = new Piece[BOARD_SIZE][BOARD_SIZE];
+        pieceBitboards = new long[12];
+        colorOccupancy = new long[2];
+        pieceIndices = new byte[BOARD_SIZE * BOARD_SIZE];
+        Arrays.fill(pieceIndices, (byte) NO_PIECE);
     }
 
     public void setupBoard(GameMode mode) {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                grid[row][col] = null;
-            }
-        }
+        clear();
         switch (mode) {
             case CHESS:
                 setupChess();
+                setCastlingRights(ALL_CASTLING);
                 break;
             case CHECKERS:
                 setupCheckers();
@@ -26,31 +95,53 @@ public class Board {
         }
     }
 
+    // Порожня дошка без прав на рокіровку, взяття на проході та історії ходів
+    public void clear() {
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                grid[row][col] = null;
+            }
+        }
+        Arrays.fill(pieceBitboards, 0L);
+        colorOccupancy[0] = 0L;
+        colorOccupancy[1] = 0L;
+        occupied = 0L;
+        Arrays.fill(pieceIndices, (byte) NO_PIECE);
+        version++;
+        enPassantSquare = -1;
+        enPassantKey = 0L;
+        castlingRights = 0;
+        zobristKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        halfmoveClock = 0;
+        undoSize = 0;
+    }
+
+    // Копія розстановки і стану позиції (без стеку скасування) - напр. власна дошка для кожного потоку пошуку
+    public void copyFrom(Board other) {
+        clear();
+        for (int square = 0; square < BOARD_SIZE * BOARD_SIZE; square++) {
+            Piece piece = other.grid[square / BOARD_SIZE][square % BOARD_SIZE];
+            if (piece != null) {
+                placePiece(square, piece, piece.getCode());
+            }
+        }
+        setCastlingRights(other.castlingRights);
+        setEnPassantSquare(other.enPassantSquare);
+        halfmoveClock = other.halfmoveClock;
+    }
+
+    private static final int[] BACK_RANK = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK};
+
     private void setupChess() {
-        // Чорні зверху (рядок 0 - фігури, рядок 1 - пішаки)
-        grid[0][0] = new Rook(Color.BLACK, 0, 0);
-        grid[0][1] = new Knight(Color.BLACK, 0, 1);
-        grid[0][2] = new Bishop(Color.BLACK, 0, 2);
-        grid[0][3] = new Queen(Color.BLACK, 0, 3);
-        grid[0][4] = new King(Color.BLACK, 0, 4);
-        grid[0][5] = new Bishop(Color.BLACK, 0, 5);
-        grid[0][6] = new Knight(Color.BLACK, 0, 6);
-        grid[0][7] = new Rook(Color.BLACK, 0, 7);
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            grid[1][i] = new Pawn(Color.BLACK, 1, i);
-        }
-
-        // Білі знизу (рядок 7 - фігури, рядок 6 - пішаки)
-        grid[7][0] = new Rook(Color.WHITE, 7, 0);
-        grid[7][1] = new Knight(Color.WHITE, 7, 1);
-        grid[7][2] = new Bishop(Color.WHITE, 7, 2);
-        grid[7][3] = new Queen(Color.WHITE, 7, 3);
-        grid[7][4] = new King(Color.WHITE, 7, 4);
-        grid[7][5] = new Bishop(Color.WHITE, 7, 5);
-        grid[7][6] = new Knight(Color.WHITE, 7, 6);
-        grid[7][7] = new Rook(Color.WHITE, 7, 7);
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            grid[6][i] = new Pawn(Color.WHITE, 6, i);
+        // Чорні зверху (рядок 0 - фігури, рядок 1 - пішаки), білі знизу (рядок 7 - фігури, рядок 6 - пішаки)
+        for (int column = 0; column < BOARD_SIZE; column++) {
+            setPieceAt(0, column, Pieces.chess(Color.BLACK, BACK_RANK[column]));
+            setPieceAt(1, column, Pieces.chess(Color.BLACK, PAWN));
+            setPieceAt(6, column, Pieces.chess(Color.WHITE, PAWN));
+            setPieceAt(7, column, Pieces.chess(Color.WHITE, BACK_RANK[column]));
         }
     }
 
@@ -58,30 +149,78 @@ public class Board {
         for (int row = 0; row < 3; row++) {
             for (int column = 0; column < BOARD_SIZE; column++) {
                 if ((row + column) % 2 == 1) {
-                    grid[row][column] = new CheckersMan(Color.BLACK, row, column);
+                    setPieceAt(row, column, Pieces.checkers(Color.BLACK, false));
                 }
             }
         }
         for (int row = 5; row < BOARD_SIZE; row++) {
             for (int column = 0; column < BOARD_SIZE; column++) {
                 if ((row + column) % 2 == 1) {
-                    grid[row][column] = new CheckersMan(Color.WHITE, row, column);
+                    setPieceAt(row, column, Pieces.checkers(Color.WHITE, false));
                 }
             }
         }
     }
 
+    @Override
     public Piece getPieceAt(int row, int column) {
         return grid[row][column];
     }
 
     public void setPieceAt(int row, int column, Piece piece) {
-        grid[row][column] = piece;
+        int square = square(row, column);
+        Piece previous = grid[row][column];
+        if (previous != null) {
+            clearSquare(square, previous);
+        }
         if (piece != null) {
-            piece.setPosition(row, column);
+            placePiece(square, piece, piece.getCode());
+        }
+    }
+
+    // Низькорівневі операції: оновлюють сітку, маски і коди фігур
+    private void placePiece(int square, Piece piece, int index) {
+        long bit = 1L << square;
+        version++;
+        grid[square / BOARD_SIZE][square % BOARD_SIZE] = piece;
+        colorOccupancy[colorIndex(piece.getColor())] |= bit;
+        occupied |= bit;
+        if (index != NO_PIECE) {
+            if (index < pieceBitboards.length) {
+                pieceBitboards[index] |= bit;
+            }
+            zobristKey ^= Zobrist.piece(index, square);
+            if (PieceSquareTables.covers(index)) {
+                midgameScore += PieceSquareTables.midgame(index, square);
+                endgameScore += PieceSquareTables.endgame(index, square);
+                phase += PieceSquareTables.phase(index);
+            }
         }
+        pieceIndices[square] = (byte) index;
     }
 
+    private void clearSquare(int square, Piece piece) {
+        long bit = 1L << square;
+        version++;
+        grid[square / BOARD_SIZE][square % BOARD_SIZE] = null;
+        colorOccupancy[colorIndex(piece.getColor())] &= ~bit;
+        occupied &= ~bit;
+        int index = pieceIndices[square];
+        if (index != NO_PIECE) {
+            if (index < pieceBitboards.length) {
+                pieceBitboards[index] &= ~bit;
+            }
+            zobristKey ^= Zobrist.piece(index, square);
+            if (PieceSquareTables.covers(index)) {
+                midgameScore -= PieceSquareTables.midgame(index, square);
+                endgameScore -= PieceSquareTables.endgame(index, square);
+                phase -= PieceSquareTables.phase(index);
+            }
+            pieceIndices[square] = (byte) NO_PIECE;
+        }
+    }
+
+    // Копія сітки для коду, якому потрібен власний змінний масив; для читання є BoardView
     public Piece[][] getGrid() {
         Piece[][] copy = new Piece[BOARD_SIZE][BOARD_SIZE];
         for (int i = 0; i < BOARD_SIZE; i++) {
@@ -89,4 +228,226 @@ public class Board {
         }
         return copy;
     }
-}
\ No newline at end of file
+
+    // --- Бітбордове представлення (без копіювання сітки) ---
+
+    public long getPieces(int pieceIndex) {
+        return pieceBitboards[pieceIndex];
+    }
+
+    public long getPieces(Color color, int pieceType) {
+        return pieceBitboards[pieceType + (color == Color.BLACK ? BLACK_OFFSET : 0)];
+    }
+
+    public long getOccupancy(Color color) {
+        return colorOccupancy[colorIndex(color)];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public boolean isEmpty(int row, int column) {
+        return (occupied & (1L << square(row, column))) == 0;
+    }
+
+    public boolean isOccupiedBy(int row, int column, Color color) {
+        return (colorOccupancy[colorIndex(color)] & (1L << square(row, column))) != 0;
+    }
+
+    // Код фігури на клітинці (шахові 0-11, шашки 12-15) або NO_PIECE
+    @Override
+    public int getPieceIndex(int square) {
+        return pieceIndices[square];
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    // Копіюємо 64 коди лише тоді, коли розстановка змінилася після попереднього знімка
+    @Override
+    public BoardView snapshot() {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = new BoardSnapshot(pieceIndices, version);
+        }
+        return snapshot;
+    }
+
+    public int getKingSquare(Color color) {
+        long kings = getPieces(color, KING);
+        return kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        zobristKey ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    // Знімає права на рокіровку після ходу з клітинки from на клітинку to (король, тура або взяття тури)
+    public void updateCastlingRights(int from, int to) {
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+    }
+
+    // Клітинка, на яку можна взяти на проході, або -1
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+        updateEnPassantKey();
+    }
+
+    private void updateEnPassantKey() {
+        zobristKey ^= enPassantKey;
+        enPassantKey = computeEnPassantKey();
+        zobristKey ^= enPassantKey;
+    }
+
+    // Поле взяття на проході входить у ключ лише тоді, коли взяття справді можливе
+    private long computeEnPassantKey() {
+        if (enPassantSquare == -1) {
+            return 0L;
+        }
+        // Ряд 2: на проході б'ють білі, ряд 5 - чорні
+        Color capturer = enPassantSquare / BOARD_SIZE == 2 ? Color.WHITE : Color.BLACK;
+        Color pusher = capturer == Color.WHITE ? Color.BLACK : Color.WHITE;
+        if ((AttackTables.pawnAttacks(pusher, enPassantSquare) & getPieces(capturer, PAWN)) != 0) {
+            return Zobrist.enPassant(enPassantSquare);
+        }
+        return 0L;
+    }
+
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    // Ключ з урахуванням того, чий хід
+    public long getZobristKey(Color sideToMove) {
+        return sideToMove == Color.BLACK ? zobristKey ^ Zobrist.SIDE_TO_MOVE : zobristKey;
+    }
+
+    // Інкрементальні складові оцінки (див. PieceSquareTables): з боку білих
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    // Сума ваг фігур без пішаків і королів; може перевищити PieceSquareTables.MAX_PHASE після перетворень
+    public int getPhase() {
+        return phase;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    // --- Make/unmake для шахових ходів (перевірка легальності та пошук) ---
+
+    // Виконує хід, закодований у Move, і кладе стан для скасування у стек
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece moving = grid[from / BOARD_SIZE][from % BOARD_SIZE];
+        int movingIndex = pieceIndices[from];
+        boolean black = movingIndex >= BLACK_OFFSET;
+
+        int capturedSquare = Move.isEnPassant(move) ? to + (black ? -BOARD_SIZE : BOARD_SIZE) : to;
+        Piece captured = grid[capturedSquare / BOARD_SIZE][capturedSquare % BOARD_SIZE];
+        int capturedIndex = pieceIndices[capturedSquare];
+
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+            keyStack = Arrays.copyOf(keyStack, undoSize * 2);
+        }
+        keyStack[undoSize] = zobristKey;
+        // Біти: 0-3 рокіровка, 4-10 en passant + 1, 11-14 фігура, що ходить, 15-18 взята фігура + 1, далі лічильник півходів
+        undoStack[undoSize] = castlingRights | ((long) (enPassantSquare + 1) << 4) | ((long) movingIndex << 11)
+                | ((long) (capturedIndex + 1) << 15) | ((long) halfmoveClock << 19);
+        undoSize++;
+
+        if (captured != null) {
+            clearSquare(capturedSquare, captured);
+        }
+        clearSquare(from, moving);
+        int promotion = Move.promotion(move);
+        if (promotion != 0) {
+            int promotedIndex = promotion + (black ? BLACK_OFFSET : 0);
+            placePiece(to, Pieces.of(promotedIndex), promotedIndex);
+        } else {
+            placePiece(to, moving, movingIndex);
+        }
+
+        if (Move.isCastle(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            Piece rook = grid[rookFrom / BOARD_SIZE][rookFrom % BOARD_SIZE];
+            int rookIndex = pieceIndices[rookFrom];
+            clearSquare(rookFrom, rook);
+            placePiece(rookTo, rook, rookIndex);
+        }
+
+        updateCastlingRights(from, to);
+        enPassantSquare = Move.isDoublePush(move) ? (from + to) / 2 : -1;
+        updateEnPassantKey();
+        halfmoveClock = (captured != null || movingIndex % BLACK_OFFSET == PAWN) ? 0 : halfmoveClock + 1;
+    }
+
+    // Скасовує останній makeMove; move має бути тим самим ходом
+    public void unmakeMove(int move) {
+        undoSize--;
+        long state = undoStack[undoSize];
+
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int movingIndex = (int) ((state >>> 11) & 0xF);
+        clearSquare(to, grid[to / BOARD_SIZE][to % BOARD_SIZE]);
+        placePiece(from, Pieces.of(movingIndex), movingIndex);
+
+        if (Move.isCastle(move)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            Piece rook = grid[rookTo / BOARD_SIZE][rookTo % BOARD_SIZE];
+            int rookIndex = pieceIndices[rookTo];
+            clearSquare(rookTo, rook);
+            placePiece(rookFrom, rook, rookIndex);
+        }
+
+        int capturedIndex = (int) ((state >>> 15) & 0xF) - 1;
+        if (capturedIndex != NO_PIECE) {
+            int capturedSquare = Move.isEnPassant(move) ? to + (movingIndex >= BLACK_OFFSET ? -BOARD_SIZE : BOARD_SIZE) : to;
+            placePiece(capturedSquare, Pieces.of(capturedIndex), capturedIndex);
+        }
+
+        castlingRights = (int) (state & 0xF);
+        enPassantSquare = (int) ((state >>> 4) & 0x7F) - 1;
+        halfmoveClock = (int) (state >>> 19);
+        zobristKey = keyStack[undoSize];
+        enPassantKey = computeEnPassantKey();
+    }
+
+    public static int square(int row, int column) {
+        return row * BOARD_SIZE + column;
+    }
+
+    public static int colorIndex(Color color) {
+        return color == Color.WHITE ? 0 : 1;
+    }
+
+    public static int pieceIndex(Piece piece) {
+        return piece == null ? NO_PIECE : piece.getCode();
+    }
+}
@@ -0,0 +1,35 @@
+package org.sillylabs;
+
+import org.sillylabs.pieces.Piece;
+import org.sillylabs.pieces.Pieces;
+
+// Незмінна копія розстановки: 64 коди фігур замість сітки об'єктів
+final class BoardSnapshot implements BoardView {
+    private final byte[] pieceIndices;
+    private final long version;
+
+    BoardSnapshot(byte[] pieceIndices, long version) {
+        this.pieceIndices = pieceIndices.clone();
+        this.version = version;
+    }
+
+    @Override
+    public Piece getPieceAt(int row, int column) {
+        return Pieces.of(pieceIndices[Board.square(row, column)]);
+    }
+
+    @Override
+    public int getPieceIndex(int square) {
+        return pieceIndices[square];
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public BoardView snapshot() {
+        return this;
+    }
+}
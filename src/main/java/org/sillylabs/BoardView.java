@@ -0,0 +1,18 @@
+package org.sillylabs;
+
+import org.sillylabs.pieces.Piece;
+
+// Доступ до позиції лише для читання, без копіювання сітки.
+// Живий вигляд (сама Board) змінюється разом з грою; стабільну копію дає snapshot().
+public interface BoardView {
+    Piece getPieceAt(int row, int column);
+
+    // Код фігури на клітинці (див. Piece.getCode) або Board.NO_PIECE
+    int getPieceIndex(int square);
+
+    // Зростає при кожній зміні розстановки: однакова версія - та сама позиція
+    long getVersion();
+
+    // Незмінний знімок поточної розстановки; поки дошка не змінилася, повертається той самий об'єкт
+    BoardView snapshot();
+}
@@ -21,9 +21,9 @@ public class CheckersMoveValidator implements MoveValidator {
         CheckersRules checkersRules = new CheckersRules();
         checkersRules.setGame(coordinator);
         if (!isMultiJump && checkersRules.hasAvailableCaptures(board, isWhiteTurn)) {
-            return checkersPiece.isValidMoveWithMultiJump(toRow, toColumn, board.getGrid(), false) && isCaptureMove(fromRow, fromColumn, toRow, toColumn);
+            return checkersPiece.isValidMoveWithMultiJump(fromRow, fromColumn, toRow, toColumn, board, false) && isCaptureMove(fromRow, fromColumn, toRow, toColumn);
         }
-        return checkersPiece.isValidMoveWithMultiJump(toRow, toColumn, board.getGrid(), isMultiJump);
+        return checkersPiece.isValidMoveWithMultiJump(fromRow, fromColumn, toRow, toColumn, board, isMultiJump);
     }
 
     private boolean isBasicMoveValid(Piece piece, boolean isWhiteTurn, Board board, int toRow, int toColumn) {
@@ -6,6 +6,9 @@ import java.util.List;
 
 public class CheckersRules implements GameRules {
     private GameCoordinator coordinator;
+    private final int[] moveBuffer = new int[Move.MAX_MOVES];
+
+    private static final int[][] DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
 
     public void setGame(GameCoordinator coordinator) {
         this.coordinator = coordinator;
@@ -20,9 +23,9 @@ public class CheckersRules implements GameRules {
 
         CheckersPiece checkersPiece = (CheckersPiece) piece;
         if (!isMultiJump && hasAvailableCaptures(board, isWhiteTurn)) {
-            return checkersPiece.isValidMoveWithMultiJump(toRow, toColumn, board.getGrid(), false) && isCaptureMove(fromRow, fromColumn, toRow, toColumn);
+            return checkersPiece.isValidMoveWithMultiJump(fromRow, fromColumn, toRow, toColumn, board, false) && isCaptureMove(fromRow, fromColumn, toRow, toColumn);
         }
-        return checkersPiece.isValidMoveWithMultiJump(toRow, toColumn, board.getGrid(), isMultiJump);
+        return checkersPiece.isValidMoveWithMultiJump(fromRow, fromColumn, toRow, toColumn, board, isMultiJump);
     }
 
     boolean isBasicMoveValid(Piece piece, boolean isWhiteTurn, Board board, int toRow, int toColumn) {
@@ -39,7 +42,7 @@ public class CheckersRules implements GameRules {
             for (int column = 0; column < 8; column++) {
                 Piece piece = board.getPieceAt(row, column);
                 if (piece != null && piece.getColor() == color && piece instanceof CheckersPiece) {
-                    List<int[]> captureMoves = ((CheckersPiece) piece).getCaptureMoves(row, column, board.getGrid(), GameMode.CHECKERS);
+                    List<int[]> captureMoves = ((CheckersPiece) piece).getCaptureMoves(row, column, board, GameMode.CHECKERS);
                     if (!captureMoves.isEmpty()) {
                         return true;
                     }
@@ -56,32 +59,95 @@ public class CheckersRules implements GameRules {
 
     @Override
     public boolean isGameOver(Board board, Color color) {
-        boolean isWhiteTurn = color == Color.WHITE;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPieceAt(row, col);
-                // Якщо знайшли фігуру поточного гравця
-                if (piece != null && piece.getColor() == color && piece instanceof CheckersPiece) {
+        // Гра закінчена, якщо у гравця немає жодного ходу (взяття або звичайного)
+        return generateMoves(board, color, moveBuffer) == 0;
+    }
 
-                    // Перевіряємо, чи є взяття
-                    List<int[]> captureMoves = ((CheckersPiece) piece).getCaptureMoves(row, col, board.getGrid(), GameMode.CHECKERS);
-                    if (!captureMoves.isEmpty()) {
-                        return false; // Є хід, гра триває
-                    }
+    @Override
+    public int generateMoves(Board board, Color color, int[] buffer) {
+        // У шашках немає шаху, тому псевдолегальні ходи одразу легальні
+        return generatePseudoLegalMoves(board, color, buffer);
+    }
 
-                    // Перевіряємо, чи є звичайні ходи
-                    for (int toRow = 0; toRow < 8; toRow++) {
-                        for (int toCol = 0; toCol < 8; toCol++) {
-                            if (isValidMove(board, row, col, toRow, toCol, isWhiteTurn, false)) {
-                                return false; // Є хід, гра триває
-                            }
-                        }
-                    }
+    // Генерує одиничні кроки: якщо є хоча б одне взяття, то лише взяття (взяття обов'язкове)
+    @Override
+    public int generatePseudoLegalMoves(Board board, Color color, int[] buffer) {
+        long own = board.getOccupancy(color);
+        int count = 0;
+        long pieces = own;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            count = generateCaptures(board, color, from, buffer, count);
+        }
+        if (count > 0) {
+            return count;
+        }
+
+        int direction = color == Color.WHITE ? -1 : 1;
+        long occupied = board.getOccupied();
+        pieces = own;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            int row = from / 8;
+            int column = from % 8;
+            boolean isKing = ((CheckersPiece) board.getPieceAt(row, column)).isKing();
+            for (int[] dir : DIRECTIONS) {
+                if (!isKing && dir[0] != direction) continue;
+                int toRow = row + dir[0];
+                int toColumn = column + dir[1];
+                while (toRow >= 0 && toRow < 8 && toColumn >= 0 && toColumn < 8 && (occupied & (1L << Board.square(toRow, toColumn))) == 0) {
+                    buffer[count++] = Move.encode(from, Board.square(toRow, toColumn), 0);
+                    if (!isKing) break;
+                    toRow += dir[0];
+                    toColumn += dir[1];
                 }
             }
         }
+        return count;
+    }
 
-        return true;
+    // Взяття однієї фігури з клітинки from (без продовження серії)
+    public int generateCaptures(Board board, Color color, int from, int[] buffer, int count) {
+        Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+        long enemies = board.getOccupancy(opponent);
+        long occupied = board.getOccupied();
+        int row = from / 8;
+        int column = from % 8;
+        boolean isKing = ((CheckersPiece) board.getPieceAt(row, column)).isKing();
+        for (int[] dir : DIRECTIONS) {
+            if (!isKing) {
+                int midRow = row + dir[0];
+                int midColumn = column + dir[1];
+                int toRow = row + 2 * dir[0];
+                int toColumn = column + 2 * dir[1];
+                if (toRow >= 0 && toRow < 8 && toColumn >= 0 && toColumn < 8
+                        && (enemies & (1L << Board.square(midRow, midColumn))) != 0
+                        && (occupied & (1L << Board.square(toRow, toColumn))) == 0) {
+                    buffer[count++] = Move.encode(from, Board.square(toRow, toColumn), Move.CAPTURE);
+                }
+                continue;
+            }
+            // Дамка: пропускаємо порожні клітинки, б'ємо першу ворожу фігуру і приземляємось на будь-яку вільну за нею
+            boolean opponentFound = false;
+            for (int i = 1; i < 8; i++) {
+                int checkRow = row + i * dir[0];
+                int checkColumn = column + i * dir[1];
+                if (checkRow < 0 || checkRow >= 8 || checkColumn < 0 || checkColumn >= 8) break;
+                long bit = 1L << Board.square(checkRow, checkColumn);
+                if (!opponentFound) {
+                    if ((occupied & bit) != 0) {
+                        if ((enemies & bit) == 0) break;
+                        opponentFound = true;
+                    }
+                } else {
+                    if ((occupied & bit) != 0) break;
+                    buffer[count++] = Move.encode(from, Board.square(checkRow, checkColumn), Move.CAPTURE);
+                }
+            }
+        }
+        return count;
     }
 
     @Override
@@ -98,9 +164,6 @@ public class CheckersRules implements GameRules {
             board.setPieceAt(toRow, toColumn, piece);
             board.setPieceAt(fromRow, fromColumn, null);
         }
-
-        // ВАЖЛИВО: Оновлюємо координати фігури після ходу!
-        piece.setPosition(toRow, toColumn);
     }
 
     private void executeCheckersCapture(Board board, int fromRow, int fromColumn, int toRow, int toColumn, Piece piece) {
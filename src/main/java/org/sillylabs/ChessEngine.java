@@ -0,0 +1,14 @@
+package org.sillylabs;
+
+// Шаховий рушій для бота: зовнішній UCI-процес (StockfishEngine) або вбудований пошук (engine.BuiltinEngine)
+public interface ChessEngine {
+    boolean startEngine();
+
+    // Найкращий хід після ходів від початкової позиції або Move.NONE
+    int getBestMove(MoveList moves, int waitTime);
+
+    // Те саме, але рушій сам ділить час за годинником партії (мілісекунди, як wtime/btime/winc/binc в UCI)
+    int getBestMove(MoveList moves, long whiteTime, long blackTime, long whiteIncrement, long blackIncrement);
+
+    void stopEngine();
+}
@@ -0,0 +1,245 @@
+package org.sillylabs;
+
+import org.sillylabs.pieces.Color;
+
+public final class ChessMoveGenerator {
+    // Найбільше ходів однієї фігури: ферзь у центрі порожньої дошки
+    public static final int MAX_PIECE_MOVES = 27;
+    private static final int[] PROMOTION_TYPES = {Board.QUEEN, Board.ROOK, Board.BISHOP, Board.KNIGHT};
+
+    private ChessMoveGenerator() {
+    }
+
+    // Генерує псевдолегальні ходи (без перевірки, чи лишається король під шахом) у buffer, повертає кількість
+    public static int generatePseudoLegal(Board board, Color color, int[] buffer) {
+        return generate(board, color, buffer, false, -1L);
+    }
+
+    // Генерує лише легальні ходи: шахуючі фігури, зв'язки та маска ухилення обчислюються один раз на позицію,
+    // тож жоден хід не треба програвати на дошці
+    public static int generateLegal(Board board, Color color, int[] buffer) {
+        return generate(board, color, buffer, board.getKingSquare(color) != -1, -1L);
+    }
+
+    // Легальні ходи лише фігури з клітинки from (для перевірки ходу гравця); buffer на MAX_PIECE_MOVES досить
+    public static int generateLegalFrom(Board board, Color color, int from, int[] buffer) {
+        return generate(board, color, buffer, board.getKingSquare(color) != -1, 1L << from);
+    }
+
+    // origins - маска клітинок, фігури з яких ходять; шахи і зв'язки рахуються для всієї позиції
+    private static int generate(Board board, Color color, int[] buffer, boolean legal, long origins) {
+        Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+        long own = board.getOccupancy(color);
+        // Короля суперника бити не можна, як і в isBasicMoveValid
+        long enemies = board.getOccupancy(opponent) & ~board.getPieces(opponent, Board.KING);
+        long occupied = board.getOccupied();
+        long targets = ~own & ~board.getPieces(opponent, Board.KING);
+        int kingSquare = board.getKingSquare(color);
+        int count = 0;
+
+        long checkMask = -1L;
+        long pinned = 0L;
+        boolean kingMoves = kingSquare != -1 && (origins & (1L << kingSquare)) != 0;
+        if (legal) {
+            // Ходи короля: поле не повинно бути під боєм навіть "крізь" самого короля
+            long occupiedWithoutKing = occupied & ~(1L << kingSquare);
+            long kingTargets = kingMoves ? AttackTables.kingAttacks(kingSquare) & targets : 0L;
+            while (kingTargets != 0) {
+                int to = Long.numberOfTrailingZeros(kingTargets);
+                kingTargets &= kingTargets - 1;
+                if (!AttackTables.isSquareAttacked(board, to, opponent, occupiedWithoutKing)) {
+                    buffer[count++] = Move.encode(kingSquare, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0);
+                }
+            }
+
+            long checkers = AttackTables.attackersTo(board, kingSquare, occupied) & board.getOccupancy(opponent);
+            if (Long.bitCount(checkers) > 1) {
+                // Подвійний шах: рятує лише хід королем
+                return count;
+            }
+            if (checkers != 0) {
+                // Один шах: бити шахуючу фігуру або ставати між нею і королем
+                checkMask = checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(board, color, opponent, kingSquare, own, occupied);
+        }
+
+        count = generatePawnMoves(board, color, kingSquare, enemies, occupied, checkMask, pinned, legal, origins, buffer, count);
+
+        long moveMask = targets & checkMask;
+        long knights = board.getPieces(color, Board.KNIGHT) & ~pinned & origins;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addMoves(from, AttackTables.knightAttacks(from) & moveMask, enemies, buffer, count);
+        }
+        long bishops = board.getPieces(color, Board.BISHOP) & origins;
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            long destinations = AttackTables.bishopAttacks(from, occupied) & moveMask;
+            count = addMoves(from, pinFilter(destinations, from, kingSquare, pinned), enemies, buffer, count);
+        }
+        long rooks = board.getPieces(color, Board.ROOK) & origins;
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            long destinations = AttackTables.rookAttacks(from, occupied) & moveMask;
+            count = addMoves(from, pinFilter(destinations, from, kingSquare, pinned), enemies, buffer, count);
+        }
+        long queens = board.getPieces(color, Board.QUEEN) & origins;
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            long destinations = AttackTables.queenAttacks(from, occupied) & moveMask;
+            count = addMoves(from, pinFilter(destinations, from, kingSquare, pinned), enemies, buffer, count);
+        }
+        if (kingMoves) {
+            if (!legal) {
+                count = addMoves(kingSquare, AttackTables.kingAttacks(kingSquare) & targets, enemies, buffer, count);
+            }
+            if (checkMask == -1L) {
+                count = generateCastling(board, color, kingSquare, legal, buffer, count);
+            }
+        }
+        return count;
+    }
+
+    // Зв'язані фігури: між королем і далекобійною фігурою суперника стоїть рівно одна наша фігура
+    private static long pinnedPieces(Board board, Color color, Color opponent, int kingSquare, long own, long occupied) {
+        long enemyOccupancy = board.getOccupancy(opponent);
+        long queens = board.getPieces(opponent, Board.QUEEN);
+        long snipers = (AttackTables.rookAttacks(kingSquare, enemyOccupancy) & (board.getPieces(opponent, Board.ROOK) | queens))
+                | (AttackTables.bishopAttacks(kingSquare, enemyOccupancy) & (board.getPieces(opponent, Board.BISHOP) | queens));
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    // Зв'язана фігура може рухатися лише вздовж лінії зв'язки
+    private static long pinFilter(long destinations, int from, int kingSquare, long pinned) {
+        return (pinned & (1L << from)) != 0 ? destinations & AttackTables.line(kingSquare, from) : destinations;
+    }
+
+    private static int addMoves(int from, long destinations, long enemies, int[] buffer, int count) {
+        while (destinations != 0) {
+            int to = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            buffer[count++] = Move.encode(from, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Board board, Color color, int kingSquare, long enemies, long occupied,
+                                         long checkMask, long pinned, boolean legal, long origins, int[] buffer, int count) {
+        boolean white = color == Color.WHITE;
+        int forward = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+        int promotionRow = white ? 0 : 7;
+        // Взяття на проході можливе лише на третю горизонталь від суперника
+        int epSquare = board.getEnPassantSquare();
+        long epBit = epSquare != -1 && epSquare / 8 == (white ? 2 : 5) ? 1L << epSquare : 0L;
+
+        long pawns = board.getPieces(color, Board.PAWN) & origins;
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = pinFilter(checkMask, from, kingSquare, pinned);
+
+            int to = from + forward;
+            if ((occupied & (1L << to)) == 0) {
+                if ((allowed & (1L << to)) != 0) {
+                    if (to / 8 == promotionRow) {
+                        count = addPromotions(from, to, 0, buffer, count);
+                    } else {
+                        buffer[count++] = Move.encode(from, to, 0);
+                    }
+                }
+                int doubleTo = to + forward;
+                if (from / 8 == startRow && (occupied & (1L << doubleTo)) == 0 && (allowed & (1L << doubleTo)) != 0) {
+                    buffer[count++] = Move.encode(from, doubleTo, Move.DOUBLE_PUSH);
+                }
+            }
+
+            long attacks = AttackTables.pawnAttacks(color, from);
+            long captures = attacks & enemies & allowed;
+            while (captures != 0) {
+                int target = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (target / 8 == promotionRow) {
+                    count = addPromotions(from, target, Move.CAPTURE, buffer, count);
+                } else {
+                    buffer[count++] = Move.encode(from, target, Move.CAPTURE);
+                }
+            }
+            if ((attacks & epBit) != 0 && (!legal || isLegalEnPassant(board, color, kingSquare, from, epSquare, occupied))) {
+                buffer[count++] = Move.encode(from, epSquare, Move.CAPTURE | Move.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    // Взяття на проході прибирає з лінії дві фігури одразу, тому перевіряємо розкритий шах по зміненій зайнятості
+    private static boolean isLegalEnPassant(Board board, Color color, int kingSquare, int from, int to, long occupied) {
+        Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int capturedSquare = to + (color == Color.WHITE ? 8 : -8);
+        long after = (occupied & ~(1L << from) & ~(1L << capturedSquare)) | (1L << to);
+        long queens = board.getPieces(opponent, Board.QUEEN);
+        if ((AttackTables.rookAttacks(kingSquare, after) & (board.getPieces(opponent, Board.ROOK) | queens)) != 0) {
+            return false;
+        }
+        if ((AttackTables.bishopAttacks(kingSquare, after) & (board.getPieces(opponent, Board.BISHOP) | queens)) != 0) {
+            return false;
+        }
+        // Шах конем чи пішаком знімається лише взяттям самого шахуючого пішака
+        long leapers = (AttackTables.knightAttacks(kingSquare) & board.getPieces(opponent, Board.KNIGHT))
+                | (AttackTables.pawnAttacks(color, kingSquare) & board.getPieces(opponent, Board.PAWN));
+        return (leapers & ~(1L << capturedSquare)) == 0;
+    }
+
+    private static int addPromotions(int from, int to, int flags, int[] buffer, int count) {
+        for (int type : PROMOTION_TYPES) {
+            buffer[count++] = Move.encodePromotion(from, to, type, flags);
+        }
+        return count;
+    }
+
+    // Рокіровка: права, порожні клітинки між королем і турою, король не під шахом і не проходить через атаковане поле.
+    // Кінцеву клітинку перевіряємо лише в легальному режимі.
+    private static int generateCastling(Board board, Color color, int kingSquare, boolean legal, int[] buffer, int count) {
+        int rights = board.getCastlingRights();
+        boolean white = color == Color.WHITE;
+        int homeRow = white ? 7 : 0;
+        int kingside = white ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queenside = white ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0 || kingSquare != Board.square(homeRow, 4)) {
+            return count;
+        }
+
+        Color opponent = white ? Color.BLACK : Color.WHITE;
+        long occupied = board.getOccupied();
+        if (!legal && AttackTables.isSquareAttacked(board, kingSquare, opponent)) {
+            return count;
+        }
+        if ((rights & kingside) != 0
+                && (occupied & ((1L << (kingSquare + 1)) | (1L << (kingSquare + 2)))) == 0
+                && !AttackTables.isSquareAttacked(board, kingSquare + 1, opponent)
+                && !(legal && AttackTables.isSquareAttacked(board, kingSquare + 2, opponent))) {
+            buffer[count++] = Move.encode(kingSquare, kingSquare + 2, Move.CASTLE);
+        }
+        if ((rights & queenside) != 0
+                && (occupied & ((1L << (kingSquare - 1)) | (1L << (kingSquare - 2)) | (1L << (kingSquare - 3)))) == 0
+                && !AttackTables.isSquareAttacked(board, kingSquare - 1, opponent)
+                && !(legal && AttackTables.isSquareAttacked(board, kingSquare - 2, opponent))) {
+            buffer[count++] = Move.encode(kingSquare, kingSquare - 2, Move.CASTLE);
+        }
+        return count;
+    }
+}
@@ -19,12 +19,12 @@ public class ChessMoveValidator implements MoveValidator {
             return false;
         }
 
-        if (piece instanceof King && isCastlingMove(piece, fromRow, fromColumn, toRow, toColumn)) {
-            return validateCastling(board, (King) piece, fromRow, fromColumn, toRow, toColumn);
+        if (piece instanceof King && isCastlingMove(board, piece, fromRow, fromColumn, toRow, toColumn)) {
+            return validateCastling(board, piece, fromRow, fromColumn, toRow, toColumn);
         }
 
-        MoveContext context = new MoveContext(board.getGrid(), coordinator.getEnPassantTargetRow(), coordinator.getEnPassantTargetColumn(), coordinator.isEnPassantPossible());
-        if (!piece.isValidMove(toRow, toColumn, context)) {
+        MoveContext context = new MoveContext(board, coordinator.getEnPassantTargetRow(), coordinator.getEnPassantTargetColumn(), coordinator.isEnPassantPossible(), board.getCastlingRights());
+        if (!piece.isValidMove(fromRow, fromColumn, toRow, toColumn, context)) {
             return false;
         }
 
@@ -35,15 +35,16 @@ public class ChessMoveValidator implements MoveValidator {
         return piece != null && piece.getColor() == (isWhiteTurn ? Color.WHITE : Color.BLACK) && !(board.getPieceAt(toRow, toColumn) instanceof King);
     }
 
-    private boolean isCastlingMove(Piece piece, int fromRow, int fromColumn, int toRow, int toColumn) {
-        return piece instanceof King && !((King) piece).getHasMoved() && fromRow == toRow && Math.abs(toColumn - fromColumn) == 2;
+    private boolean isCastlingMove(Board board, Piece piece, int fromRow, int fromColumn, int toRow, int toColumn) {
+        int rights = piece.getColor() == Color.WHITE ? Board.WHITE_KINGSIDE | Board.WHITE_QUEENSIDE : Board.BLACK_KINGSIDE | Board.BLACK_QUEENSIDE;
+        return piece instanceof King && (board.getCastlingRights() & rights) != 0 && fromRow == toRow && Math.abs(toColumn - fromColumn) == 2;
     }
 
-    private boolean validateCastling(Board board, King king, int fromRow, int fromColumn, int toRow, int toColumn) {
+    private boolean validateCastling(Board board, Piece king, int fromRow, int fromColumn, int toRow, int toColumn) {
         boolean isKingside = toColumn > fromColumn;
         int rookColumn = isKingside ? 7 : 0;
         Piece rookPiece = board.getPieceAt(fromRow, rookColumn);
-        if (!(rookPiece instanceof Rook) || ((Rook) rookPiece).getHasMoved() || rookPiece.getColor() != king.getColor()) {
+        if (!(rookPiece instanceof Rook) || rookPiece.getColor() != king.getColor()) {
             return false;
         }
 
@@ -74,13 +75,11 @@ public class ChessMoveValidator implements MoveValidator {
         Piece tempTarget = grid[toRow][toColumn];
         grid[toRow][toColumn] = piece;
         grid[fromRow][fromColumn] = null;
-        piece.setPosition(toRow, toColumn);
 
         ChessRules chessRules = new ChessRules();
         chessRules.setGameCoordinator(coordinator);
         boolean inCheck = chessRules.isKingInCheck(board, piece.getColor());
 
-        piece.setPosition(fromRow, fromColumn);
         grid[fromRow][fromColumn] = piece;
         grid[toRow][toColumn] = tempTarget;
         return inCheck;
@@ -11,166 +11,84 @@ public class ChessRules implements GameRules {
         if (!isBasicMoveValid(piece, isWhiteTurn, board, toRow, toColumn)) {
             return false;
         }
+        return (getLegalTargets(board, fromRow, fromColumn) & (1L << Board.square(toRow, toColumn))) != 0;
+    }
 
-        if (piece instanceof King && isCastlingMove(piece, fromRow, fromColumn, toRow, toColumn)) {
-            return validateCastling(board, (King) piece, fromRow, fromColumn, toRow, toColumn);
+    // Маска клітинок, куди фігура з (row, column) може легально піти. Генерує ходи лише цієї фігури
+    // у локальний буфер, тож виклики з різних потоків не заважають один одному
+    public long getLegalTargets(Board board, int row, int column) {
+        Piece piece = board.getPieceAt(row, column);
+        if (piece == null) {
+            return 0L;
         }
-
-        MoveContext context = new MoveContext(board.getGrid(), coordinator.getEnPassantTargetRow(), coordinator.getEnPassantTargetColumn(), coordinator.isEnPassantPossible());
-        if (!piece.isValidMove(toRow, toColumn, context)) {
-            return false;
+        int[] moves = new int[ChessMoveGenerator.MAX_PIECE_MOVES];
+        int count = ChessMoveGenerator.generateLegalFrom(board, piece.getColor(), Board.square(row, column), moves);
+        long targets = 0L;
+        for (int i = 0; i < count; i++) {
+            targets |= 1L << Move.to(moves[i]);
         }
-
-        return !leavesKingInCheck(board, piece, fromRow, fromColumn, toRow, toColumn);
+        return targets;
     }
 
     boolean isBasicMoveValid(Piece piece, boolean isWhiteTurn, Board board, int toRow, int toColumn) {
-        return piece != null && piece.getColor() == (isWhiteTurn ? Color.WHITE : Color.BLACK) && !(board.getPieceAt(toRow, toColumn) instanceof King);
-    }
-
-    boolean isCastlingMove(Piece piece, int fromRow, int fromColumn, int toRow, int toColumn) {
-        return piece instanceof King && !((King) piece).getHasMoved() && fromRow == toRow && Math.abs(toColumn - fromColumn) == 2;
-    }
-
-    boolean validateCastling(Board board, King king, int fromRow, int fromColumn, int toRow, int toColumn) {
-        boolean isKingside = toColumn > fromColumn;
-        int rookColumn = isKingside ? 7 : 0;
-        Piece rookPiece = board.getPieceAt(fromRow, rookColumn);
-        if (!(rookPiece instanceof Rook) || ((Rook) rookPiece).getHasMoved() || rookPiece.getColor() != king.getColor()) {
-            return false;
-        }
-
-        int minCol = Math.min(fromColumn, rookColumn);
-        int maxCol = Math.max(fromColumn, rookColumn);
-        for (int column = minCol + 1; column < maxCol; column++) {
-            if (board.getPieceAt(fromRow, column) != null) {
-                return false;
-            }
-        }
-
-        if (isKingInCheck(board, king.getColor())) {
+        if (piece == null || piece.getColor() != (isWhiteTurn ? Color.WHITE : Color.BLACK)) {
             return false;
         }
-
-        int step = isKingside ? 1 : -1;
-        if (isSquareAttacked(board, fromRow, fromColumn + step, king.getColor())) {
-            return false;
-        }
-        if (isSquareAttacked(board, fromRow, toColumn, king.getColor())) {
-            return false;
-        }
-        return true;
+        // Швидка перевірка по масках: не можна бити короля чи стати на свою фігуру
+        long target = 1L << Board.square(toRow, toColumn);
+        long kings = board.getPieces(Board.KING) | board.getPieces(Board.KING + Board.BLACK_OFFSET);
+        return ((kings | board.getOccupancy(piece.getColor())) & target) == 0;
     }
 
-    boolean leavesKingInCheck(Board board, Piece piece, int fromRow, int fromColumn, int toRow, int toColumn) {
-        Piece tempTarget = board.getPieceAt(toRow, toColumn);
-
-        Piece enPassantCapturedPiece = null;
-        int epRow = -1, epCol = -1;
-
-        if (piece instanceof Pawn && Math.abs(toColumn - fromColumn) == 1 && tempTarget == null) {
-            int direction = piece.getColor() == Color.WHITE ? -1 : 1;
-            epRow = toRow - direction;
-            epCol = toColumn;
-            enPassantCapturedPiece = board.getPieceAt(epRow, epCol);
-            board.setPieceAt(epRow, epCol, null);
-        }
-
-        if (piece instanceof King && Math.abs(toColumn - fromColumn) == 2) {
-            if (isKingInCheck(board, piece.getColor())) {
-                return true;
-            }
-
-            int step = (toColumn > fromColumn) ? 1 : -1;
-            int passColumn = fromColumn + step;
-
-            board.setPieceAt(fromRow, passColumn, piece);
-            board.setPieceAt(fromRow, fromColumn, null);
-            boolean passCheck = isKingInCheck(board, piece.getColor());
-
-            board.setPieceAt(fromRow, fromColumn, piece);
-            board.setPieceAt(fromRow, passColumn, null);
-
-            if (passCheck) {
-                return true;
-            }
-        }
-
-        board.setPieceAt(toRow, toColumn, piece);
-        board.setPieceAt(fromRow, fromColumn, null);
-
-        boolean inCheck = isKingInCheck(board, piece.getColor());
-
-        board.setPieceAt(fromRow, fromColumn, piece);
-        board.setPieceAt(toRow, toColumn, tempTarget);
-
-        if (enPassantCapturedPiece != null) {
-            board.setPieceAt(epRow, epCol, enPassantCapturedPiece);
-        }
-
+    // Робить хід на дошці, перевіряє шах і повертає позицію назад через стек скасування
+    boolean leavesKingInCheck(Board board, Color color, int move) {
+        board.makeMove(move);
+        boolean inCheck = isKingInCheck(board, color);
+        board.unmakeMove(move);
         return inCheck;
     }
 
     @Override
     public boolean isKingInCheck(Board board, Color color) {
-        Piece[][] grid = board.getGrid();
-        King king = null;
-        for (int row = 0; row < 8; row++) {
-            for (int column = 0; column < 8; column++) {
-                if (grid[row][column] instanceof King && grid[row][column].getColor() == color) {
-                    king = (King) grid[row][column];
-                    break;
-                }
-            }
-            if (king != null) break;
-        }
-        return king != null && king.isInCheck(grid);
+        int kingSquare = board.getKingSquare(color);
+        return kingSquare != -1 && AttackTables.isSquareAttacked(board, kingSquare, color == Color.WHITE ? Color.BLACK : Color.WHITE);
     }
 
     // --- НОВІ МЕТОДИ ДЛЯ ПЕРЕВІРКИ СТАНУ ГРИ ---
 
     // Метод перевіряє, чи є у гравця хоча б один легальний хід
     public boolean hasLegalMoves(Board board, Color color) {
-        boolean isWhiteTurn = color == Color.WHITE;
-        Piece[][] grid = board.getGrid();
-        for (int fromRow = 0; fromRow < 8; fromRow++) {
-            for (int fromColumn = 0; fromColumn < 8; fromColumn++) {
-                Piece piece = grid[fromRow][fromColumn];
-                if (piece != null && piece.getColor() == color) {
-                    for (int toRow = 0; toRow < 8; toRow++) {
-                        for (int toColumn = 0; toColumn < 8; toColumn++) {
-                            if (isValidMove(board, fromRow, fromColumn, toRow, toColumn, isWhiteTurn, false)) {
-                                return true;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return ChessMoveGenerator.generateLegal(board, color, new int[Move.MAX_MOVES]) > 0;
+    }
+
+    @Override
+    public int generateMoves(Board board, Color color, int[] buffer) {
+        return ChessMoveGenerator.generateLegal(board, color, buffer);
+    }
+
+    @Override
+    public int generatePseudoLegalMoves(Board board, Color color, int[] buffer) {
+        return ChessMoveGenerator.generatePseudoLegal(board, color, buffer);
+    }
+
+    // Повільна перевірка через makeMove/unmakeMove, корисна для звірки з генератором легальних ходів
+    boolean isLegal(Board board, int move) {
+        int from = Move.from(move);
+        Color color = board.getPieceIndex(from) >= Board.BLACK_OFFSET ? Color.BLACK : Color.WHITE;
+        return !leavesKingInCheck(board, color, move);
     }
 
     // Метод перевіряє, чи достатньо матеріалу на дошці для того, щоб поставити мат
     public boolean isInsufficientMaterial(Board board) {
-        Piece[][] grid = board.getGrid();
-        int whiteKnights = 0, whiteBishops = 0, blackKnights = 0, blackBishops = 0;
-        int otherPieces = 0;
+        int whiteKnights = Long.bitCount(board.getPieces(Color.WHITE, Board.KNIGHT));
+        int whiteBishops = Long.bitCount(board.getPieces(Color.WHITE, Board.BISHOP));
+        int blackKnights = Long.bitCount(board.getPieces(Color.BLACK, Board.KNIGHT));
+        int blackBishops = Long.bitCount(board.getPieces(Color.BLACK, Board.BISHOP));
 
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = grid[r][c];
-                if (p != null) {
-                    if (p instanceof King) continue;
-                    if (p instanceof Knight) {
-                        if (p.getColor() == Color.WHITE) whiteKnights++; else blackKnights++;
-                    } else if (p instanceof Bishop) {
-                        if (p.getColor() == Color.WHITE) whiteBishops++; else blackBishops++;
-                    } else {
-                        // Пішаки, Тури та Ферзі - це достатній матеріал
-                        otherPieces++;
-                    }
-                }
-            }
+        // Пішаки, Тури та Ферзі - це достатній матеріал
+        int otherPieces = 0;
+        for (Color color : Color.values()) {
+            otherPieces += Long.bitCount(board.getPieces(color, Board.PAWN) | board.getPieces(color, Board.ROOK) | board.getPieces(color, Board.QUEEN));
         }
 
         if (otherPieces > 0) return false;
@@ -205,7 +123,7 @@ public class ChessRules implements GameRules {
         }
 
         if (piece instanceof King && Math.abs(toColumn - fromColumn) == 2 && fromRow == toRow) {
-            performCastling(board, fromRow, fromColumn, toRow, toColumn, (King) piece);
+            performCastling(board, fromRow, fromColumn, toRow, toColumn, piece);
             return;
         }
 
@@ -215,57 +133,28 @@ public class ChessRules implements GameRules {
 
         board.setPieceAt(toRow, toColumn, piece);
         board.setPieceAt(fromRow, fromColumn, null);
-        piece.setPosition(toRow, toColumn);
-        updatePieceMoveStatus(piece);
+        board.updateCastlingRights(Board.square(fromRow, fromColumn), Board.square(toRow, toColumn));
     }
 
-    void performCastling(Board board, int fromRow, int fromColumn, int toRow, int toColumn, King king) {
+    void performCastling(Board board, int fromRow, int fromColumn, int toRow, int toColumn, Piece king) {
         boolean isKingside = toColumn > fromColumn;
         int rookFromColumn = isKingside ? 7 : 0;
         int rookToColumn = isKingside ? (fromColumn == 3 ? 4 : 5) : (fromColumn == 3 ? 2 : 3);
-        Rook rook = (Rook) board.getPieceAt(fromRow, rookFromColumn);
+        Piece rook = board.getPieceAt(fromRow, rookFromColumn);
 
         board.setPieceAt(toRow, toColumn, king);
         board.setPieceAt(fromRow, fromColumn, null);
-        king.setPosition(toRow, toColumn);
 
         board.setPieceAt(toRow, rookToColumn, rook);
         board.setPieceAt(fromRow, rookFromColumn, null);
-        rook.setPosition(toRow, rookToColumn);
+        board.updateCastlingRights(Board.square(fromRow, fromColumn), Board.square(toRow, toColumn));
 
         System.out.println("Performed " + (isKingside ? "Kingside" : "Queenside") + " castling.");
     }
 
-    void updatePieceMoveStatus(Piece piece) {
-        if (piece instanceof King) {
-            ((King) piece).setHasMoved(true);
-        } else if (piece instanceof Rook) {
-            ((Rook) piece).setHasMoved(true);
-        }
-    }
-
     boolean isSquareAttacked(Board board, int targetRow, int targetColumn, Color friendlyKingColor) {
         Color opponentColor = friendlyKingColor == Color.WHITE ? Color.BLACK : Color.WHITE;
-        MoveContext context = new MoveContext(board.getGrid(), coordinator.getEnPassantTargetRow(), coordinator.getEnPassantTargetColumn(), coordinator.isEnPassantPossible());
-
-        for (int row = 0; row < 8; row++) {
-            for (int column = 0; column < 8; column++) {
-                Piece attackingPiece = board.getPieceAt(row, column);
-                if (attackingPiece != null && attackingPiece.getColor() == opponentColor) {
-                    if (attackingPiece instanceof Pawn) {
-                        int direction = attackingPiece.getColor() == Color.WHITE ? -1 : 1;
-                        if (targetRow == row + direction && (targetColumn == column - 1 || targetColumn == column + 1)) {
-                            return true;
-                        }
-                    } else {
-                        if (attackingPiece.isValidMove(targetRow, targetColumn, context)) {
-                            return true;
-                        }
-                    }
-                }
-            }
-        }
-        return false;
+        return AttackTables.isSquareAttacked(board, Board.square(targetRow, targetColumn), opponentColor);
     }
 
     @Override
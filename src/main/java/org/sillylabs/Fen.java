@@ -0,0 +1,100 @@
+package org.sillylabs;
+
+import org.sillylabs.pieces.*;
+
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    // Символи FEN у порядку типів Board.PAWN..Board.KING
+    private static final String PIECE_SYMBOLS = "pnbrqk";
+
+    private Fen() {
+    }
+
+    // Розставляє позицію з FEN на дошці і повертає колір, чий хід
+    public static Color load(Board board, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("Некоректний FEN: " + fen);
+        }
+        board.clear();
+
+        String[] ranks = fields[0].split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("FEN має містити 8 горизонталей: " + fen);
+        }
+        for (int row = 0; row < 8; row++) {
+            int column = 0;
+            for (char symbol : ranks[row].toCharArray()) {
+                if (Character.isDigit(symbol)) {
+                    column += symbol - '0';
+                } else {
+                    if (column >= 8) {
+                        throw new IllegalArgumentException("Забагато клітинок у горизонталі: " + ranks[row]);
+                    }
+                    board.setPieceAt(row, column, createPiece(symbol));
+                    column++;
+                }
+            }
+            if (column != 8) {
+                throw new IllegalArgumentException("Неповна горизонталь: " + ranks[row]);
+            }
+        }
+
+        Color sideToMove = switch (fields[1]) {
+            case "w" -> Color.WHITE;
+            case "b" -> Color.BLACK;
+            default -> throw new IllegalArgumentException("Невідомий колір ходу: " + fields[1]);
+        };
+
+        board.setCastlingRights(fields.length > 2 ? parseCastling(fields[2]) : 0);
+
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            board.setEnPassantSquare(parseSquare(fields[3]));
+        }
+        if (fields.length > 4) {
+            board.setHalfmoveClock(Integer.parseInt(fields[4]));
+        }
+        return sideToMove;
+    }
+
+    private static Piece createPiece(char symbol) {
+        int type = PIECE_SYMBOLS.indexOf(Character.toLowerCase(symbol));
+        if (type < 0) {
+            throw new IllegalArgumentException("Невідома фігура: " + symbol);
+        }
+        return Pieces.chess(Character.isUpperCase(symbol) ? Color.WHITE : Color.BLACK, type);
+    }
+
+    private static int parseCastling(String field) {
+        int rights = 0;
+        for (char symbol : field.toCharArray()) {
+            switch (symbol) {
+                case 'K' -> rights |= Board.WHITE_KINGSIDE;
+                case 'Q' -> rights |= Board.WHITE_QUEENSIDE;
+                case 'k' -> rights |= Board.BLACK_KINGSIDE;
+                case 'q' -> rights |= Board.BLACK_QUEENSIDE;
+                case '-' -> {
+                }
+                default -> throw new IllegalArgumentException("Невідоме право на рокіровку: " + symbol);
+            }
+        }
+        return rights;
+    }
+
+    // "e3" -> індекс клітинки (рядок 0 - восьма горизонталь)
+    public static int parseSquare(String name) {
+        if (name.length() != 2) {
+            throw new IllegalArgumentException("Некоректна клітинка: " + name);
+        }
+        int column = name.charAt(0) - 'a';
+        int row = 8 - (name.charAt(1) - '0');
+        if (column < 0 || column > 7 || row < 0 || row > 7) {
+            throw new IllegalArgumentException("Некоректна клітинка: " + name);
+        }
+        return Board.square(row, column);
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + square % 8) + (char) ('1' + 7 - square / 8);
+    }
+}
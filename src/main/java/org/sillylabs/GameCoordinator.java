@@ -2,31 +2,42 @@ package org.sillylabs;
 
 import org.sillylabs.pieces.*;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 public class GameCoordinator implements GameStateView {
+    // Символи фігур за кодом (Piece.getCode): для FEN, налагоджувального стану позиції і нотації ходів.
+    // У FEN шашки позначаються як пішаки, у нотації - лише клітинками.
+    private static final String FEN_SYMBOLS = "PNBRQKpnbrqkPPpp";
+    private static final String STATE_SYMBOLS = "PNBRQKpnbrqkCKck";
+    private static final String[] NOTATION_SYMBOLS = {"", "N", "B", "R", "Q", "K", "", "N", "B", "R", "Q", "K", "", "", "", ""};
+
     private final Board board;
     private TurnManager turnManager;
     private SpecialMoveHandler specialMoveHandler;
     private PromotionHandler promotionHandler;
     private GameMode gameMode;
     private GameRules gameRules;
-    private final List<String> moveHistory;
+    // Історія ходів у форматі Move; текст формується лише на запит getMoveHistory()
+    private final MoveList moveHistory;
+    private long[] moveTimes;
     private final List<GameObserver> observers;
+    private final MoveList generatedMoves = new MoveList();
 
-    // Історія позицій для правила трикратного повторення
-    private final Map<String, Integer> positionCounts;
+    // Історія ключів Zobrist для правила трикратного повторення
+    private long[] positionHistory;
+    private int positionCount;
+    private int lastIrreversibleIndex;
 
     public GameCoordinator() {
         board = new Board();
         turnManager = new TurnManager();
         specialMoveHandler = new SpecialMoveHandler();
         promotionHandler = new PromotionHandler();
-        moveHistory = new ArrayList<>();
+        moveHistory = new MoveList();
+        moveTimes = new long[Move.MAX_MOVES];
         observers = new ArrayList<>();
-        positionCounts = new HashMap<>();
+        positionHistory = new long[256];
     }
 
     public void addObserver(GameObserver observer) {
@@ -38,15 +49,21 @@ public class GameCoordinator implements GameStateView {
     }
 
     public void start(GameMode mode) {
+        start(mode, 0, 0);
+    }
+
+    // Гра з годинником: базовий час і додавання за хід у мілісекундах (baseTime 0 - без годинника)
+    public void start(GameMode mode, long baseTime, long increment) {
         this.gameMode = mode;
 
-        this.turnManager = new TurnManager();
+        this.turnManager = new TurnManager(baseTime, increment);
         this.specialMoveHandler = new SpecialMoveHandler();
         this.promotionHandler = new PromotionHandler();
 
         board.setupBoard(mode);
         moveHistory.clear();
-        positionCounts.clear(); // Очищуємо історію позицій при старті
+        positionCount = 0; // Очищуємо історію позицій при старті
+        lastIrreversibleIndex = 0;
 
         gameRules = switch (mode) {
             case CHESS -> new ChessRules();
@@ -74,13 +91,8 @@ public class GameCoordinator implements GameStateView {
                         fen.append(emptySquares);
                         emptySquares = 0;
                     }
-                    char pieceChar = getPieceChar(p);
                     // Білі фігури з великої літери, чорні - з маленької
-                    if (p.getColor() == org.sillylabs.pieces.Color.WHITE) {
-                        fen.append(Character.toUpperCase(pieceChar));
-                    } else {
-                        fen.append(Character.toLowerCase(pieceChar));
-                    }
+                    fen.append(FEN_SYMBOLS.charAt(p.getCode()));
                 }
             }
             if (emptySquares > 0) {
@@ -96,24 +108,50 @@ public class GameCoordinator implements GameStateView {
         return fen.toString();
     }
 
-    private char getPieceChar(Piece p) {
-        String name = p.getClass().getSimpleName();
-        switch (name) {
-            case "Pawn": return 'p';
-            case "Knight": return 'n';
-            case "Bishop": return 'b';
-            case "Rook": return 'r';
-            case "Queen": return 'q';
-            case "King": return 'k';
-            default: return 'p';
-        }
-    }
-
     public boolean isValidMove(int fromRow, int fromColumn, int toRow, int toColumn) {
         return gameRules.isValidMove(board, fromRow, fromColumn, toRow, toColumn, turnManager.isWhiteTurn(), specialMoveHandler.isMultiJump());
     }
 
+    // Записує в moves легальні ходи фігури з (row, column) для гравця, чий зараз хід
+    public void getLegalMoves(int row, int column, MoveList moves) {
+        moves.clear();
+        Piece piece = board.getPieceAt(row, column);
+        if (piece == null || piece.getColor() != turnManager.getCurrentPlayerColor()) {
+            return;
+        }
+        int from = Board.square(row, column);
+        if (specialMoveHandler.isMultiJump()) {
+            // Серія взяттів: продовжувати можна лише тією ж шашкою і лише взяттям
+            if (row != specialMoveHandler.getMultiJumpFromRow() || column != specialMoveHandler.getMultiJumpFromColumn()
+                    || !(gameRules instanceof CheckersRules checkersRules)) {
+                return;
+            }
+            int[] buffer = generatedMoves.buffer();
+            int count = checkersRules.generateCaptures(board, piece.getColor(), from, buffer, 0);
+            for (int i = 0; i < count; i++) {
+                moves.add(buffer[i] | Move.MULTI_JUMP);
+            }
+            return;
+        }
+        gameRules.generateMoves(board, piece.getColor(), generatedMoves);
+        for (int i = 0; i < generatedMoves.size(); i++) {
+            if (Move.from(generatedMoves.get(i)) == from) {
+                moves.add(generatedMoves.get(i));
+            }
+        }
+    }
+
     public boolean makeMove(int fromRow, int fromColumn, int toRow, int toColumn) {
+        return makeMove(Move.encode(Board.square(fromRow, fromColumn), Board.square(toRow, toColumn), 0));
+    }
+
+    // Хід у форматі Move. Якщо в ході вказано фігуру перетворення (наприклад, від рушія), вона ставиться одразу
+    public boolean makeMove(int move) {
+        int fromRow = Move.from(move) / 8;
+        int fromColumn = Move.from(move) % 8;
+        int toRow = Move.to(move) / 8;
+        int toColumn = Move.to(move) % 8;
+
         if (promotionHandler.isWaitingForPromotion()) {
             notifyStatus("Спочатку виберіть фігуру для перетворення пішака!");
             return false;
@@ -155,22 +193,17 @@ public class GameCoordinator implements GameStateView {
         }
 
         long moveEndTime = System.currentTimeMillis();
-        double timeTaken = (moveEndTime - turnManager.getTurnStartTime()) / 1000.0;
 
-        String moveNotation = getMoveNotation(fromRow, fromColumn, toRow, toColumn);
-        String moveRecord = String.format("%s (%.2f сек)", moveNotation, timeTaken);
-        moveHistory.add(moveRecord);
+        int recordedMove = describeMove(fromRow, fromColumn, toRow, toColumn);
+        recordMove(recordedMove, moveEndTime - turnManager.getTurnStartTime());
 
-        int capturedPawnRow = -1, capturedPawnColumn = -1;
-        boolean isEnPassant = specialMoveHandler.isEnPassantMove(board, fromRow, fromColumn, toRow, toColumn);
+        boolean isEnPassant = Move.isEnPassant(recordedMove);
         if (isEnPassant) {
             irreversibleMove = true; // Взяття на проході - це теж незворотний хід
-            int direction = board.getPieceAt(fromRow, fromColumn).getColor() == Color.WHITE ? -1 : 1;
-            capturedPawnRow = toRow - direction;
-            capturedPawnColumn = toColumn;
         }
 
-        gameRules.movePiece(board, fromRow, fromColumn, toRow, toColumn, specialMoveHandler.isMultiJump(), capturedPawnRow, capturedPawnColumn);
+        gameRules.movePiece(board, recordedMove, specialMoveHandler.isMultiJump());
+        board.setHalfmoveClock(irreversibleMove ? 0 : board.getHalfmoveClock() + 1);
         specialMoveHandler.updateEnPassant(board, fromRow, toRow, toColumn);
         Piece movedPiece = board.getPieceAt(toRow, toColumn);
         specialMoveHandler.updateMultiJump(board, movedPiece, fromRow, fromColumn, toRow, toColumn, gameMode, this);
@@ -192,6 +225,10 @@ public class GameCoordinator implements GameStateView {
         } else if (specialMoveHandler.isMultiJump()) {
             notifyStatus("Продовжуйте взяття або підтвердіть закінчення ходу!");
         }
+
+        if (promotionHandler.isWaitingForPromotion() && Move.promotion(move) != 0) {
+            completePawnPromotion(promotionName(Move.promotion(move)));
+        }
         return true;
     }
 
@@ -201,6 +238,12 @@ public class GameCoordinator implements GameStateView {
         // Записуємо позицію
         recordPosition(irreversibleMove);
 
+        // Хід, зроблений після падіння прапорця, програє партію
+        if (turnManager.isFlagged(previousPlayerColor)) {
+            announceTimeout(previousPlayerColor);
+            return;
+        }
+
         // Перевірка на трикратне повторення (Працює і для Шахів, і для Шашок)
         if (isThreefoldRepetition()) {
             notifyStatus("Нічия! Трикратне повторення позиції.");
@@ -250,41 +293,44 @@ public class GameCoordinator implements GameStateView {
     }
 
     private void recordPosition(boolean irreversible) {
-        // Якщо хід незворотний (пішак або взяття), очищуємо історію, бо повторення вже неможливе
+        // Якщо хід незворотний (пішак або взяття), повторення попередніх позицій вже неможливе
         if (irreversible) {
-            positionCounts.clear();
+            lastIrreversibleIndex = positionCount;
+        }
+        if (positionCount == positionHistory.length) {
+            positionHistory = Arrays.copyOf(positionHistory, positionCount * 2);
         }
-        String state = generateBoardState(board, turnManager.getCurrentPlayerColor());
-        positionCounts.put(state, positionCounts.getOrDefault(state, 0) + 1);
+        positionHistory[positionCount++] = getPositionKey();
     }
 
     private boolean isThreefoldRepetition() {
-        for (int count : positionCounts.values()) {
-            if (count >= 3) return true;
+        // Йдемо назад лише до останнього незворотного ходу; черга ходу вже врахована в ключі
+        long current = positionHistory[positionCount - 1];
+        int repetitions = 1;
+        for (int i = positionCount - 2; i >= lastIrreversibleIndex; i--) {
+            if (positionHistory[i] == current && ++repetitions >= 3) {
+                return true;
+            }
         }
         return false;
     }
 
-    private String generateBoardState(Board board, Color turnColor) {
+    // 64-бітний ключ поточної позиції (можна використовувати як ключ кешу чи таблиці транспозицій)
+    public long getPositionKey() {
+        return board.getZobristKey(turnManager.getCurrentPlayerColor());
+    }
+
+    // Текстове представлення позиції для налагодження
+    String generateBoardState(Board board, Color turnColor) {
         StringBuilder sb = new StringBuilder();
-        Piece[][] grid = board.getGrid();
         for (int r = 0; r < 8; r++) {
             for (int c = 0; c < 8; c++) {
-                Piece p = grid[r][c];
+                Piece p = board.getPieceAt(r, c);
                 if (p == null) {
                     sb.append("1");
                 } else {
-                    char type = p.getType().charAt(0);
-                    if (p.getType().equals("Knight")) type = 'N';
-
-                    // НОВИЙ РЯДОК: Якщо це шашка і вона дамка, позначаємо її як 'K' (King)
-                    if (p instanceof CheckersPiece && ((CheckersPiece) p).isKing()) {
-                        type = 'K';
-                    }
-
-                    if (p.getColor() == Color.WHITE) type = Character.toUpperCase(type);
-                    else type = Character.toLowerCase(type);
-                    sb.append(type);
+                    // Шашка - 'C', дамка - 'K'
+                    sb.append(STATE_SYMBOLS.charAt(p.getCode()));
                 }
             }
         }
@@ -293,42 +339,73 @@ public class GameCoordinator implements GameStateView {
     }
     // ----------------------------------------------
 
-    private String getMoveNotation(int fromRow, int fromColumn, int toRow, int toColumn) {
+    // Упаковує хід з прапорцями і кодом фігури (до його виконання на дошці)
+    private int describeMove(int fromRow, int fromColumn, int toRow, int toColumn) {
         Piece piece = board.getPieceAt(fromRow, fromColumn);
-        if (piece instanceof King && fromColumn == 4 && toRow == fromRow) {
-            if (toColumn == 6) {
-                return "O-O";
-            } else if (toColumn == 2) {
-                return "O-O-O";
+        int flags = board.getPieceAt(toRow, toColumn) != null ? Move.CAPTURE : 0;
+        if (piece instanceof CheckersPiece && Math.abs(toRow - fromRow) >= 2 && Math.abs(toColumn - fromColumn) >= 2) {
+            flags |= Move.CAPTURE;
+            if (specialMoveHandler.isMultiJump()) {
+                flags |= Move.MULTI_JUMP;
             }
+        } else if (specialMoveHandler.isEnPassantMove(board, fromRow, fromColumn, toRow, toColumn)) {
+            flags |= Move.CAPTURE | Move.EN_PASSANT;
+        } else if (piece instanceof Pawn && Math.abs(toRow - fromRow) == 2) {
+            flags |= Move.DOUBLE_PUSH;
+        } else if (piece instanceof King && fromRow == toRow && Math.abs(toColumn - fromColumn) == 2) {
+            flags |= Move.CASTLE;
         }
-        char fromFile = (char) ('a' + fromColumn);
-        int fromRank = 8 - fromRow;
-        char toFile = (char) ('a' + toColumn);
-        int toRank = 8 - toRow;
-        String pieceSymbol = piece instanceof CheckersPiece ? "" : getPieceSymbol(piece.getType());
-        String capture = (piece instanceof CheckersPiece && Math.abs(toRow - fromRow) >= 2 && Math.abs(toColumn - fromColumn) >= 2) ||
-                board.getPieceAt(toRow, toColumn) != null ||
-                (piece instanceof Pawn && Math.abs(toColumn - fromColumn) == 1 && board.getPieceAt(toRow, toColumn) == null &&
-                        toRow == specialMoveHandler.getEnPassantTargetRow() && toColumn == specialMoveHandler.getEnPassantTargetColumn()) ? "x" : "";
-        return String.format("%s%s%s%s%d", pieceSymbol, fromFile + "" + fromRank, capture, toFile, toRank);
+        int move = Move.encode(Board.square(fromRow, fromColumn), Board.square(toRow, toColumn), flags);
+        return Move.withPiece(move, Board.pieceIndex(piece));
     }
 
-    private String getPieceSymbol(String pieceType) {
+    private void recordMove(int move, long timeMillis) {
+        if (moveHistory.size() == moveTimes.length) {
+            moveTimes = Arrays.copyOf(moveTimes, moveTimes.length * 2);
+        }
+        moveTimes[moveHistory.size()] = timeMillis;
+        moveHistory.add(move);
+    }
+
+    private String formatMove(int move, long timeMillis) {
+        String notation;
+        if (Move.isCastle(move)) {
+            notation = Move.to(move) % 8 == 6 ? "O-O" : "O-O-O";
+        } else {
+            notation = getPieceSymbol(Move.piece(move)) + Fen.squareName(Move.from(move))
+                    + (Move.isCapture(move) ? "x" : "") + Fen.squareName(Move.to(move));
+        }
+        return String.format("%s (%.2f сек)", notation, timeMillis / 1000.0);
+    }
+
+    private String getPieceSymbol(int pieceIndex) {
+        return pieceIndex == Board.NO_PIECE ? "" : NOTATION_SYMBOLS[pieceIndex];
+    }
+
+    private static int promotionType(String pieceType) {
         return switch (pieceType) {
-            case "King" -> "K";
-            case "Queen" -> "Q";
-            case "Rook" -> "R";
-            case "Bishop" -> "B";
-            case "Knight" -> "N";
-            case "Pawn" -> "";
-            default -> "";
+            case "Rook" -> Board.ROOK;
+            case "Bishop" -> Board.BISHOP;
+            case "Knight" -> Board.KNIGHT;
+            default -> Board.QUEEN;
+        };
+    }
+
+    private static String promotionName(int promotionType) {
+        return switch (promotionType) {
+            case Board.ROOK -> "Rook";
+            case Board.BISHOP -> "Bishop";
+            case Board.KNIGHT -> "Knight";
+            default -> "Queen";
         };
     }
 
     public void completePawnPromotion(String pieceType) {
         promotionHandler.completePromotion(board, pieceType, this);
         if (!promotionHandler.isWaitingForPromotion()) {
+            // Дописуємо вибрану фігуру в останній хід історії, щоб він відповідав UCI-нотації
+            int last = moveHistory.size() - 1;
+            moveHistory.set(last, Move.withPromotion(moveHistory.get(last), promotionType(pieceType)));
             turnManager.switchTurn();
             Color currentPlayerColor = turnManager.getCurrentPlayerColor();
             Color previousPlayerColor = currentPlayerColor == Color.WHITE ? Color.BLACK : Color.WHITE;
@@ -365,8 +442,13 @@ public class GameCoordinator implements GameStateView {
     }
 
     @Override
-    public Piece[][] getBoardState() {
-        return board.getGrid();
+    public BoardView getBoardState() {
+        return board;
+    }
+
+    @Override
+    public BoardView getBoardSnapshot() {
+        return board.snapshot();
     }
 
     @Override
@@ -421,6 +503,49 @@ public class GameCoordinator implements GameStateView {
     }
 
     public List<String> getMoveHistory() {
-        return new ArrayList<>(moveHistory);
+        List<String> history = new ArrayList<>(moveHistory.size());
+        for (int i = 0; i < moveHistory.size(); i++) {
+            history.add(formatMove(moveHistory.get(i), moveTimes[i]));
+        }
+        return history;
+    }
+
+    public boolean hasClock() {
+        return turnManager.hasClock();
+    }
+
+    // Для таймера інтерфейсу: гравець на ході програє, щойно його час вичерпано, не чекаючи ходу
+    public boolean checkTimeout() {
+        Color currentPlayerColor = turnManager.getCurrentPlayerColor();
+        if (gameMode == null || !turnManager.isFlagged(currentPlayerColor)) {
+            return false;
+        }
+        announceTimeout(currentPlayerColor);
+        return true;
+    }
+
+    private void announceTimeout(Color loser) {
+        Color winner = loser == Color.WHITE ? Color.BLACK : Color.WHITE;
+        notifyStatus("Час вичерпано! Перемога " + (winner == Color.WHITE ? "Білі" : "Чорні") + "!");
+        notifyGameOver(true, winner);
+    }
+
+    // Залишок часу гравця в мілісекундах (лише для гри з годинником)
+    public long getRemainingTime(Color color) {
+        return turnManager.getRemainingTime(color);
+    }
+
+    public long getIncrement() {
+        return turnManager.getIncrement();
+    }
+
+    // Ключі позицій після останнього незворотного ходу, без поточної - для пошуку повторень рушієм
+    public long[] getRepetitionHistory() {
+        return Arrays.copyOfRange(positionHistory, lastIrreversibleIndex, Math.max(lastIrreversibleIndex, positionCount - 1));
+    }
+
+    // Зроблені ходи у форматі Move (копія)
+    public MoveList getMoveList() {
+        return moveHistory.copy();
     }
 }
\ No newline at end of file
@@ -6,6 +6,29 @@ public interface GameRules {
     boolean isValidMove(Board board, int fromRow, int fromColumn, int toRow, int toColumn, boolean isWhiteTurn, boolean isMultiJump);
     boolean isKingInCheck(Board board, Color color);
     boolean isGameOver(Board board, Color color);
+    // Записує ходи кольору в buffer (розміром не менше Move.MAX_MOVES) і повертає їх кількість
+    int generateMoves(Board board, Color color, int[] buffer);
+    int generatePseudoLegalMoves(Board board, Color color, int[] buffer);
     void movePiece(Board board, int fromRow, int fromColumn, int toRow, int toColumn, boolean isMultiJump, int capturedPawnRow, int capturedPawnColumn);
     void setGameCoordinator(GameCoordinator coordinator);
+
+    // Ті самі операції для ходу, упакованого в int (див. Move)
+    default boolean isValidMove(Board board, int move, boolean isWhiteTurn, boolean isMultiJump) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        return isValidMove(board, from / 8, from % 8, to / 8, to % 8, isWhiteTurn, isMultiJump);
+    }
+
+    default void generateMoves(Board board, Color color, MoveList moves) {
+        moves.setSize(generateMoves(board, color, moves.buffer()));
+    }
+
+    default void movePiece(Board board, int move, boolean isMultiJump) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        // Взятий на проході пішак стоїть на рядку "звідки" і стовпчику "куди"
+        int capturedRow = Move.isEnPassant(move) ? from / 8 : -1;
+        int capturedColumn = Move.isEnPassant(move) ? to % 8 : -1;
+        movePiece(board, from / 8, from % 8, to / 8, to % 8, isMultiJump, capturedRow, capturedColumn);
+    }
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ package org.sillylabs;
 import org.sillylabs.pieces.*;
 
 public interface GameStateView {
-    Piece[][] getBoardState();
+    // Поточна позиція лише для читання (без копіювання); змінюється разом з грою
+    BoardView getBoardState();
+    // Незмінний знімок позиції для коду, який читає її пізніше або з іншого потоку
+    BoardView getBoardSnapshot();
     boolean isWhiteTurn();
     GameMode getGameMode();
     boolean isMultiJump();
@@ -0,0 +1,114 @@
+package org.sillylabs;
+
+public final class Move {
+    // Хід упакований в int: біти 0-5 - звідки, 6-11 - куди, 12-14 - фігура перетворення, 15-19 - прапорці,
+    // 20-24 - код фігури, що ходить (Board.pieceIndex + 1, 0 - невідомо; заповнюється для історії ходів)
+    public static final int NONE = 0;
+    public static final int MAX_MOVES = 256;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLE = 1 << 18;
+    // Шашки: продовження серії взяттів тією ж шашкою
+    public static final int MULTI_JUMP = 1 << 19;
+
+    private static final int PIECE_SHIFT = 20;
+    private static final String PROMOTION_SYMBOLS = " nbrq";
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    public static int encodePromotion(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | (promotionType << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    // Тип фігури перетворення (Board.KNIGHT..Board.QUEEN) або 0, якщо це не перетворення
+    public static int promotion(int move) {
+        return (move >>> 12) & 0x7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (move & DOUBLE_PUSH) != 0;
+    }
+
+    public static boolean isMultiJump(int move) {
+        return (move & MULTI_JUMP) != 0;
+    }
+
+    public static int withPromotion(int move, int promotionType) {
+        return (move & ~(0x7 << 12)) | (promotionType << 12);
+    }
+
+    public static int withPiece(int move, int pieceIndex) {
+        return (move & ~(0x1F << PIECE_SHIFT)) | ((pieceIndex + 1) << PIECE_SHIFT);
+    }
+
+    // Код фігури (як у Board.pieceIndex) або Board.NO_PIECE, якщо він не записаний
+    public static int piece(int move) {
+        return ((move >>> PIECE_SHIFT) & 0x1F) - 1;
+    }
+
+    // Координатна нотація UCI: "e2e4", "e7e8q"
+    public static String toUci(int move) {
+        StringBuilder uci = new StringBuilder(5);
+        appendSquare(uci, from(move));
+        appendSquare(uci, to(move));
+        if (promotion(move) != 0) {
+            uci.append(PROMOTION_SYMBOLS.charAt(promotion(move)));
+        }
+        return uci.toString();
+    }
+
+    // Розбирає UCI-хід; прапорці не відновлюються, для цього хід треба зіставити з легальними ходами позиції
+    public static int fromUci(String uci) {
+        if (uci == null || uci.length() < 4 || uci.length() > 5) {
+            return NONE;
+        }
+        int from = parseSquare(uci.charAt(0), uci.charAt(1));
+        int to = parseSquare(uci.charAt(2), uci.charAt(3));
+        if (from < 0 || to < 0) {
+            return NONE;
+        }
+        int promotionType = uci.length() == 5 ? PROMOTION_SYMBOLS.indexOf(Character.toLowerCase(uci.charAt(4))) : 0;
+        if (promotionType < Board.KNIGHT && uci.length() == 5) {
+            return NONE;
+        }
+        return encodePromotion(from, to, promotionType, 0);
+    }
+
+    private static void appendSquare(StringBuilder builder, int square) {
+        builder.append((char) ('a' + square % 8)).append((char) ('8' - square / 8));
+    }
+
+    private static int parseSquare(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return Board.square('8' - rank, file - 'a');
+    }
+}
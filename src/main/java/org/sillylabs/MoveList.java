@@ -0,0 +1,69 @@
+package org.sillylabs;
+
+import java.util.Arrays;
+
+// Список упакованих ходів (див. Move) на примітивному масиві, без упаковки в Integer
+public final class MoveList {
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(Move.MAX_MOVES);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public MoveList copy() {
+        MoveList copy = new MoveList(moves.length);
+        System.arraycopy(moves, 0, copy.moves, 0, size);
+        copy.size = size;
+        return copy;
+    }
+
+    // Внутрішній масив для генераторів ходів: місця вистачає щонайменше на Move.MAX_MOVES ходів
+    int[] buffer() {
+        if (moves.length < Move.MAX_MOVES) {
+            moves = Arrays.copyOf(moves, Move.MAX_MOVES);
+        }
+        return moves;
+    }
+
+    void setSize(int size) {
+        this.size = size;
+    }
+}
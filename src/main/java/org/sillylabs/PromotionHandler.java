@@ -32,20 +32,21 @@ public class PromotionHandler {
             }
         } else if (piece instanceof CheckersPiece checkersPiece && !checkersPiece.isKing() &&
                 ((piece.getColor() == Color.WHITE && row == 0) || (piece.getColor() == Color.BLACK && row == 7))) {
-            checkersPiece.setKing(true);
+            // Ставимо дамку того ж кольору: дошка оновить код фігури та ключ Zobrist
+            board.setPieceAt(row, column, Pieces.checkers(checkersPiece.getColor(), true));
             coordinator.notifyStatus("Шашка превращена в дамку!");
         }
     }
 
     public void completePromotion(Board board, String pieceType, GameCoordinator coordinator) {
         if (waitingForPromotion) {
-            Piece newPiece = switch (pieceType) {
-                case "Queen" -> new Queen(promotionColor, promotionRow, promotionColumn);
-                case "Rook" -> new Rook(promotionColor, promotionRow, promotionColumn);
-                case "Bishop" -> new Bishop(promotionColor, promotionRow, promotionColumn);
-                case "Knight" -> new Knight(promotionColor, promotionRow, promotionColumn);
-                default -> new Queen(promotionColor, promotionRow, promotionColumn);
+            int type = switch (pieceType) {
+                case "Rook" -> Board.ROOK;
+                case "Bishop" -> Board.BISHOP;
+                case "Knight" -> Board.KNIGHT;
+                default -> Board.QUEEN;
             };
+            Piece newPiece = Pieces.chess(promotionColor, type);
             board.setPieceAt(promotionRow, promotionColumn, newPiece);
             System.out.println("Pawn promoted to " + pieceType + " at (" + promotionRow + ", " + promotionColumn + ")");
             waitingForPromotion = false;
@@ -65,6 +65,7 @@ public class SpecialMoveHandler {
             enPassantTargetRow = (fromRow + toRow) / 2;
             enPassantTargetColumn = toColumn;
         }
+        board.setEnPassantSquare(enPassantPossible ? Board.square(enPassantTargetRow, enPassantTargetColumn) : -1);
     }
 
     // ВАЖЛИВО: додано fromRow та fromColumn
@@ -72,7 +73,7 @@ public class SpecialMoveHandler {
         if (gameMode == GameMode.CHECKERS && piece instanceof CheckersPiece checkersPiece) {
             boolean isCaptureMove = Math.abs(toRow - fromRow) >= 2 && Math.abs(toColumn - fromColumn) >= 2;
             if (isCaptureMove) {
-                List<int[]> furtherCaptures = checkersPiece.getCaptureMoves(toRow, toColumn, board.getGrid(), gameMode);
+                List<int[]> furtherCaptures = checkersPiece.getCaptureMoves(toRow, toColumn, board, gameMode);
                 if (!furtherCaptures.isEmpty()) {
                     isMultiJump = true;
                     multiJumpFromRow = toRow;
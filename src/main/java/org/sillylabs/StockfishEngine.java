@@ -5,14 +5,15 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 
-public class StockfishEngine {
+public class StockfishEngine implements ChessEngine {
     private Process engineProcess;
     private BufferedReader processReader;
     private OutputStreamWriter processWriter;
 
-    // Шлях до виконуваного файлу Stockfish
-    private static final String PATH = "engine/stockfish.exe";
+    // Шлях до виконуваного файлу Stockfish (його ж запускає UciEnginePool.stockfish)
+    static final String PATH = "engine/stockfish.exe";
 
+    @Override
     public boolean startEngine() {
         try {
             engineProcess = new ProcessBuilder(PATH).start();
@@ -45,9 +46,39 @@ public class StockfishEngine {
         }
     }
 
-    public String getBestMove(String fen, int waitTime) {
+    // Найкращий хід для позиції у FEN або Move.NONE, якщо рушій ходу не дав
+    public int getBestMove(String fen, int waitTime) {
         sendCommand("position fen " + fen);
-        sendCommand("go movetime " + waitTime);
+        return searchBestMove("go movetime " + waitTime);
+    }
+
+    // Позиція задається ходами від початкової: так рушій знає права на рокіровку, взяття на проході й повторення
+    @Override
+    public int getBestMove(MoveList moves, int waitTime) {
+        sendPosition(moves);
+        return searchBestMove("go movetime " + waitTime);
+    }
+
+    // Годинник передаємо рушію як є: Stockfish має власний розподіл часу
+    @Override
+    public int getBestMove(MoveList moves, long whiteTime, long blackTime, long whiteIncrement, long blackIncrement) {
+        sendPosition(moves);
+        return searchBestMove("go wtime " + whiteTime + " btime " + blackTime + " winc " + whiteIncrement + " binc " + blackIncrement);
+    }
+
+    private void sendPosition(MoveList moves) {
+        StringBuilder command = new StringBuilder("position startpos");
+        if (!moves.isEmpty()) {
+            command.append(" moves");
+            for (int i = 0; i < moves.size(); i++) {
+                command.append(' ').append(Move.toUci(moves.get(i)));
+            }
+        }
+        sendCommand(command.toString());
+    }
+
+    private int searchBestMove(String goCommand) {
+        sendCommand(goCommand);
 
         String bestMove = null;
         try {
@@ -61,9 +92,10 @@ public class StockfishEngine {
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return bestMove;
+        return Move.fromUci(bestMove);
     }
 
+    @Override
     public void stopEngine() {
         try {
             sendCommand("quit");
@@ -6,9 +6,24 @@ public class TurnManager {
     private boolean isWhiteTurn;
     private long turnStartTime;
 
+    // Годинник: базовий час і додавання за хід у мілісекундах; baseTime 0 - гра без годинника
+    private final long baseTime;
+    private final long increment;
+    private long whiteRemaining;
+    private long blackRemaining;
+    private Color flagged;
+
     public TurnManager() {
+        this(0, 0);
+    }
+
+    public TurnManager(long baseTime, long increment) {
         isWhiteTurn = true;
         turnStartTime = System.currentTimeMillis();
+        this.baseTime = baseTime;
+        this.increment = increment;
+        whiteRemaining = baseTime;
+        blackRemaining = baseTime;
     }
 
     public boolean isWhiteTurn() {
@@ -19,12 +34,55 @@ public class TurnManager {
         return isWhiteTurn ? Color.WHITE : Color.BLACK;
     }
 
+    // Гравець, що завершив хід, платить витраченим часом і отримує додавання
     public void switchTurn() {
+        long now = System.currentTimeMillis();
+        if (hasClock()) {
+            long spent = now - turnStartTime;
+            // Прапорець падає до додавання: додавання не рятує хід, що вийшов за залишок
+            if (flagged == null && spent >= getRemainingBeforeMove()) {
+                flagged = getCurrentPlayerColor();
+            }
+            if (isWhiteTurn) {
+                whiteRemaining = whiteRemaining - spent + increment;
+            } else {
+                blackRemaining = blackRemaining - spent + increment;
+            }
+        }
         isWhiteTurn = !isWhiteTurn;
-        turnStartTime = System.currentTimeMillis();
+        turnStartTime = now;
     }
 
     public long getTurnStartTime() {
         return turnStartTime;
     }
-}
\ No newline at end of file
+
+    public boolean hasClock() {
+        return baseTime > 0;
+    }
+
+    public long getBaseTime() {
+        return baseTime;
+    }
+
+    public long getIncrement() {
+        return increment;
+    }
+
+    // Залишок часу зараз: для гравця на ході - мінус час поточного ходу; може бути від'ємним, якщо прапорець впав
+    public long getRemainingTime(Color color) {
+        long remaining = color == Color.WHITE ? whiteRemaining : blackRemaining;
+        if (color == getCurrentPlayerColor()) {
+            remaining -= System.currentTimeMillis() - turnStartTime;
+        }
+        return remaining;
+    }
+
+    public boolean isFlagged(Color color) {
+        return hasClock() && (flagged == color || getRemainingTime(color) <= 0);
+    }
+
+    private long getRemainingBeforeMove() {
+        return isWhiteTurn ? whiteRemaining : blackRemaining;
+    }
+}
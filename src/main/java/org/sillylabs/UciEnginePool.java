@@ -0,0 +1,354 @@
+package org.sillylabs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Пул процесів UCI-рушія (Stockfish чи будь-якої іншої програми з UCI) з асинхронними запитами.
+// Процесів не більше size: кожен робочий потік пулу бере вільний процес (або запускає новий),
+// тож одночасних пошуків теж не більше size, а решта запитів чекає в черзі.
+// У кожного запиту є межа часу: запит, що простояв у черзі довше, завершується TimeoutException;
+// на межі рушію надсилається "stop", і він віддає найкращий знайдений хід; якщо й після цього
+// рушій мовчить STOP_GRACE_MILLIS, процес убивається, а запит завершується TimeoutException.
+// Скасування CompletableFuture теж надсилає "stop"; відповідь рушія відкидається, процес лишається в пулі.
+public final class UciEnginePool implements AutoCloseable {
+    // Скільки чекати bestmove після "stop" і відповіді на uci/isready під час запуску
+    static final long STOP_GRACE_MILLIS = 1000;
+    static final long STARTUP_TIMEOUT_MILLIS = 5000;
+    // Запас до межі для запиту з фіксованим часом на хід: обмін рядками і запуск процесу
+    static final long MOVE_TIME_MARGIN_MILLIS = 2000;
+
+    private final List<String> command;
+    private final int hashMegabytes;
+    private final int threads;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService timer;
+    private final BlockingQueue<UciProcess> idle = new LinkedBlockingQueue<>();
+    private final Set<UciProcess> processes = ConcurrentHashMap.newKeySet();
+    // Запити в черзі та в роботі: close() завершує їх винятком, бо shutdownNow() викидає задачі з черги мовчки
+    private final Set<Request> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    // command - програма рушія з аргументами; hashMegabytes і threads - опції Hash і Threads (0 - як у рушія)
+    public UciEnginePool(List<String> command, int size, int hashMegabytes, int threads) {
+        this.command = List.copyOf(command);
+        this.hashMegabytes = hashMegabytes;
+        this.threads = threads;
+        AtomicInteger workerNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, size), runnable -> {
+            Thread thread = new Thread(runnable, "uci-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "uci-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Пул процесів StockfishEngine.PATH
+    public static UciEnginePool stockfish(int size, int hashMegabytes, int threads) {
+        return new UciEnginePool(List.of(StockfishEngine.PATH), size, hashMegabytes, threads);
+    }
+
+    // Запускає перший процес наперед; false, якщо рушій не запускається чи не відповідає на UCI
+    public boolean start() {
+        try {
+            idle.add(launch());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Хід після ходів партії від початкової позиції з фіксованим часом на пошук
+    public CompletableFuture<BestMove> bestMove(MoveList moves, int moveTime) {
+        return submit(positionCommand(moves), "go movetime " + moveTime, moveTime + MOVE_TIME_MARGIN_MILLIS);
+    }
+
+    // Те саме з годинником партії; timeoutMillis - межа для всього запиту
+    public CompletableFuture<BestMove> bestMove(MoveList moves, long whiteTime, long blackTime,
+                                                long whiteIncrement, long blackIncrement, long timeoutMillis) {
+        return submit(positionCommand(moves), "go wtime " + whiteTime + " btime " + blackTime
+                + " winc " + whiteIncrement + " binc " + blackIncrement, timeoutMillis);
+    }
+
+    public CompletableFuture<BestMove> bestMove(String fen, int moveTime) {
+        return submit("position fen " + fen, "go movetime " + moveTime, moveTime + MOVE_TIME_MARGIN_MILLIS);
+    }
+
+    // Довільні команди "position ..." і "go ..." з межею timeoutMillis від моменту виклику
+    public CompletableFuture<BestMove> submit(String position, String go, long timeoutMillis) {
+        Request request = new Request(position, go, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        // До перевірки closed: або close() побачить запит у pending, або запит побачить closed
+        pending.add(request);
+        request.future.whenComplete((result, error) -> {
+            pending.remove(request);
+            if (request.future.isCancelled()) {
+                request.stop();
+            }
+        });
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("UCI engine pool is closed");
+            }
+            workers.execute(() -> run(request));
+        } catch (RejectedExecutionException e) {
+            request.future.completeExceptionally(e);
+        }
+        return request.future;
+    }
+
+    // Зупиняє всі процеси; незавершені запити завершуються винятком
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdownNow();
+        timer.shutdownNow();
+        for (Request request : pending) {
+            request.future.completeExceptionally(new RejectedExecutionException("UCI engine pool is closed"));
+        }
+        for (UciProcess process : processes) {
+            process.quit();
+        }
+        processes.clear();
+        idle.clear();
+    }
+
+    private void run(Request request) {
+        if (request.future.isDone()) {
+            return;
+        }
+        long remaining = request.deadline - System.nanoTime();
+        if (remaining <= 0) {
+            request.future.completeExceptionally(new TimeoutException("UCI request expired in the queue"));
+            return;
+        }
+        UciProcess process = idle.poll();
+        try {
+            if (process != null && !process.isAlive()) {
+                // Процес помер, поки чекав у черзі: прибираємо його, щоб close() не тримав мертвих
+                process.kill();
+                processes.remove(process);
+                process = null;
+            }
+            if (process == null) {
+                process = launch();
+            }
+        } catch (IOException | RuntimeException e) {
+            request.future.completeExceptionally(e);
+            return;
+        }
+        UciProcess running = process;
+        ScheduledFuture<?> stopTimer = timer.schedule(request::stop, remaining, TimeUnit.NANOSECONDS);
+        ScheduledFuture<?> killTimer = timer.schedule(running::kill,
+                remaining + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MILLIS), TimeUnit.NANOSECONDS);
+        long start = System.nanoTime();
+        try {
+            request.attach(running);
+            String[] reply = running.search(request.position, request.go);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String ponder = reply.length > 3 && reply[2].equals("ponder") ? reply[3] : null;
+            request.future.complete(new BestMove(reply[1], ponder, elapsed));
+        } catch (IOException | RuntimeException e) {
+            // Будь-який збій завершує запит: виняток, що лишився б у пулі потоків, не дійшов би до викликача
+            boolean timedOut = running.killed;
+            running.kill();
+            request.future.completeExceptionally(timedOut ? new TimeoutException("UCI engine did not answer after stop") : e);
+        } finally {
+            stopTimer.cancel(false);
+            killTimer.cancel(false);
+            request.detach();
+            if (running.isAlive() && !closed) {
+                idle.add(running);
+            } else {
+                processes.remove(running);
+            }
+        }
+    }
+
+    private UciProcess launch() throws IOException {
+        UciProcess process = new UciProcess(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start());
+        processes.add(process);
+        // Процес, що не відповідає на uci чи isready, вбиваємо: читання тоді завершиться помилкою
+        ScheduledFuture<?> killTimer = timer.schedule(process::kill, STARTUP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            process.send("uci");
+            process.await("uciok");
+            if (hashMegabytes > 0) {
+                process.send("setoption name Hash value " + hashMegabytes);
+            }
+            if (threads > 0) {
+                process.send("setoption name Threads value " + threads);
+            }
+            process.send("isready");
+            process.await("readyok");
+            return process;
+        } catch (IOException e) {
+            process.kill();
+            processes.remove(process);
+            throw e;
+        } finally {
+            killTimer.cancel(false);
+        }
+    }
+
+    private static String positionCommand(MoveList moves) {
+        StringBuilder command = new StringBuilder("position startpos");
+        if (!moves.isEmpty()) {
+            command.append(" moves");
+            for (int i = 0; i < moves.size(); i++) {
+                command.append(' ').append(Move.toUci(moves.get(i)));
+            }
+        }
+        return command.toString();
+    }
+
+    // Запит у черзі чи в роботі; stop() може прийти з таймера або від скасування в будь-який момент
+    private static final class Request {
+        final String position;
+        final String go;
+        final long deadline;
+        final CompletableFuture<BestMove> future = new CompletableFuture<>();
+        private UciProcess process;
+        private boolean stopped;
+
+        Request(String position, String go, long deadline) {
+            this.position = position;
+            this.go = go;
+            this.deadline = deadline;
+        }
+
+        synchronized void attach(UciProcess process) {
+            this.process = process;
+            // Скасували, поки процес ще запускався: пошук зупиниться одразу після "go"
+            if (future.isCancelled()) {
+                stop();
+            }
+        }
+
+        synchronized void detach() {
+            if (process != null) {
+                process.clearStop();
+            }
+            process = null;
+        }
+
+        synchronized void stop() {
+            if (process != null && !stopped) {
+                stopped = true;
+                process.stopSearch();
+            }
+        }
+    }
+
+    // Один процес рушія: команди пишуться з будь-якого потоку, відповіді читає робочий потік
+    private static final class UciProcess {
+        private final Process process;
+        private final BufferedReader reader;
+        private final Writer writer;
+        volatile boolean killed;
+        private boolean searching;
+        private boolean stopRequested;
+
+        UciProcess(Process process) {
+            this.process = process;
+            reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+            writer = new OutputStreamWriter(process.getOutputStream());
+        }
+
+        boolean isAlive() {
+            return !killed && process.isAlive();
+        }
+
+        synchronized void send(String command) {
+            try {
+                writer.write(command + "\n");
+                writer.flush();
+            } catch (IOException e) {
+                kill();
+            }
+        }
+
+        // Рядок відповіді, що починається з prefix; кінець виводу - помилка
+        String await(String prefix) throws IOException {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith(prefix)) {
+                    return line;
+                }
+            }
+            throw new IOException("UCI engine closed its output");
+        }
+
+        // Токени рядка "bestmove <move> [ponder <move>]"; рядок без ходу - помилка рушія
+        String[] search(String position, String go) throws IOException {
+            synchronized (this) {
+                send(position);
+                send(go);
+                searching = true;
+                if (stopRequested) {
+                    send("stop");
+                }
+            }
+            try {
+                String line = await("bestmove");
+                String[] tokens = line.trim().split("\\s+");
+                if (!tokens[0].equals("bestmove") || tokens.length < 2) {
+                    throw new IOException("Malformed UCI reply: " + line);
+                }
+                return tokens;
+            } finally {
+                synchronized (this) {
+                    searching = false;
+                }
+            }
+        }
+
+        // "stop" до початку пошуку запам'ятовується і надсилається одразу після "go"
+        synchronized void stopSearch() {
+            if (searching) {
+                send("stop");
+            } else {
+                stopRequested = true;
+            }
+        }
+
+        synchronized void clearStop() {
+            stopRequested = false;
+        }
+
+        void kill() {
+            killed = true;
+            process.destroyForcibly();
+        }
+
+        void quit() {
+            send("quit");
+            try {
+                if (!process.waitFor(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                    kill();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                kill();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.sillylabs;
+
+public final class Zobrist {
+    // Ключі для кожного коду фігури (шахові 0-11, шашки 12-15) на кожній клітинці
+    private static final long[][] PIECE_KEYS = new long[16][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    public static final long SIDE_TO_MOVE;
+
+    static {
+        // Фіксоване зерно: однакові ключі при кожному запуску (придатні для збереження на диск)
+        long seed = 0x9E3779B97F4A7C15L;
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                seed = next(seed);
+                keys[square] = mix(seed);
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            seed = next(seed);
+            CASTLING_KEYS[i] = i == 0 ? 0L : mix(seed);
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            seed = next(seed);
+            EN_PASSANT_KEYS[i] = mix(seed);
+        }
+        seed = next(seed);
+        SIDE_TO_MOVE = mix(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex][square];
+    }
+
+    public static long castling(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    public static long enPassant(int square) {
+        return EN_PASSANT_KEYS[square % 8];
+    }
+
+    // SplitMix64
+    private static long next(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,187 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
+import org.sillylabs.ChessEngine;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Fen;
+import org.sillylabs.GameMode;
+import org.sillylabs.Move;
+import org.sillylabs.MoveList;
+import org.sillylabs.pieces.Color;
+
+import java.util.Arrays;
+
+// Вбудований рушій: той самий інтерфейс, що й StockfishEngine, але без зовнішнього процесу.
+// Позицію відтворює на власній дошці, тож пошук не чіпає дошку партії. Дошка і пошук у рушія одні,
+// тому пошуки з різних потоків ідуть по черзі (synchronized); stopEngine() діє без очікування.
+public class BuiltinEngine implements ChessEngine {
+    private final Board board = new Board();
+    private final ParallelSearch search;
+    private ChessTablebase tablebase;
+    private long[] history = new long[256];
+
+    public BuiltinEngine() {
+        this(Search.DEFAULT_HASH_MB);
+    }
+
+    // Розмір таблиці транспозицій у мегабайтах
+    public BuiltinEngine(int hashMegabytes) {
+        this(hashMegabytes, 1);
+    }
+
+    // threads > 1 вмикає Lazy SMP: помічники шукають паралельно над спільною таблицею
+    public BuiltinEngine(int hashMegabytes, int threads) {
+        search = new ParallelSearch(new TranspositionTable(hashMegabytes), threads);
+    }
+
+    public TranspositionTable getTable() {
+        return search.getTable();
+    }
+
+    // Таблиці ендшпілів для пошуку і для probeTablebase; null вимикає
+    public void setTablebase(ChessTablebase tablebase) {
+        this.tablebase = tablebase;
+        search.setTablebase(tablebase);
+    }
+
+    // Оцінка позиції партії за таблицями для сторони на ході (див. ChessTablebase.probe)
+    // або ChessTablebase.UNKNOWN, якщо таблиць немає чи фігур забагато
+    public int probeTablebase(BoardView position, Color sideToMove) {
+        return tablebase == null ? ChessTablebase.UNKNOWN : tablebase.probe(position, sideToMove);
+    }
+
+    @Override
+    public boolean startEngine() {
+        return true;
+    }
+
+    @Override
+    public int getBestMove(MoveList moves, int waitTime) {
+        return search(moves, SearchLimits.time(waitTime)).getBestMove();
+    }
+
+    // Бюджет на хід рахує TimeManager за годинником того, хто ходить
+    @Override
+    public int getBestMove(MoveList moves, long whiteTime, long blackTime, long whiteIncrement, long blackIncrement) {
+        boolean whiteToMove = moves.size() % 2 == 0;
+        SearchLimits limits = whiteToMove ? TimeManager.limits(whiteTime, whiteIncrement) : TimeManager.limits(blackTime, blackIncrement);
+        return search(moves, limits).getBestMove();
+    }
+
+    public int getBestMove(String fen, int waitTime) {
+        return search(fen, SearchLimits.time(waitTime)).getBestMove();
+    }
+
+    // Ходи партії від початкової позиції (як у GameCoordinator.getMoveList) і межі пошуку
+    public SearchResult search(MoveList moves, SearchLimits limits) {
+        return search(moves, limits, search.nextGeneration());
+    }
+
+    // Номер для пошуку, який запустить інший потік: stopEngine() після цього виклику зупинить і його,
+    // навіть якщо потік ще не почав шукати (див. ParallelSearch.nextGeneration)
+    public long nextGeneration() {
+        return search.nextGeneration();
+    }
+
+    public synchronized SearchResult search(MoveList moves, SearchLimits limits, long generation) {
+        board.setupBoard(GameMode.CHESS);
+        Color sideToMove = replay(moves, Color.WHITE);
+        return search.search(board, sideToMove, limits, history, moves.size(), generation);
+    }
+
+    // Позиція з FEN і ходи після неї, як "position fen ... moves ..." в UCI
+    public synchronized SearchResult search(String fen, MoveList moves, SearchLimits limits, long generation) {
+        Color sideToMove = replay(moves, Fen.load(board, fen));
+        return search.search(board, sideToMove, limits, history, moves.size(), generation);
+    }
+
+    // Робить ходи на власній дошці, запам'ятовуючи ключі позицій для повторень; повертає, чий хід
+    private Color replay(MoveList moves, Color sideToMove) {
+        if (history.length < moves.size() + 1) {
+            history = new long[moves.size() + 1];
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            history[i] = board.getZobristKey(sideToMove);
+            board.makeMove(moves.get(i));
+            sideToMove = sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+        }
+        return sideToMove;
+    }
+
+    public synchronized SearchResult search(String fen, SearchLimits limits) {
+        Color sideToMove = Fen.load(board, fen);
+        return search.search(board, sideToMove, limits);
+    }
+
+    // Перериває пошук, що йде в іншому потоці; getBestMove поверне найкращий знайдений хід
+    @Override
+    public void stopEngine() {
+        search.stop();
+    }
+
+    // Звільняє потоки помічників; після цього рушій не використовується
+    public void close() {
+        search.close();
+    }
+
+    // Консольний запуск: BuiltinEngine <depth> [FEN]; друкує результат і лічильники таблиці транспозицій.
+    // BuiltinEngine play <timeMillis> [FEN] - партія рушія з самим собою; з таблицями ендшпілів
+    // (-Dtablebases) вона закінчується, щойно результат позиції відомий з таблиць.
+    // Кількість потоків - властивість -Dthreads=N (за замовчуванням 1)
+    public static void main(String[] args) {
+        boolean play = args.length > 0 && args[0].equals("play");
+        int first = play ? 1 : 0;
+        int value = args.length > first ? Integer.parseInt(args[first]) : (play ? 100 : 6);
+        String fen = args.length > first + 1 ? String.join(" ", Arrays.copyOfRange(args, first + 1, args.length)) : Fen.START_POSITION;
+        BuiltinEngine engine = new BuiltinEngine(Search.DEFAULT_HASH_MB, Integer.getInteger("threads", 1));
+        engine.setTablebase(ChessTablebase.openDefault());
+        if (play) {
+            engine.selfPlay(fen, value);
+            engine.close();
+            return;
+        }
+        System.out.println(engine.search(fen, SearchLimits.depth(value)));
+        TranspositionTable table = engine.getTable();
+        System.out.println("hash hits " + table.getHits() + " misses " + table.getMisses() + " stores " + table.getStores()
+                + " overwrites " + table.getOverwrites() + " hashfull " + table.getHashfull());
+        engine.close();
+    }
+
+    private void selfPlay(String fen, long timeMillis) {
+        Board position = new Board();
+        Color sideToMove = Fen.load(position, fen);
+        int[] moves = new int[Move.MAX_MOVES];
+        long[] keys = new long[1024];
+        int keyCount = 0;
+        for (int ply = 0; ply < keys.length; ply++) {
+            Color opponent = sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+            if (ChessMoveGenerator.generateLegal(position, sideToMove, moves) == 0) {
+                boolean mate = AttackTables.isSquareAttacked(position, position.getKingSquare(sideToMove), opponent);
+                System.out.println(mate ? "Checkmate, " + name(opponent) + " wins" : "Stalemate");
+                return;
+            }
+            if (position.getHalfmoveClock() >= 100) {
+                System.out.println("Draw by the fifty-move rule");
+                return;
+            }
+            int known = tablebase == null ? ChessTablebase.UNKNOWN : tablebase.probe(position, sideToMove);
+            if (known != ChessTablebase.UNKNOWN) {
+                System.out.println("Tablebase: " + (known == 0 ? "draw"
+                        : name(sideToMove) + (known > 0 ? " mates" : " is mated") + " in " + (Search.MATE - Math.abs(known)) + " plies"));
+                return;
+            }
+            SearchResult result = search.search(position, sideToMove, SearchLimits.time(timeMillis), keys, keyCount);
+            System.out.printf("%3d. %-6s score %6d depth %2d nodes %9d%n", ply + 1, Move.toUci(result.getBestMove()),
+                    result.getScore(), result.getDepth(), result.getNodes());
+            keys[keyCount++] = position.getZobristKey(sideToMove);
+            position.makeMove(result.getBestMove());
+            sideToMove = opponent;
+        }
+    }
+
+    private static String name(Color color) {
+        return color == Color.WHITE ? "white" : "black";
+    }
+}
@@ -0,0 +1,396 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
+import org.sillylabs.Zobrist;
+
+import java.util.Arrays;
+
+// Шашкова позиція як три 32-бітні маски темних клітинок: білі, чорні і дамки.
+// Біт b - темна клітинка row * 4 + column / 2 (перший рядок - восьма горизонталь, як на Board).
+// Тихі ходи простих рахуються зсувами всієї маски: на парних рядках сусіди по діагоналях - b-4 і b-3
+// (вгору) та b+4 і b+5 (вниз), на непарних - b-5, b-4 і b+3, b+4; крайні стовпці відсікаються масками.
+// Взяття - повні серії за правилами CheckersRules: прості б'ють і назад, дамки далекобійні,
+// збита фігура знімається одразу, перетворення - в кінці серії.
+// Хід пакується в long: from (біти 0-4), to (5-9), маска збитих фігур (10-41).
+public final class CheckersBitboard {
+    public static final int SQUARES = 32;
+    public static final int MAX_MOVES = 256;
+
+    // Напрямки: 0 - вгору-вліво, 1 - вгору-вправо, 2 - вниз-вліво, 3 - вниз-вправо
+    private static final int[][] NEIGHBORS = new int[4][SQUARES];
+    private static final int[] TO_SQUARE = new int[SQUARES];
+    private static final int[] FROM_SQUARE = new int[64];
+
+    private static final int EVEN_ROWS = 0x0F0F0F0F;
+    private static final int ODD_ROWS = 0xF0F0F0F0;
+    // Клітинки, з яких є хід на b-3 / b+5 (парні рядки без правого краю) і на b-5 / b+3 (непарні без лівого)
+    private static final int EVEN_NOT_RIGHT = EVEN_ROWS & ~0x88888888;
+    private static final int ODD_NOT_LEFT = ODD_ROWS & ~0x11111111;
+    // Горизонталі перетворення: для білих - перший рядок, для чорних - останній
+    public static final int WHITE_PROMOTION = 0x0000000F;
+    public static final int BLACK_PROMOTION = 0xF0000000;
+
+    static {
+        Arrays.fill(FROM_SQUARE, -1);
+        for (int bit = 0; bit < SQUARES; bit++) {
+            int row = bit / 4;
+            int column = (bit % 4) * 2 + (row % 2 == 0 ? 1 : 0);
+            TO_SQUARE[bit] = row * 8 + column;
+            FROM_SQUARE[row * 8 + column] = bit;
+        }
+        int[][] steps = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+        for (int direction = 0; direction < 4; direction++) {
+            for (int bit = 0; bit < SQUARES; bit++) {
+                int row = TO_SQUARE[bit] / 8 + steps[direction][0];
+                int column = TO_SQUARE[bit] % 8 + steps[direction][1];
+                boolean inside = row >= 0 && row < 8 && column >= 0 && column < 8;
+                NEIGHBORS[direction][bit] = inside ? FROM_SQUARE[row * 8 + column] : -1;
+            }
+        }
+    }
+
+    private int white;
+    private int black;
+    private int kings;
+    private boolean whiteToMove;
+
+    // Буфер серій взяттів під час генерації і початок ходів поточної шашки в ньому (для відсіву однакових)
+    private long[] output;
+    private int outputCount;
+    private int sequenceStart;
+
+    public CheckersBitboard() {
+    }
+
+    public CheckersBitboard(int white, int black, int kings, boolean whiteToMove) {
+        set(white, black, kings, whiteToMove);
+    }
+
+    public void set(int white, int black, int kings, boolean whiteToMove) {
+        this.white = white;
+        this.black = black;
+        this.kings = kings;
+        this.whiteToMove = whiteToMove;
+    }
+
+    public void copyFrom(CheckersBitboard other) {
+        set(other.white, other.black, other.kings, other.whiteToMove);
+    }
+
+    // Позиція з дошки партії (коди шашок 12-15); шахові фігури ігноруються
+    public void load(BoardView board, boolean whiteToMove) {
+        int whiteMask = 0;
+        int blackMask = 0;
+        int kingMask = 0;
+        for (int bit = 0; bit < SQUARES; bit++) {
+            int index = board.getPieceIndex(TO_SQUARE[bit]);
+            if (index == Board.WHITE_CHECKERS_MAN || index == Board.WHITE_CHECKERS_KING) {
+                whiteMask |= 1 << bit;
+            } else if (index == Board.BLACK_CHECKERS_MAN || index == Board.BLACK_CHECKERS_KING) {
+                blackMask |= 1 << bit;
+            }
+            if (index == Board.WHITE_CHECKERS_KING || index == Board.BLACK_CHECKERS_KING) {
+                kingMask |= 1 << bit;
+            }
+        }
+        set(whiteMask, blackMask, kingMask, whiteToMove);
+    }
+
+    public static CheckersBitboard startPosition() {
+        // Три верхні рядки - чорні, три нижні - білі
+        return new CheckersBitboard(0xFFF00000, 0x00000FFF, 0, true);
+    }
+
+    public int getWhite() {
+        return white;
+    }
+
+    public int getBlack() {
+        return black;
+    }
+
+    public int getKings() {
+        return kings;
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    // Клітинка Board (0-63) для біта і навпаки (-1 для світлих клітинок)
+    public static int toSquare(int bit) {
+        return TO_SQUARE[bit];
+    }
+
+    public static int fromSquare(int square) {
+        return FROM_SQUARE[square];
+    }
+
+    public static int neighbor(int direction, int bit) {
+        return NEIGHBORS[direction][bit];
+    }
+
+    public static long encode(int from, int to, int captured) {
+        return from | (to << 5) | ((captured & 0xFFFFFFFFL) << 10);
+    }
+
+    public static int from(long move) {
+        return (int) (move & 31);
+    }
+
+    public static int to(long move) {
+        return (int) ((move >>> 5) & 31);
+    }
+
+    public static int captured(long move) {
+        return (int) (move >>> 10);
+    }
+
+    public static boolean isCapture(long move) {
+        return captured(move) != 0;
+    }
+
+    // Ключ, що збігається з Board.getZobristKey(Color) для тієї ж позиції
+    public long key() {
+        long key = whiteToMove ? 0L : Zobrist.SIDE_TO_MOVE;
+        for (int pieces = white | black; pieces != 0; pieces &= pieces - 1) {
+            int bit = Integer.numberOfTrailingZeros(pieces);
+            key ^= Zobrist.piece(pieceIndex(bit), TO_SQUARE[bit]);
+        }
+        return key;
+    }
+
+    // Код фігури Board на біті (WHITE_CHECKERS_MAN..BLACK_CHECKERS_KING)
+    public int pieceIndex(int bit) {
+        int mask = 1 << bit;
+        boolean king = (kings & mask) != 0;
+        if ((white & mask) != 0) {
+            return king ? Board.WHITE_CHECKERS_KING : Board.WHITE_CHECKERS_MAN;
+        }
+        if ((black & mask) != 0) {
+            return king ? Board.BLACK_CHECKERS_KING : Board.BLACK_CHECKERS_MAN;
+        }
+        return Board.NO_PIECE;
+    }
+
+    // Усі ходи сторони на ході; якщо є взяття, то лише повні серії взяттів (взяття обов'язкове)
+    public int generate(long[] moves) {
+        int count = generateCaptures(moves);
+        return count > 0 ? count : generateQuiet(moves);
+    }
+
+    public boolean hasCapture() {
+        int own = whiteToMove ? white : black;
+        int opponent = whiteToMove ? black : white;
+        int empty = ~(white | black);
+        // Прості: сусід-суперник і порожня клітинка за ним у будь-якому з чотирьох напрямків
+        for (int men = own & ~kings; men != 0; men &= men - 1) {
+            int bit = Integer.numberOfTrailingZeros(men);
+            for (int direction = 0; direction < 4; direction++) {
+                int over = NEIGHBORS[direction][bit];
+                if (over < 0 || (opponent & (1 << over)) == 0) {
+                    continue;
+                }
+                int landing = NEIGHBORS[direction][over];
+                if (landing >= 0 && (empty & (1 << landing)) != 0) {
+                    return true;
+                }
+            }
+        }
+        for (int ownKings = own & kings; ownKings != 0; ownKings &= ownKings - 1) {
+            int bit = Integer.numberOfTrailingZeros(ownKings);
+            for (int direction = 0; direction < 4; direction++) {
+                int over = NEIGHBORS[direction][bit];
+                while (over >= 0 && (empty & (1 << over)) != 0) {
+                    over = NEIGHBORS[direction][over];
+                }
+                if (over < 0 || (opponent & (1 << over)) == 0) {
+                    continue;
+                }
+                int landing = NEIGHBORS[direction][over];
+                if (landing >= 0 && (empty & (1 << landing)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int generateCaptures(long[] moves) {
+        int own = whiteToMove ? white : black;
+        int opponent = whiteToMove ? black : white;
+        output = moves;
+        outputCount = 0;
+        for (int pieces = own; pieces != 0; pieces &= pieces - 1) {
+            int bit = Integer.numberOfTrailingZeros(pieces);
+            sequenceStart = outputCount;
+            // Шашка, що б'є, звільняє свою клітинку на час серії
+            int occupied = (white | black) & ~(1 << bit);
+            if ((kings & (1 << bit)) != 0) {
+                kingJumps(bit, bit, occupied, opponent, 0);
+            } else {
+                manJumps(bit, bit, occupied, opponent, 0);
+            }
+        }
+        output = null;
+        return outputCount;
+    }
+
+    private void manJumps(int origin, int bit, int occupied, int opponent, int captured) {
+        boolean extended = false;
+        for (int direction = 0; direction < 4; direction++) {
+            int over = NEIGHBORS[direction][bit];
+            if (over < 0 || (opponent & ~captured & (1 << over)) == 0) {
+                continue;
+            }
+            int landing = NEIGHBORS[direction][over];
+            if (landing < 0 || (occupied & (1 << landing)) != 0) {
+                continue;
+            }
+            extended = true;
+            manJumps(origin, landing, occupied & ~(1 << over), opponent, captured | (1 << over));
+        }
+        if (!extended && captured != 0) {
+            addSequence(origin, bit, captured);
+        }
+    }
+
+    private void kingJumps(int origin, int bit, int occupied, int opponent, int captured) {
+        boolean extended = false;
+        for (int direction = 0; direction < 4; direction++) {
+            int over = NEIGHBORS[direction][bit];
+            while (over >= 0 && (occupied & (1 << over)) == 0) {
+                over = NEIGHBORS[direction][over];
+            }
+            if (over < 0 || (opponent & ~captured & (1 << over)) == 0) {
+                continue;
+            }
+            int remaining = occupied & ~(1 << over);
+            for (int landing = NEIGHBORS[direction][over]; landing >= 0 && (remaining & (1 << landing)) == 0;
+                 landing = NEIGHBORS[direction][landing]) {
+                extended = true;
+                kingJumps(origin, landing, remaining, opponent, captured | (1 << over));
+            }
+        }
+        if (!extended && captured != 0) {
+            addSequence(origin, bit, captured);
+        }
+    }
+
+    // Однакові серії (ті самі кінцева клітинка і збиті фігури) записуємо один раз, як CheckersPerft
+    private void addSequence(int origin, int to, int captured) {
+        long move = encode(origin, to, captured);
+        for (int i = sequenceStart; i < outputCount; i++) {
+            if (output[i] == move) {
+                return;
+            }
+        }
+        output[outputCount++] = move;
+    }
+
+    public int generateQuiet(long[] moves) {
+        int own = whiteToMove ? white : black;
+        int empty = ~(white | black);
+        int men = own & ~kings;
+        int count = 0;
+        if (whiteToMove) {
+            count = addShifted(moves, count, (men >>> 4) & empty, 4);
+            count = addShifted(moves, count, ((men & EVEN_NOT_RIGHT) >>> 3) & empty, 3);
+            count = addShifted(moves, count, ((men & ODD_NOT_LEFT) >>> 5) & empty, 5);
+        } else {
+            count = addShifted(moves, count, (men << 4) & empty, -4);
+            count = addShifted(moves, count, ((men & EVEN_NOT_RIGHT) << 5) & empty, -5);
+            count = addShifted(moves, count, ((men & ODD_NOT_LEFT) << 3) & empty, -3);
+        }
+        for (int ownKings = own & kings; ownKings != 0; ownKings &= ownKings - 1) {
+            int bit = Integer.numberOfTrailingZeros(ownKings);
+            for (int direction = 0; direction < 4; direction++) {
+                for (int to = NEIGHBORS[direction][bit]; to >= 0 && (empty & (1 << to)) != 0; to = NEIGHBORS[direction][to]) {
+                    moves[count++] = encode(bit, to, 0);
+                }
+            }
+        }
+        return count;
+    }
+
+    // targets - клітинки призначення після зсуву; звідки = куди + delta
+    private static int addShifted(long[] moves, int count, int targets, int delta) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Integer.numberOfTrailingZeros(targets);
+            moves[count++] = encode(to + delta, to, 0);
+        }
+        return count;
+    }
+
+    // Виконує хід і передає чергу суперникові; скасування - copyFrom збереженої позиції
+    public void makeMove(long move) {
+        int fromMask = 1 << from(move);
+        int toMask = 1 << to(move);
+        int captured = captured(move);
+        boolean promotes = (kings & fromMask) == 0 && (toMask & (whiteToMove ? WHITE_PROMOTION : BLACK_PROMOTION)) != 0;
+        if ((kings & fromMask) != 0 || promotes) {
+            kings = (kings & ~fromMask) | toMask;
+        }
+        kings &= ~captured;
+        if (whiteToMove) {
+            white = (white & ~fromMask) | toMask;
+            black &= ~captured;
+        } else {
+            black = (black & ~fromMask) | toMask;
+            white &= ~captured;
+        }
+        whiteToMove = !whiteToMove;
+    }
+
+    // Хід простою шашкою чи взяття - позиція до нього вже не повториться
+    public boolean isIrreversible(long move) {
+        return isCapture(move) || (kings & (1 << from(move))) == 0;
+    }
+
+    // Кроки ходу для GameCoordinator: послідовність клітинок Board від старту до кінця серії
+    // (для тихого ходу - дві клітинки). Серію відновлюємо пошуком шляху з тими самими збитими фігурами
+    public int[] path(long move) {
+        int[] squares = new int[14];
+        squares[0] = TO_SQUARE[from(move)];
+        if (!isCapture(move)) {
+            squares[1] = TO_SQUARE[to(move)];
+            return Arrays.copyOf(squares, 2);
+        }
+        int occupied = (white | black) & ~(1 << from(move));
+        boolean king = (kings & (1 << from(move))) != 0;
+        int length = findPath(from(move), king, occupied, captured(move), to(move), squares, 1);
+        return Arrays.copyOf(squares, length);
+    }
+
+    // Повертає довжину шляху або 0, якщо з цієї клітинки серію не завершити як треба
+    private int findPath(int bit, boolean king, int occupied, int remaining, int target, int[] squares, int length) {
+        if (remaining == 0) {
+            return bit == target ? length : 0;
+        }
+        for (int direction = 0; direction < 4; direction++) {
+            int over = NEIGHBORS[direction][bit];
+            if (king) {
+                while (over >= 0 && (occupied & (1 << over)) == 0) {
+                    over = NEIGHBORS[direction][over];
+                }
+            }
+            if (over < 0 || (remaining & (1 << over)) == 0) {
+                continue;
+            }
+            int rest = occupied & ~(1 << over);
+            for (int landing = NEIGHBORS[direction][over]; landing >= 0 && (rest & (1 << landing)) == 0;
+                 landing = NEIGHBORS[direction][landing]) {
+                squares[length] = TO_SQUARE[landing];
+                int found = findPath(landing, king, rest, remaining & ~(1 << over), target, squares, length + 1);
+                if (found > 0) {
+                    return found;
+                }
+                if (!king) {
+                    break;
+                }
+            }
+        }
+        return 0;
+    }
+}
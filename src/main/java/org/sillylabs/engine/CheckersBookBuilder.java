@@ -0,0 +1,217 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Fen;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Збирає статистику ходів перших BOOK_PLIES півходів з партій і записує файл CheckersOpeningBook.
+// Партії - записані (текстовий файл: одна партія на рядок, ходи шляхами клітинок як "c3-d4" чи
+// "e5:c3:a1", останнім - результат "1-0", "0-1" або "1/2-1/2"; рядки з # пропускаються) або зіграні
+// рушієм із самим собою. У самогрі перші RANDOM_PLIES півходів часом випадкові, інакше всі партії
+// були б однакові; партію закінчує відсутність ходів, база ендшпілів (якщо є), трикратне
+// повторення або MAX_GAME_PLIES півходів (нічия).
+// Використання: CheckersBookBuilder [games] [timeMillis] [file] [recorded.txt...];
+// за замовчуванням 100 партій по 20 мс на хід у checkers.book
+public final class CheckersBookBuilder {
+    static final int BOOK_PLIES = 20;
+    private static final int RANDOM_PLIES = 8;
+    private static final int MAX_GAME_PLIES = 200;
+
+    // Ключ позиції -> (молодші 32 біти ключа після ходу -> {партії, очки сторони, що ходила})
+    private final Map<Long, Map<Integer, int[]>> statistics = new HashMap<>();
+    private final long[] moves = new long[CheckersBitboard.MAX_MOVES];
+    private final Random random = new Random();
+    private int games;
+
+    // Ходи однієї партії: ключ позиції, ключ після ходу і чи ходили білі
+    private final long[] gameKeys = new long[BOOK_PLIES];
+    private final int[] gameChildren = new int[BOOK_PLIES];
+    private final boolean[] gameWhite = new boolean[BOOK_PLIES];
+    private int gamePlies;
+
+    public void selfPlay(int count, long timeMillis) {
+        CheckersEndgameDatabase endgames = CheckersEndgameDatabase.openDefault();
+        CheckersEngine engine = new CheckersEngine();
+        engine.setEndgameDatabase(endgames);
+        CheckersSearch search = engine.getSearch();
+        long[] history = new long[MAX_GAME_PLIES];
+        for (int game = 0; game < count; game++) {
+            CheckersBitboard position = CheckersBitboard.startPosition();
+            gamePlies = 0;
+            int historySize = 0;
+            int result = 0;
+            for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+                int moveCount = position.generate(moves);
+                if (moveCount == 0) {
+                    result = position.isWhiteToMove() ? -1 : 1;
+                    break;
+                }
+                int known = endgames == null ? CheckersEndgameDatabase.UNKNOWN : endgames.probe(position);
+                if (known != CheckersEndgameDatabase.UNKNOWN) {
+                    result = known == CheckersEndgameDatabase.DRAW ? 0
+                            : (known == CheckersEndgameDatabase.WIN) == position.isWhiteToMove() ? 1 : -1;
+                    break;
+                }
+                if (repetitions(history, historySize, position.key()) >= 2) {
+                    break;
+                }
+                long move = ply < RANDOM_PLIES && random.nextInt(3) == 0
+                        ? moves[random.nextInt(moveCount)]
+                        : search.search(position, SearchLimits.time(timeMillis), history, historySize);
+                if (position.isIrreversible(move)) {
+                    historySize = 0;
+                } else {
+                    history[historySize++] = position.key();
+                }
+                play(position, move);
+            }
+            finishGame(result);
+            System.out.printf("game %4d: %s, %d positions in book%n", game + 1,
+                    result == 0 ? "draw" : result > 0 ? "white wins" : "black wins", statistics.size());
+        }
+    }
+
+    // Записані партії з текстового файлу; рядок з ходом, якого немає серед легальних або який відповідає
+    // кільком взяттям, - помилка
+    public void readGames(Path file) throws IOException {
+        int line = 0;
+        for (String text : Files.readAllLines(file)) {
+            line++;
+            String[] tokens = text.trim().split("\\s+");
+            if (text.isBlank() || text.startsWith("#")) {
+                continue;
+            }
+            int result = switch (tokens[tokens.length - 1]) {
+                case "1-0" -> 1;
+                case "0-1" -> -1;
+                case "1/2-1/2" -> 0;
+                default -> throw new IOException(file + ":" + line + ": game must end with a result");
+            };
+            CheckersBitboard position = CheckersBitboard.startPosition();
+            gamePlies = 0;
+            for (int i = 0; i < tokens.length - 1; i++) {
+                long move;
+                try {
+                    move = findMove(position, tokens[i]);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(file + ":" + line + ": illegal move " + tokens[i] + " (" + e.getMessage() + ")");
+                }
+                if (move == 0) {
+                    throw new IOException(file + ":" + line + ": illegal move " + tokens[i]);
+                }
+                play(position, move);
+            }
+            finishGame(result);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, int[]>> position : statistics.entrySet()) {
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                int[] stats = move.getValue();
+                entries.add(new long[]{position.getKey(), move.getKey(), stats[0], stats[1]});
+            }
+        }
+        entries.sort((first, second) -> first[0] != second[0]
+                ? Long.compareUnsigned(first[0], second[0]) : Long.compare(first[1], second[1]));
+        ByteBuffer data = ByteBuffer.allocate(CheckersOpeningBook.HEADER_BYTES + entries.size() * CheckersOpeningBook.ENTRY_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(CheckersOpeningBook.MAGIC).putInt(CheckersOpeningBook.VERSION).putInt(entries.size()).putInt(games);
+        for (long[] entry : entries) {
+            long plays = entry[2];
+            long points = entry[3];
+            // Лічильники - по 16 бітів: великі числа зменшуються разом, пропорція зберігається
+            while (plays > 0xFFFF || points > 0xFFFF) {
+                plays >>= 1;
+                points >>= 1;
+            }
+            data.putLong(entry[0]).putInt((int) entry[1]).putShort((short) plays).putShort((short) points);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(data.array());
+        }
+        System.out.println("Written " + file + ": " + games + " games, " + statistics.size() + " positions, "
+                + entries.size() + " moves");
+    }
+
+    private void play(CheckersBitboard position, long move) {
+        long key = position.key();
+        boolean white = position.isWhiteToMove();
+        position.makeMove(move);
+        if (gamePlies < BOOK_PLIES) {
+            gameKeys[gamePlies] = key;
+            gameChildren[gamePlies] = (int) position.key();
+            gameWhite[gamePlies++] = white;
+        }
+    }
+
+    // result: 1 - виграли білі, -1 - чорні, 0 - нічия
+    private void finishGame(int result) {
+        games++;
+        for (int i = 0; i < gamePlies; i++) {
+            int[] stats = statistics.computeIfAbsent(gameKeys[i], key -> new HashMap<>())
+                    .computeIfAbsent(gameChildren[i], key -> new int[2]);
+            stats[0]++;
+            stats[1] += result == 0 ? 1 : (result > 0) == gameWhite[i] ? 2 : 0;
+        }
+    }
+
+    private long findMove(CheckersBitboard position, String token) {
+        String[] names = token.split("[-:x]");
+        int[] squares = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            squares[i] = Fen.parseSquare(names[i]);
+        }
+        int count = position.generate(moves);
+        long found = 0;
+        int matches = 0;
+        for (int i = 0; i < count; i++) {
+            int[] path = position.path(moves[i]);
+            // Для простого ходу чи однозначного взяття досить початку й кінця шляху
+            if (Arrays.equals(path, squares)
+                    || (squares.length == 2 && path[0] == squares[0] && path[path.length - 1] == squares[1])) {
+                found = moves[i];
+                matches++;
+            }
+        }
+        // Кілька взяттів з тими самими початком і кінцем: без повного шляху не вгадуємо, котре зіграли
+        if (matches > 1) {
+            throw new IllegalArgumentException("ambiguous, " + matches + " captures match; write the full path");
+        }
+        return found;
+    }
+
+    private static int repetitions(long[] history, int size, long key) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (history[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long time = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        Path file = Path.of(args.length > 2 ? args[2] : CheckersOpeningBook.DEFAULT_FILE);
+        CheckersBookBuilder builder = new CheckersBookBuilder();
+        for (int i = 3; i < args.length; i++) {
+            builder.readGames(Path.of(args[i]));
+        }
+        builder.selfPlay(games, time);
+        builder.write(file);
+    }
+}
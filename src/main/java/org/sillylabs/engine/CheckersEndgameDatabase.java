@@ -0,0 +1,198 @@
+package org.sillylabs.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// База шашкових ендшпілів "виграш/нічия/програш" (її будує CheckersEndgameGenerator), відображена
+// в пам'ять лише для читання: запит - обчислення індексу і читання двох бітів, без пошуку.
+// Файл ділиться на зрізи за матеріалом (прості й дамки кожної сторони). У зрізі кожна група фігур
+// нумерується як комбінація клітинок (прості - без свого дамкового ряду), індекс - змішана система
+// числення з цих номерів. Зберігаються лише позиції з ходом білих: позиція з ходом чорних - це
+// дзеркальна (поворот на 180 градусів і обмін кольорів) позиція з ходом білих.
+// Формат: "CKDB", версія, найбільша кількість фігур, кількість зрізів; далі для кожного зрізу
+// чотири байти матеріалу, зсув і кількість позицій; далі дані - по 2 біти на позицію.
+public final class CheckersEndgameDatabase {
+    public static final int UNKNOWN = -1;
+    // Результат для сторони на ході; 3 у файлі - неможлива позиція (фігури на одній клітинці)
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+    public static final int INVALID = 3;
+
+    public static final String DEFAULT_FILE = "checkers.egdb";
+    static final int MAGIC = 0x434B4442;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int SLICE_BYTES = 20;
+    // Прості стоять на 28 клітинках (без свого дамкового ряду), дамки - на всіх 32
+    static final int MAN_SQUARES = 28;
+
+    private static final long[][] BINOMIAL = new long[CheckersBitboard.SQUARES + 1][CheckersBitboard.SQUARES + 1];
+
+    static {
+        for (int n = 0; n <= CheckersBitboard.SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final int maxPieces;
+    // Зрізи за матеріалом [wm][wk][bm][bk]; null - зрізу в базі немає
+    private final ByteBuffer[] slices;
+
+    private CheckersEndgameDatabase(int maxPieces, ByteBuffer[] slices) {
+        this.maxPieces = maxPieces;
+        this.slices = slices;
+    }
+
+    public static CheckersEndgameDatabase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a checkers endgame database: " + file);
+            }
+            int maxPieces = header.getInt(8);
+            int sliceCount = header.getInt(12);
+            ByteBuffer table = ByteBuffer.allocate(sliceCount * SLICE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, table, HEADER_BYTES);
+            ByteBuffer[] slices = new ByteBuffer[sliceIndex(maxPieces, maxPieces, maxPieces, maxPieces, maxPieces) + 1];
+            for (int i = 0; i < sliceCount; i++) {
+                int base = i * SLICE_BYTES;
+                int slice = sliceIndex(maxPieces, table.get(base), table.get(base + 1), table.get(base + 2), table.get(base + 3));
+                long offset = table.getLong(base + 4);
+                long positions = table.getLong(base + 12);
+                // Кожен зріз - окреме відображення, тож обмеження ByteBuffer у 2 ГБ стосується лише зрізу
+                MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset, dataBytes(positions));
+                slices[slice] = data;
+            }
+            return new CheckersEndgameDatabase(maxPieces, slices);
+        }
+    }
+
+    // База з файлу за замовчуванням (властивість -Dcheckers.egdb або checkers.egdb у робочому каталозі);
+    // без файлу - null, і рушій грає без бази
+    public static CheckersEndgameDatabase openDefault() {
+        Path file = Path.of(System.getProperty("checkers.egdb", DEFAULT_FILE));
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Failed to open checkers endgame database: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    // WIN / LOSS / DRAW для сторони на ході або UNKNOWN, якщо позиції в базі немає
+    public int probe(CheckersBitboard position) {
+        int white = position.getWhite();
+        int black = position.getBlack();
+        int kings = position.getKings();
+        if (Integer.bitCount(white | black) > maxPieces) {
+            return UNKNOWN;
+        }
+        if (!position.isWhiteToMove()) {
+            int mirroredWhite = Integer.reverse(black);
+            black = Integer.reverse(white);
+            white = mirroredWhite;
+            kings = Integer.reverse(kings);
+        }
+        int whiteMen = Integer.bitCount(white & ~kings);
+        int whiteKings = Integer.bitCount(white & kings);
+        int blackMen = Integer.bitCount(black & ~kings);
+        int blackKings = Integer.bitCount(black & kings);
+        // Сторона без фігур не має ходу
+        if (whiteMen + whiteKings == 0) {
+            return LOSS;
+        }
+        if (blackMen + blackKings == 0) {
+            return WIN;
+        }
+        ByteBuffer slice = slices[sliceIndex(maxPieces, whiteMen, whiteKings, blackMen, blackKings)];
+        if (slice == null) {
+            return UNKNOWN;
+        }
+        long index = index(white, black, kings);
+        int value = (slice.get((int) (index >>> 2)) >>> ((index & 3) * 2)) & 3;
+        return value == INVALID ? UNKNOWN : value;
+    }
+
+    static int sliceIndex(int maxPieces, int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        int base = maxPieces + 1;
+        return ((whiteMen * base + whiteKings) * base + blackMen) * base + blackKings;
+    }
+
+    static long dataBytes(long positions) {
+        return (positions + 3) / 4;
+    }
+
+    static long binomial(int n, int k) {
+        return k > n ? 0 : BINOMIAL[n][k];
+    }
+
+    // Кількість позицій зрізу з ходом білих (разом із неможливими, де фігури збігаються)
+    static long sliceSize(int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        return binomial(MAN_SQUARES, whiteMen) * binomial(CheckersBitboard.SQUARES, whiteKings)
+                * binomial(MAN_SQUARES, blackMen) * binomial(CheckersBitboard.SQUARES, blackKings);
+    }
+
+    // Індекс позиції з ходом білих у її зрізі. Прості білі не стоять на бітах 0-3, чорні - на 28-31
+    static long index(int white, int black, int kings) {
+        int whiteKings = white & kings;
+        int blackMen = black & ~kings;
+        int blackKings = black & kings;
+        long index = rank(white & ~kings, 4);
+        index = index * binomial(CheckersBitboard.SQUARES, Integer.bitCount(whiteKings)) + rank(whiteKings, 0);
+        index = index * binomial(MAN_SQUARES, Integer.bitCount(blackMen)) + rank(blackMen, 0);
+        return index * binomial(CheckersBitboard.SQUARES, Integer.bitCount(blackKings)) + rank(blackKings, 0);
+    }
+
+    // Номер комбінації в колексикографічному порядку: сума C(позиція, номер елемента)
+    static long rank(int mask, int offset) {
+        long rank = 0;
+        int element = 1;
+        for (; mask != 0; mask &= mask - 1) {
+            rank += binomial(Integer.numberOfTrailingZeros(mask) - offset, element++);
+        }
+        return rank;
+    }
+
+    // Обернене до rank: маска з count бітів, зсунутих на offset
+    static int unrank(long rank, int count, int offset) {
+        int mask = 0;
+        int position = CheckersBitboard.SQUARES - 1;
+        for (int element = count; element > 0; element--) {
+            while (binomial(position, element) > rank) {
+                position--;
+            }
+            rank -= binomial(position, element);
+            mask |= 1 << (position + offset);
+            position--;
+        }
+        return mask;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of checkers endgame database");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,310 @@
+package org.sillylabs.engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ретроградний аналіз шашкових ендшпілів до заданої кількості фігур, результат - файл
+// CheckersEndgameDatabase. Зрізи рахуються від меншого матеріалу до більшого, а при рівній кількості
+// фігур - від меншої кількості простих: взяття і перетворення завжди ведуть у вже пораховані зрізи.
+// У межах зрізу лишаються тільки тихі ходи без перетворення, тож:
+//  1) прямий прохід оцінює ходи в інші зрізи і рахує ходи всередині зрізу;
+//  2) кожна визначена позиція через зворотні тихі ходи оновлює попередників: програш суперника
+//     дає виграш, а коли всі ходи попередника ведуть до виграшу суперника - це його програш;
+//  3) що лишилося невизначеним - нічия.
+// Використання: CheckersEndgameGenerator [maxPieces] [file]; за замовчуванням 4 фігури і checkers.egdb
+public final class CheckersEndgameGenerator {
+    // Стан позиції під час генерації; 0 - ще невідомо (наприкінці стає нічиєю)
+    private static final byte UNRESOLVED = 0;
+    private static final byte WIN = CheckersEndgameDatabase.WIN;
+    private static final byte LOSS = CheckersEndgameDatabase.LOSS;
+    private static final byte INVALID = CheckersEndgameDatabase.INVALID;
+    // Хід у нічию поза зрізом: такий вузол уже не програє, лічильник ходів ніколи не дійде до нуля
+    private static final int DRAW_EXIT = 1 << 7;
+
+    private final int maxPieces;
+    // Пораховані зрізи з обома сторонами на ході: [0, size) - хід білих, [size, 2 * size) - хід чорних
+    private final Map<Integer, byte[]> solved = new HashMap<>();
+    private final long[] moves = new long[CheckersBitboard.MAX_MOVES];
+    private final CheckersBitboard position = new CheckersBitboard();
+    private final CheckersBitboard child = new CheckersBitboard();
+
+    public CheckersEndgameGenerator(int maxPieces) {
+        this.maxPieces = maxPieces;
+    }
+
+    // Усі зрізи до maxPieces фігур у порядку залежностей: {wm, wk, bm, bk}
+    List<int[]> slices() {
+        List<int[]> order = new ArrayList<>();
+        for (int pieces = 2; pieces <= maxPieces; pieces++) {
+            for (int men = 0; men <= pieces; men++) {
+                for (int whiteMen = 0; whiteMen <= men; whiteMen++) {
+                    int blackMen = men - whiteMen;
+                    for (int whiteKings = 0; whiteKings <= pieces - men; whiteKings++) {
+                        int blackKings = pieces - men - whiteKings;
+                        if (whiteMen + whiteKings > 0 && blackMen + blackKings > 0) {
+                            order.add(new int[]{whiteMen, whiteKings, blackMen, blackKings});
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    public void generate(Path file) throws IOException {
+        List<int[]> order = slices();
+        List<byte[]> results = new ArrayList<>();
+        long totalStart = System.nanoTime();
+        for (int[] material : order) {
+            long start = System.nanoTime();
+            byte[] values = solve(material[0], material[1], material[2], material[3]);
+            results.add(values);
+            long[] counts = new long[4];
+            long size = values.length / 2;
+            for (int i = 0; i < size; i++) {
+                counts[values[i]]++;
+            }
+            System.out.printf("%d%d%d%d: %10d positions, white to move: %9d wins %9d losses %9d draws (%d ms)%n",
+                    material[0], material[1], material[2], material[3], size,
+                    counts[WIN], counts[LOSS], counts[UNRESOLVED], (System.nanoTime() - start) / 1_000_000);
+        }
+        write(file, order, results);
+        System.out.println("Slices: " + order.size() + ", time: " + (System.nanoTime() - totalStart) / 1_000_000 + " ms");
+    }
+
+    private byte[] solve(int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        int signature = signature(whiteMen, whiteKings, blackMen, blackKings);
+        long size = CheckersEndgameDatabase.sliceSize(whiteMen, whiteKings, blackMen, blackKings);
+        if (2 * size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Slice too large: " + whiteMen + whiteKings + blackMen + blackKings);
+        }
+        int total = (int) (2 * size);
+        byte[] values = new byte[total];
+        byte[] remaining = new byte[total];
+        int[] queue = new int[total];
+        int queueTail = 0;
+        solved.put(signature, values);
+
+        // Прямий прохід
+        for (int entry = 0; entry < total; entry++) {
+            if (!decode(entry, size, whiteMen, whiteKings, blackMen, blackKings)) {
+                values[entry] = INVALID;
+                continue;
+            }
+            int count = position.generate(moves);
+            int inside = 0;
+            boolean drawExit = false;
+            byte value = UNRESOLVED;
+            for (int i = 0; i < count && value != WIN; i++) {
+                child.copyFrom(position);
+                child.makeMove(moves[i]);
+                if (isSameSlice(moves[i])) {
+                    inside++;
+                    continue;
+                }
+                int result = lookup(child);
+                if (result == CheckersEndgameDatabase.LOSS) {
+                    value = WIN;
+                } else if (result == CheckersEndgameDatabase.DRAW) {
+                    drawExit = true;
+                }
+            }
+            if (value != WIN && inside == 0 && !drawExit) {
+                value = LOSS;
+            }
+            values[entry] = value;
+            remaining[entry] = (byte) (inside | (drawExit ? DRAW_EXIT : 0));
+            if (value != UNRESOLVED) {
+                queue[queueTail++] = entry;
+            }
+        }
+
+        // Зворотне поширення через тихі ходи попередників
+        for (int head = 0; head < queueTail; head++) {
+            int entry = queue[head];
+            decode(entry, size, whiteMen, whiteKings, blackMen, blackKings);
+            byte value = values[entry];
+            int count = unmoves(position, moves);
+            for (int i = 0; i < count; i++) {
+                child.copyFrom(position);
+                undo(child, moves[i]);
+                // Зі взяттям у попередника тихий хід був заборонений
+                if (child.hasCapture()) {
+                    continue;
+                }
+                int previous = encode(child, size);
+                if (values[previous] != UNRESOLVED) {
+                    continue;
+                }
+                if (value == LOSS) {
+                    values[previous] = WIN;
+                    queue[queueTail++] = previous;
+                } else if (--remaining[previous] == 0) {
+                    values[previous] = LOSS;
+                    queue[queueTail++] = previous;
+                }
+            }
+        }
+        return values;
+    }
+
+    // Тихий хід без перетворення лишає матеріал без змін
+    private boolean isSameSlice(long move) {
+        if (CheckersBitboard.isCapture(move)) {
+            return false;
+        }
+        int from = CheckersBitboard.from(move);
+        if ((position.getKings() & (1 << from)) != 0) {
+            return true;
+        }
+        int promotion = position.isWhiteToMove() ? CheckersBitboard.WHITE_PROMOTION : CheckersBitboard.BLACK_PROMOTION;
+        return (promotion & (1 << CheckersBitboard.to(move))) == 0;
+    }
+
+    // Результат для сторони на ході з уже порахованого зрізу
+    private int lookup(CheckersBitboard board) {
+        int white = board.getWhite();
+        int black = board.getBlack();
+        int kings = board.getKings();
+        boolean whiteToMove = board.isWhiteToMove();
+        int own = whiteToMove ? white : black;
+        int opponent = whiteToMove ? black : white;
+        if (own == 0) {
+            return CheckersEndgameDatabase.LOSS;
+        }
+        if (opponent == 0) {
+            return CheckersEndgameDatabase.WIN;
+        }
+        int whiteMen = Integer.bitCount(white & ~kings);
+        int whiteKings = Integer.bitCount(white & kings);
+        int blackMen = Integer.bitCount(black & ~kings);
+        int blackKings = Integer.bitCount(black & kings);
+        byte[] values = solved.get(signature(whiteMen, whiteKings, blackMen, blackKings));
+        long size = values.length / 2;
+        int value = values[(int) (CheckersEndgameDatabase.index(white, black, kings) + (whiteToMove ? 0 : size))];
+        return value == UNRESOLVED ? CheckersEndgameDatabase.DRAW : value;
+    }
+
+    // Позиція за номером у зрізі; false - фігури збігаються
+    private boolean decode(int entry, long size, int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        boolean whiteToMove = entry < size;
+        long index = whiteToMove ? entry : entry - size;
+        long blackKingCount = CheckersEndgameDatabase.binomial(CheckersBitboard.SQUARES, blackKings);
+        long blackManCount = CheckersEndgameDatabase.binomial(CheckersEndgameDatabase.MAN_SQUARES, blackMen);
+        long whiteKingCount = CheckersEndgameDatabase.binomial(CheckersBitboard.SQUARES, whiteKings);
+        int blackKingMask = CheckersEndgameDatabase.unrank(index % blackKingCount, blackKings, 0);
+        index /= blackKingCount;
+        int blackManMask = CheckersEndgameDatabase.unrank(index % blackManCount, blackMen, 0);
+        index /= blackManCount;
+        int whiteKingMask = CheckersEndgameDatabase.unrank(index % whiteKingCount, whiteKings, 0);
+        index /= whiteKingCount;
+        int whiteManMask = CheckersEndgameDatabase.unrank(index, whiteMen, 4);
+        int white = whiteManMask | whiteKingMask;
+        int black = blackManMask | blackKingMask;
+        if (Integer.bitCount(white | black) != whiteMen + whiteKings + blackMen + blackKings) {
+            return false;
+        }
+        position.set(white, black, whiteKingMask | blackKingMask, whiteToMove);
+        return true;
+    }
+
+    private static int encode(CheckersBitboard board, long size) {
+        long index = CheckersEndgameDatabase.index(board.getWhite(), board.getBlack(), board.getKings());
+        return (int) (board.isWhiteToMove() ? index : index + size);
+    }
+
+    // Зворотні тихі ходи сторони, що щойно ходила: дамка - з будь-якої вільної клітинки на діагоналях,
+    // проста - на крок назад. Хід записано як звичайний (from - де фігура стояла, to - де стоїть)
+    private static int unmoves(CheckersBitboard board, long[] moves) {
+        boolean moverWhite = !board.isWhiteToMove();
+        int mover = moverWhite ? board.getWhite() : board.getBlack();
+        int empty = ~(board.getWhite() | board.getBlack());
+        int kings = board.getKings();
+        int count = 0;
+        for (int pieces = mover; pieces != 0; pieces &= pieces - 1) {
+            int bit = Integer.numberOfTrailingZeros(pieces);
+            if ((kings & (1 << bit)) != 0) {
+                for (int direction = 0; direction < 4; direction++) {
+                    for (int from = CheckersBitboard.neighbor(direction, bit); from >= 0 && (empty & (1 << from)) != 0;
+                         from = CheckersBitboard.neighbor(direction, from)) {
+                        moves[count++] = CheckersBitboard.encode(from, bit, 0);
+                    }
+                }
+            } else {
+                // Білі ходять вгору, тож прийшли знизу (напрямки 2 і 3), чорні - згори (0 і 1)
+                int firstDirection = moverWhite ? 2 : 0;
+                for (int direction = firstDirection; direction < firstDirection + 2; direction++) {
+                    int from = CheckersBitboard.neighbor(direction, bit);
+                    if (from >= 0 && (empty & (1 << from)) != 0) {
+                        moves[count++] = CheckersBitboard.encode(from, bit, 0);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // Повертає фігуру з to на from і передає хід тому, хто ходив
+    private static void undo(CheckersBitboard board, long move) {
+        int fromMask = 1 << CheckersBitboard.from(move);
+        int toMask = 1 << CheckersBitboard.to(move);
+        boolean moverWhite = !board.isWhiteToMove();
+        int white = board.getWhite();
+        int black = board.getBlack();
+        int kings = board.getKings();
+        if ((kings & toMask) != 0) {
+            kings = (kings & ~toMask) | fromMask;
+        }
+        if (moverWhite) {
+            white = (white & ~toMask) | fromMask;
+        } else {
+            black = (black & ~toMask) | fromMask;
+        }
+        board.set(white, black, kings, moverWhite);
+    }
+
+    private int signature(int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        return CheckersEndgameDatabase.sliceIndex(maxPieces, whiteMen, whiteKings, blackMen, blackKings);
+    }
+
+    // У файл іде лише половина з ходом білих, по 2 біти на позицію
+    private void write(Path file, List<int[]> order, List<byte[]> results) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(CheckersEndgameDatabase.HEADER_BYTES + order.size() * CheckersEndgameDatabase.SLICE_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(CheckersEndgameDatabase.MAGIC).putInt(CheckersEndgameDatabase.VERSION).putInt(maxPieces).putInt(order.size());
+        long offset = header.capacity();
+        for (int i = 0; i < order.size(); i++) {
+            int[] material = order.get(i);
+            long positions = results.get(i).length / 2;
+            header.put((byte) material[0]).put((byte) material[1]).put((byte) material[2]).put((byte) material[3]);
+            header.putLong(offset).putLong(positions);
+            offset += CheckersEndgameDatabase.dataBytes(positions);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header.array());
+            for (byte[] values : results) {
+                int positions = values.length / 2;
+                byte[] packed = new byte[(int) CheckersEndgameDatabase.dataBytes(positions)];
+                for (int i = 0; i < positions; i++) {
+                    packed[i >>> 2] |= (byte) (values[i] << ((i & 3) * 2));
+                }
+                out.write(packed);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxPieces = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Path file = Path.of(args.length > 1 ? args[1] : CheckersEndgameDatabase.DEFAULT_FILE);
+        new CheckersEndgameGenerator(maxPieces).generate(file);
+        System.out.println("Written " + file + " (" + Files.size(file) + " bytes)");
+    }
+}
@@ -0,0 +1,119 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.BoardView;
+import org.sillylabs.Fen;
+import org.sillylabs.pieces.Color;
+
+// Вбудований рушій для шашок. Позицію бере з дошки партії (BoardView), відповідає шляхом ходу -
+// клітинками Board від старту до кінця серії, які GameCoordinator приймає по одному стрибку.
+// Дошка і пошук у рушія одні, тому getBestPath з різних потоків іде по черзі.
+public class CheckersEngine {
+    private final CheckersBitboard board = new CheckersBitboard();
+    private final CheckersSearch search;
+    private CheckersEndgameDatabase endgames;
+    private CheckersOpeningBook book;
+
+    public CheckersEngine() {
+        this(Search.DEFAULT_HASH_MB);
+    }
+
+    public CheckersEngine(int hashMegabytes) {
+        search = new CheckersSearch(new TranspositionTable(hashMegabytes));
+    }
+
+    public CheckersSearch getSearch() {
+        return search;
+    }
+
+    // База ендшпілів для пошуку і для probeEndgame; null вимикає
+    public void setEndgameDatabase(CheckersEndgameDatabase endgames) {
+        this.endgames = endgames;
+        search.setEndgameDatabase(endgames);
+    }
+
+    // Дебютна книга, яку getBestPath питає перед пошуком; null вимикає
+    public void setOpeningBook(CheckersOpeningBook book) {
+        this.book = book;
+    }
+
+    // Результат позиції партії за базою для сторони на ході (CheckersEndgameDatabase.WIN / LOSS / DRAW)
+    // або UNKNOWN, якщо бази немає чи фігур забагато
+    public int probeEndgame(BoardView position, Color sideToMove) {
+        if (endgames == null) {
+            return CheckersEndgameDatabase.UNKNOWN;
+        }
+        CheckersBitboard probe = new CheckersBitboard();
+        probe.load(position, sideToMove == Color.WHITE);
+        return endgames.probe(probe);
+    }
+
+    // Шлях ходу з книги або найкращого ходу пошуку; порожній масив, якщо ходів немає.
+    // history - ключі позицій партії після останнього незворотного ходу (GameCoordinator.getRepetitionHistory)
+    public int[] getBestPath(BoardView position, Color sideToMove, SearchLimits limits, long[] history) {
+        return getBestPath(position, sideToMove, limits, history, search.nextGeneration());
+    }
+
+    // Номер для пошуку, який запустить інший потік: stopEngine() після цього виклику зупинить і його
+    public long nextGeneration() {
+        return search.nextGeneration();
+    }
+
+    public synchronized int[] getBestPath(BoardView position, Color sideToMove, SearchLimits limits, long[] history,
+                                          long generation) {
+        board.load(position, sideToMove == Color.WHITE);
+        long move = book == null ? 0 : book.getMove(board);
+        if (move == 0) {
+            move = search.search(board, limits, history, history.length, generation);
+        }
+        return move == 0 ? new int[0] : board.path(move);
+    }
+
+    // Перериває пошук, що йде в іншому потоці
+    public void stopEngine() {
+        search.stop();
+    }
+
+    // Консольний запуск: CheckersEngine [timeMillis]; партія рушія з самим собою від початкової позиції.
+    // З базою ендшпілів (-Dcheckers.egdb) партія закінчується, щойно результат позиції відомий з бази
+    public static void main(String[] args) {
+        long time = args.length > 0 ? Long.parseLong(args[0]) : 100;
+        CheckersEndgameDatabase endgames = CheckersEndgameDatabase.openDefault();
+        CheckersEngine engine = new CheckersEngine();
+        engine.setEndgameDatabase(endgames);
+        CheckersSearch search = engine.getSearch();
+        CheckersBitboard position = CheckersBitboard.startPosition();
+        long[] moves = new long[CheckersBitboard.MAX_MOVES];
+        long[] history = new long[512];
+        int historySize = 0;
+        for (int ply = 0; ply < 200 && position.generate(moves) > 0; ply++) {
+            int known = endgames == null ? CheckersEndgameDatabase.UNKNOWN : endgames.probe(position);
+            if (known != CheckersEndgameDatabase.UNKNOWN) {
+                String side = position.isWhiteToMove() ? "white" : "black";
+                System.out.println("Endgame database: " + (known == CheckersEndgameDatabase.DRAW ? "draw"
+                        : side + (known == CheckersEndgameDatabase.WIN ? " wins" : " loses")));
+                return;
+            }
+            long move = search.search(position, SearchLimits.time(time), history, historySize);
+            System.out.printf("%3d. %-12s score %6d depth %2d nodes %9d %4d ms%n", ply + 1, describe(position, move),
+                    search.getScore(), search.getDepth(), search.getNodes(), search.getTimeMillis());
+            if (position.isIrreversible(move)) {
+                historySize = 0;
+            } else {
+                history[historySize++] = position.key();
+            }
+            position.makeMove(move);
+        }
+    }
+
+    private static String describe(CheckersBitboard position, long move) {
+        StringBuilder text = new StringBuilder();
+        int[] path = position.path(move);
+        for (int i = 0; i < path.length; i++) {
+            if (i > 0) {
+                text.append(CheckersBitboard.isCapture(move) ? ':' : '-');
+            }
+            text.append(Fen.squareName(path[i]));
+        }
+        return text.toString();
+    }
+}
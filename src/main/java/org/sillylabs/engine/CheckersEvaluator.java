@@ -0,0 +1,68 @@
+package org.sillylabs.engine;
+
+// Статична оцінка шашкової позиції: матеріал, просування простих, захист останнього ряду і дамки
+// на великій дорозі (діагональ a1-h8). Таблиці записані з боку білих по бітах CheckersBitboard;
+// для чорних біт дзеркалиться як 31 - b (поворот дошки на 180 градусів).
+public final class CheckersEvaluator {
+    public static final int MAN_VALUE = 100;
+    // Далекобійна дамка сильніша за три прості в ендшпілі, але не в мітельшпілі
+    public static final int KING_VALUE = 300;
+
+    // Біт -> бонус простої білої шашки: що ближче до дамкового ряду, то дорожча; клітинки
+    // останнього ряду (рядок 7) стережуть від прориву суперника
+    private static final int[] MAN_TABLE = {
+            0, 0, 0, 0,
+            30, 30, 30, 30,
+            18, 20, 20, 16,
+            10, 14, 14, 8,
+            6, 10, 10, 4,
+            2, 4, 4, 0,
+            0, 0, 0, 0,
+            4, 8, 8, 6
+    };
+    private static final int KING_ON_MAIN_DIAGONAL = 20;
+    // Бонус за перевагу: з меншою кількістю фігур на дошці та сама різниця важить більше
+    private static final int TRADE_SCALE = 24;
+
+    private static final int MAIN_DIAGONAL;
+
+    static {
+        int mask = 0;
+        for (int bit = 0; bit < CheckersBitboard.SQUARES; bit++) {
+            int square = CheckersBitboard.toSquare(bit);
+            if (square / 8 + square % 8 == 7) {
+                mask |= 1 << bit;
+            }
+        }
+        MAIN_DIAGONAL = mask;
+    }
+
+    private CheckersEvaluator() {
+    }
+
+    // Оцінка з боку того, хто ходить
+    public static int evaluate(CheckersBitboard board) {
+        int white = board.getWhite();
+        int black = board.getBlack();
+        int kings = board.getKings();
+        int whiteMen = white & ~kings;
+        int blackMen = black & ~kings;
+        int whiteKings = white & kings;
+        int blackKings = black & kings;
+
+        int whiteMaterial = Integer.bitCount(whiteMen) * MAN_VALUE + Integer.bitCount(whiteKings) * KING_VALUE;
+        int blackMaterial = Integer.bitCount(blackMen) * MAN_VALUE + Integer.bitCount(blackKings) * KING_VALUE;
+        int score = whiteMaterial - blackMaterial;
+        // Сторона з перевагою рада розмінам: різниця ділиться на загальний матеріал
+        score += score * TRADE_SCALE * MAN_VALUE / (whiteMaterial + blackMaterial + MAN_VALUE) / 10;
+
+        for (int men = whiteMen; men != 0; men &= men - 1) {
+            score += MAN_TABLE[Integer.numberOfTrailingZeros(men)];
+        }
+        for (int men = blackMen; men != 0; men &= men - 1) {
+            score -= MAN_TABLE[31 - Integer.numberOfTrailingZeros(men)];
+        }
+        score += (Integer.bitCount(whiteKings & MAIN_DIAGONAL) - Integer.bitCount(blackKings & MAIN_DIAGONAL)) * KING_ON_MAIN_DIAGONAL;
+        return board.isWhiteToMove() ? score : -score;
+    }
+}
@@ -0,0 +1,118 @@
+package org.sillylabs.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+// Шашкова дебютна книга (її будує CheckersBookBuilder), відображена в пам'ять лише для читання.
+// Записи по 16 байтів, відсортовані за ключем позиції (CheckersBitboard.key, беззнаково): ключ,
+// молодші 32 біти ключа позиції після ходу (за ними хід і знаходиться серед згенерованих),
+// кількість партій з цим ходом і очки сторони, що ходила (2 за виграш, 1 за нічию).
+// Формат: "CKOB", версія, кількість записів, кількість партій; далі записи.
+public final class CheckersOpeningBook {
+    public static final String DEFAULT_FILE = "checkers.book";
+    static final int MAGIC = 0x434B4F42;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final Random random = new Random();
+    private final long[] moves = new long[CheckersBitboard.MAX_MOVES];
+    private final CheckersBitboard child = new CheckersBitboard();
+
+    private CheckersOpeningBook(ByteBuffer entries, int entryCount) {
+        this.entries = entries;
+        this.entryCount = entryCount;
+    }
+
+    public static CheckersOpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a checkers opening book: " + file);
+            }
+            int entryCount = header.getInt(8);
+            if (HEADER_BYTES + (long) entryCount * ENTRY_BYTES != channel.size()) {
+                throw new IOException("Truncated checkers opening book: " + file);
+            }
+            ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) entryCount * ENTRY_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            return new CheckersOpeningBook(entries, entryCount);
+        }
+    }
+
+    // Книга з файлу за замовчуванням (властивість -Dcheckers.book або checkers.book у робочому каталозі);
+    // без файлу - null, і рушій шукає з першого ходу
+    public static CheckersOpeningBook openDefault() {
+        Path file = Path.of(System.getProperty("checkers.book", DEFAULT_FILE));
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Failed to open checkers opening book: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    // Хід з книги, випадковий пропорційно очкам (ходи, що лише програвали, не граються);
+    // 0, якщо позиції в книзі немає
+    public synchronized long getMove(CheckersBitboard position) {
+        long key = position.key();
+        int first = lowerBound(key);
+        long totalPoints = 0;
+        int last = first;
+        for (; last < entryCount && entries.getLong(last * ENTRY_BYTES) == key; last++) {
+            totalPoints += points(last);
+        }
+        if (totalPoints == 0) {
+            return 0;
+        }
+        long pick = (long) (random.nextDouble() * totalPoints);
+        int chosen = first;
+        for (; chosen < last - 1 && pick >= points(chosen); chosen++) {
+            pick -= points(chosen);
+        }
+        int childKey = entries.getInt(chosen * ENTRY_BYTES + 8);
+        int count = position.generate(moves);
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            if ((int) child.key() == childKey) {
+                return moves[i];
+            }
+        }
+        return 0;
+    }
+
+    private int points(int entry) {
+        return entries.getShort(entry * ENTRY_BYTES + 14) & 0xFFFF;
+    }
+
+    // Перший запис з ключем не меншим за key (беззнакове порівняння, як при сортуванні у CheckersBookBuilder)
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(middle * ENTRY_BYTES), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,385 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Zobrist;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пошук для шашок: negamax з альфа-бета відсіканням, ітеративним поглибленням і таблицею транспозицій
+// над CheckersBitboard. Позиції півходів - окремі копії дошки (три int), тож скасування ходу не потрібне.
+// На листі взяття дограються до кінця (взяття обов'язкове, тож "стояти" не можна), а єдиний
+// можливий хід не зменшує глибину. З базою ендшпілів позиції з малим матеріалом не шукаються, а
+// оцінюються за нею. Один екземпляр - один потік.
+public final class CheckersSearch {
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH * 2;
+    private static final int CHECK_INTERVAL = 2048;
+    private static final int HISTORY_MAX = 16_384;
+    // Оцінки впорядкування: хід з таблиці, потім взяття (більше і дорожчі збиті - раніше), перетворення, історія
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 20;
+    private static final int PROMOTION_SCORE = 1 << 18;
+    // Виграш за базою ендшпілів: нижче за мат, щоб не плутати з відомою кількістю півходів;
+    // до нього додається статична оцінка, щоб сторона з виграшем ішла до взяттів і перетворень
+    public static final int ENDGAME_WIN = 20_000;
+
+    private final TranspositionTable table;
+    private CheckersEndgameDatabase endgames;
+    private long endgameHits;
+    private final CheckersBitboard[] positions = new CheckersBitboard[MAX_PLY + 1];
+    private final long[][] moves = new long[MAX_PLY + 1][CheckersBitboard.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY + 1][CheckersBitboard.MAX_MOVES];
+    // Історія тихих ходів [колір][from * 32 + to]
+    private final int[][] history = new int[2][CheckersBitboard.SQUARES * CheckersBitboard.SQUARES];
+    // Ключі позицій від останнього незворотного ходу партії до поточного вузла - для повторень
+    private long[] keys = new long[1024];
+    private int keyCount;
+
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private volatile boolean stopped;
+    // Номери пошуків, як у ParallelSearch: stop() зупиняє і пошук, номер якого вже видано, а потік ще не стартував
+    private final AtomicLong generations = new AtomicLong();
+    private volatile long stoppedGeneration;
+    private int score;
+    private int completedDepth;
+    private long timeMillis;
+
+    public CheckersSearch(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            positions[ply] = new CheckersBitboard();
+        }
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // null вимикає базу
+    public void setEndgameDatabase(CheckersEndgameDatabase endgames) {
+        this.endgames = endgames;
+    }
+
+    // Найкращий хід у форматі CheckersBitboard або 0, якщо ходів немає (сторона програла).
+    // history - ключі (CheckersBitboard.key, вони ж Board.getZobristKey) позицій партії до поточної
+    public long search(CheckersBitboard root, SearchLimits limits, long[] history, int historySize) {
+        return search(root, limits, history, historySize, nextGeneration());
+    }
+
+    // Номер для пошуку, що запуститься в іншому потоці
+    public long nextGeneration() {
+        return generations.incrementAndGet();
+    }
+
+    public long search(CheckersBitboard root, SearchLimits limits, long[] history, int historySize, long generation) {
+        long start = System.nanoTime();
+        stopped = false;
+        // stop(), що прийшов раніше за скидання прапорця, відновлюємо за номером
+        if (generation <= stoppedGeneration) {
+            stopped = true;
+        }
+        table.newSearch();
+        nodes = 0;
+        endgameHits = 0;
+        score = 0;
+        completedDepth = 0;
+        for (int[] colorHistory : this.history) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] /= 2;
+            }
+        }
+        maxNodes = limits.getNodes();
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        if (keys.length < historySize + MAX_PLY + 1) {
+            keys = new long[historySize + MAX_PLY + 1];
+        }
+        System.arraycopy(history, 0, keys, 0, historySize);
+        keyCount = historySize;
+
+        CheckersBitboard position = positions[0];
+        position.copyFrom(root);
+        long[] rootMoves = new long[CheckersBitboard.MAX_MOVES];
+        int rootCount = position.generate(rootMoves);
+        if (rootCount == 0) {
+            score = -Search.MATE;
+            timeMillis = elapsedMillis(start);
+            return 0;
+        }
+        long bestMove = rootMoves[0];
+        // Єдиний хід не потребує пошуку
+        if (rootCount == 1) {
+            timeMillis = elapsedMillis(start);
+            return bestMove;
+        }
+
+        long rootKey = position.key();
+        keys[keyCount++] = rootKey;
+        long softTime = limits.getSoftTimeMillis();
+        for (int depth = 1; depth <= limits.getDepth(); depth++) {
+            long iterationBest = 0;
+            int iterationScore = -Search.INFINITY;
+            int alpha = -Search.INFINITY;
+            CheckersBitboard child = positions[1];
+            for (int i = 0; i < rootCount; i++) {
+                long move = rootMoves[i];
+                child.copyFrom(position);
+                child.makeMove(move);
+                int value = -negamax(depth - 1, -Search.INFINITY, -alpha, 1, keyAfter(position, rootKey, move),
+                        position.isIrreversible(move) ? keyCount : 0);
+                if (stopped) {
+                    break;
+                }
+                if (value > iterationScore) {
+                    iterationScore = value;
+                    iterationBest = move;
+                    if (value > alpha) {
+                        alpha = value;
+                    }
+                }
+            }
+            if (iterationBest != 0) {
+                bestMove = iterationBest;
+                score = iterationScore;
+                if (!stopped) {
+                    completedDepth = depth;
+                }
+                moveToFront(rootMoves, rootCount, bestMove);
+            }
+            if (stopped || Math.abs(score) >= Search.MATE_BOUND) {
+                break;
+            }
+            // Наступна ітерація довша за всі попередні разом: не починаємо її після половини бюджету
+            if (softTime > 0 && elapsedMillis(start) * 2 >= softTime) {
+                break;
+            }
+        }
+        keyCount--;
+        timeMillis = elapsedMillis(start);
+        return bestMove;
+    }
+
+    // Зупиняє з іншого потоку поточний пошук і ті, чий номер уже видано
+    public void stop() {
+        stoppedGeneration = generations.get();
+        stopped = true;
+    }
+
+    // Оцінка, глибина, вузли і час останнього search()
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return completedDepth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getEndgameHits() {
+        return endgameHits;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    // reversibleFrom - індекс у keys, з якого шукати повторення: позиції до останнього незворотного ходу
+    // (хід простою чи взяття) повторитися вже не можуть
+    private int negamax(int depth, int alpha, int beta, int ply, long key, int reversibleFrom) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (isRepetition(key, reversibleFrom)) {
+            return 0;
+        }
+        CheckersBitboard position = positions[ply];
+        if (ply >= MAX_PLY) {
+            return CheckersEvaluator.evaluate(position);
+        }
+        if (endgames != null) {
+            int result = endgames.probe(position);
+            if (result != CheckersEndgameDatabase.UNKNOWN) {
+                endgameHits++;
+                return endgameScore(result, position, ply);
+            }
+        }
+        // Лист: без взяття позиція спокійна і оцінюється одразу
+        if (depth <= 0 && !position.hasCapture()) {
+            return CheckersEvaluator.evaluate(position);
+        }
+
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= Math.max(depth, 0)) {
+                int value = Search.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && value >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && value <= alpha)) {
+                    return value;
+                }
+            }
+        }
+
+        long[] plyMoves = moves[ply];
+        int count = position.generate(plyMoves);
+        // Немає ходу - програш
+        if (count == 0) {
+            return -Search.MATE + ply;
+        }
+        int[] colorHistory = history[position.isWhiteToMove() ? 0 : 1];
+        scoreMoves(position, plyMoves, scores[ply], count, hashMove, colorHistory);
+        int childDepth = count == 1 ? depth : depth - 1;
+
+        keys[keyCount++] = key;
+        CheckersBitboard child = positions[ply + 1];
+        int originalAlpha = alpha;
+        int best = -Search.INFINITY;
+        long bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            long move = pickBest(plyMoves, scores[ply], i, count);
+            child.copyFrom(position);
+            child.makeMove(move);
+            int value = -negamax(childDepth, -beta, -alpha, ply + 1, keyAfter(position, key, move),
+                    position.isIrreversible(move) ? keyCount : reversibleFrom);
+            if (stopped) {
+                break;
+            }
+            if (value > best) {
+                best = value;
+                if (value > alpha) {
+                    alpha = value;
+                    bestMove = move;
+                    if (alpha >= beta) {
+                        if (!CheckersBitboard.isCapture(move)) {
+                            updateHistory(colorHistory, move, Math.min(depth * depth, 400));
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        keyCount--;
+
+        if (!stopped) {
+            int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                    : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+            table.store(key, tableMove(bestMove), Search.scoreToTable(best, ply), Math.max(depth, 0), bound);
+        }
+        return best;
+    }
+
+    // Швидший виграш і довший програш кращі, тому відстань від кореня теж враховуємо
+    private static int endgameScore(int result, CheckersBitboard position, int ply) {
+        if (result == CheckersEndgameDatabase.DRAW) {
+            return 0;
+        }
+        int evaluation = CheckersEvaluator.evaluate(position);
+        return result == CheckersEndgameDatabase.WIN ? ENDGAME_WIN - ply + evaluation : -ENDGAME_WIN + ply + evaluation;
+    }
+
+    // Повторення позиції з тим самим гравцем на ході - нічия
+    private boolean isRepetition(long key, int reversibleFrom) {
+        for (int i = keyCount - 2; i >= reversibleFrom; i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void scoreMoves(CheckersBitboard position, long[] plyMoves, int[] plyScores, int count,
+                                   int hashMove, int[] colorHistory) {
+        int promotionRow = position.isWhiteToMove() ? CheckersBitboard.WHITE_PROMOTION : CheckersBitboard.BLACK_PROMOTION;
+        int kings = position.getKings();
+        for (int i = 0; i < count; i++) {
+            long move = plyMoves[i];
+            int from = CheckersBitboard.from(move);
+            int to = CheckersBitboard.to(move);
+            int captured = CheckersBitboard.captured(move);
+            int value;
+            if (hashMove != 0 && tableMove(move) == hashMove) {
+                value = HASH_MOVE_SCORE;
+            } else if (captured != 0) {
+                value = CAPTURE_SCORE + Integer.bitCount(captured) * 1000 + Integer.bitCount(captured & kings) * 2000;
+            } else {
+                value = colorHistory[from * CheckersBitboard.SQUARES + to];
+            }
+            if ((kings & (1 << from)) == 0 && (promotionRow & (1 << to)) != 0) {
+                value += PROMOTION_SCORE;
+            }
+            plyScores[i] = value;
+        }
+    }
+
+    private static long pickBest(long[] plyMoves, int[] plyScores, int from, int to) {
+        int best = from;
+        for (int i = from + 1; i < to; i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        long move = plyMoves[best];
+        plyMoves[best] = plyMoves[from];
+        plyMoves[from] = move;
+        int value = plyScores[best];
+        plyScores[best] = plyScores[from];
+        plyScores[from] = value;
+        return move;
+    }
+
+    private static void updateHistory(int[] colorHistory, long move, int bonus) {
+        int index = CheckersBitboard.from(move) * CheckersBitboard.SQUARES + CheckersBitboard.to(move);
+        colorHistory[index] += bonus - colorHistory[index] * bonus / HISTORY_MAX;
+    }
+
+    // У таблиці 32 біти на хід: згортка from/to і маски збитих, для впізнавання серед ходів вузла вистачає
+    private static int tableMove(long move) {
+        return (int) move ^ (int) (move >>> 32);
+    }
+
+    // Ключ після ходу: фігура переходить (можливо, стаючи дамкою), збиті знімаються, черга змінюється
+    private static long keyAfter(CheckersBitboard position, long key, long move) {
+        int from = CheckersBitboard.from(move);
+        int to = CheckersBitboard.to(move);
+        int piece = position.pieceIndex(from);
+        key ^= Zobrist.piece(piece, CheckersBitboard.toSquare(from));
+        int promotionRow = position.isWhiteToMove() ? CheckersBitboard.WHITE_PROMOTION : CheckersBitboard.BLACK_PROMOTION;
+        if ((position.getKings() & (1 << from)) == 0 && (promotionRow & (1 << to)) != 0) {
+            piece++;
+        }
+        key ^= Zobrist.piece(piece, CheckersBitboard.toSquare(to));
+        for (int captured = CheckersBitboard.captured(move); captured != 0; captured &= captured - 1) {
+            int bit = Integer.numberOfTrailingZeros(captured);
+            key ^= Zobrist.piece(position.pieceIndex(bit), CheckersBitboard.toSquare(bit));
+        }
+        return key ^ Zobrist.SIDE_TO_MOVE;
+    }
+
+    private static void moveToFront(long[] list, int count, long move) {
+        for (int i = 0; i < count; i++) {
+            if (list[i] == move) {
+                System.arraycopy(list, 0, list, 1, i);
+                list[0] = move;
+                return;
+            }
+        }
+    }
+
+    private void checkLimits() {
+        if ((maxNodes > 0 && nodes >= maxNodes) || System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
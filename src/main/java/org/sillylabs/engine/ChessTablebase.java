@@ -0,0 +1,485 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
+import org.sillylabs.pieces.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Шахові таблиці ендшпілів з відстанню до мату (DTM) для 3-4 фігур, які будує ChessTablebaseGenerator.
+// Кожен набір матеріалу - окремий файл <назва>.dtm (напр. KQKR.dtm: білі король і ферзь проти короля
+// і тури), відображений у пам'ять лише для читання; запит - обчислення індексу і читання одного байта.
+// Набір зберігається лише з боку сильнішої сторони як білих: позиція з кольорами навпаки читається
+// дзеркально по горизонталях. Симетрія дошки: без пішаків білий король зводиться до трикутника a1-d1-d4
+// (8 симетрій), з пішаками - до лівої половини (віддзеркалення вертикалей).
+// Байт позиції: 0 - нічия, непарне p - виграш за p півходів, парне v >= 2 - програш за v - 2 півходів,
+// 255 - неможлива позиція. Права на рокіровку і взяття на проході в таблицях не враховуються.
+public final class ChessTablebase {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final String DEFAULT_DIRECTORY = "tablebases";
+    public static final String EXTENSION = ".dtm";
+    static final int MAGIC = 0x43544244;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int INVALID = 255;
+    static final int MAX_PIECES = 4;
+    // Сигнатура матеріалу: по цифрі трійкової системи на кількість фігур кожного роду (без королів)
+    // у білих, потім у чорних; у наборах до 4 фігур однакових не буває більше двох
+    private static final int SIDE_SIGNATURES = 243;
+    static final int SIGNATURES = SIDE_SIGNATURES * SIDE_SIGNATURES;
+    private static final int[] POWERS = {1, 3, 9, 27, 81};
+
+    // Порядок сили фігур для назв і слотів: Q, R, B, N, P
+    private static final int[] STRENGTH_ORDER = {Board.QUEEN, Board.ROOK, Board.BISHOP, Board.KNIGHT, Board.PAWN};
+    private static final String LETTERS = "QRBNP";
+
+    // Симетрії дошки: біт 1 - дзеркало вертикалей, 2 - дзеркало горизонталей, 4 - транспонування
+    private static final int[][] TRANSFORMS = new int[8][64];
+    // Слот білого короля для кожної клітинки або -1 і зворотні таблиці
+    private static final int[] PAWNLESS_SLOT = new int[64];
+    private static final int[] PAWN_SLOT = new int[64];
+    private static final int[] PAWNLESS_SQUARE = new int[10];
+    private static final int[] PAWN_SQUARE = new int[32];
+
+    static {
+        for (int transform = 0; transform < 8; transform++) {
+            for (int square = 0; square < 64; square++) {
+                int row = square / 8;
+                int column = square % 8;
+                if ((transform & 4) != 0) {
+                    int swap = row;
+                    row = column;
+                    column = swap;
+                }
+                if ((transform & 1) != 0) {
+                    column = 7 - column;
+                }
+                if ((transform & 2) != 0) {
+                    row = 7 - row;
+                }
+                TRANSFORMS[transform][square] = row * 8 + column;
+            }
+        }
+        int pawnless = 0;
+        int pawn = 0;
+        for (int square = 0; square < 64; square++) {
+            int file = square % 8;
+            int rank = 7 - square / 8;
+            PAWNLESS_SLOT[square] = -1;
+            PAWN_SLOT[square] = -1;
+            if (file <= 3 && rank <= file) {
+                PAWNLESS_SQUARE[pawnless] = square;
+                PAWNLESS_SLOT[square] = pawnless++;
+            }
+            if (file <= 3) {
+                PAWN_SQUARE[pawn] = square;
+                PAWN_SLOT[square] = pawn++;
+            }
+        }
+    }
+
+    // Набір матеріалу: слоти фігур у порядку індексу - білий король, чорний король,
+    // решта білих за силою, решта чорних за силою
+    static final class Material {
+        final String name;
+        final int[] types;
+        final boolean[] white;
+        final boolean pawns;
+        final int size;
+        final int signature;
+
+        private Material(String name) {
+            this.name = name;
+            int split = name.indexOf('K', 1);
+            String whiteLetters = name.substring(1, split);
+            String blackLetters = name.substring(split + 1);
+            int count = 2 + whiteLetters.length() + blackLetters.length();
+            types = new int[count];
+            white = new boolean[count];
+            types[0] = Board.KING;
+            white[0] = true;
+            types[1] = Board.KING;
+            int slot = 2;
+            for (char letter : whiteLetters.toCharArray()) {
+                types[slot] = STRENGTH_ORDER[LETTERS.indexOf(letter)];
+                white[slot++] = true;
+            }
+            for (char letter : blackLetters.toCharArray()) {
+                types[slot++] = STRENGTH_ORDER[LETTERS.indexOf(letter)];
+            }
+            signature = sideSignature(whiteLetters) + SIDE_SIGNATURES * sideSignature(blackLetters);
+            pawns = name.indexOf('P') >= 0;
+            int positions = pawns ? PAWN_SQUARE.length : PAWNLESS_SQUARE.length;
+            for (int i = 1; i < count; i++) {
+                positions *= 64;
+            }
+            size = positions * 2;
+        }
+
+        static Material of(String name) {
+            return new Material(name);
+        }
+
+        int pieceCount() {
+            return types.length;
+        }
+
+        int pawnCount() {
+            int count = 0;
+            for (int type : types) {
+                if (type == Board.PAWN) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        // Наступний слот - та сама фігура того ж кольору (такі фігури взаємозамінні)
+        boolean sameAsNext(int slot) {
+            return slot + 1 < types.length && types[slot] == types[slot + 1] && white[slot] == white[slot + 1];
+        }
+
+        // Канонічний індекс позиції: мінімум серед симетрій, що ставлять білого короля в його область
+        int index(int[] squares, boolean whiteToMove) {
+            return index(squares, whiteToMove, new int[types.length]);
+        }
+
+        // mapped - робочий масив на pieceCount() клітинок, щоб запит у пошуку нічого не виділяв
+        int index(int[] squares, boolean whiteToMove, int[] mapped) {
+            int[] slots = pawns ? PAWN_SLOT : PAWNLESS_SLOT;
+            int transforms = pawns ? 2 : 8;
+            int best = Integer.MAX_VALUE;
+            for (int transform = 0; transform < transforms; transform++) {
+                int[] map = TRANSFORMS[transform];
+                int slot = slots[map[squares[0]]];
+                if (slot < 0) {
+                    continue;
+                }
+                for (int i = 1; i < types.length; i++) {
+                    mapped[i] = map[squares[i]];
+                }
+                // Однакові фігури - у порядку зростання клітинок (у наборах до 4 фігур групи не більші за 2)
+                for (int i = 2; i + 1 < types.length; i++) {
+                    if (sameAsNext(i) && mapped[i] > mapped[i + 1]) {
+                        int swap = mapped[i];
+                        mapped[i] = mapped[i + 1];
+                        mapped[i + 1] = swap;
+                    }
+                }
+                int index = slot;
+                for (int i = 1; i < types.length; i++) {
+                    index = index * 64 + mapped[i];
+                }
+                best = Math.min(best, index * 2 + (whiteToMove ? 0 : 1));
+            }
+            return best;
+        }
+
+        // Клітинки за індексом (без перевірки канонічності); повертає, чи ходять білі
+        boolean decode(int index, int[] squares) {
+            boolean whiteToMove = (index & 1) == 0;
+            index >>>= 1;
+            for (int i = types.length - 1; i >= 1; i--) {
+                squares[i] = index & 63;
+                index >>>= 6;
+            }
+            squares[0] = pawns ? PAWN_SQUARE[index] : PAWNLESS_SQUARE[index];
+            return whiteToMove;
+        }
+    }
+
+    // Позиція довільного складу, зведена до збереженого набору: сигнатура, клітинки в порядку слотів і черга.
+    // Один екземпляр - один потік (у пошуку - свій у кожного Search), тож запит нічого не виділяє
+    static final class Lookup {
+        int signature;
+        final int[] squares = new int[MAX_PIECES];
+        boolean whiteToMove;
+        // Вхід для probe(Board) і робочі масиви
+        final int[] codes = new int[MAX_PIECES];
+        final int[] pieceSquares = new int[MAX_PIECES];
+        final int[] mapped = new int[MAX_PIECES];
+        private final int[] nextSlot = new int[LETTERS.length() * 2];
+
+        // codes - коди фігур Board (0-11); false, якщо фігур більше за MAX_PIECES
+        boolean set(int[] codes, int[] pieceSquares, int count, boolean sideWhite) {
+            if (count > MAX_PIECES) {
+                return false;
+            }
+            int whiteSignature = 0;
+            int blackSignature = 0;
+            for (int i = 0; i < count; i++) {
+                int type = codes[i] % Board.BLACK_OFFSET;
+                if (type == Board.KING) {
+                    continue;
+                }
+                if (codes[i] < Board.BLACK_OFFSET) {
+                    whiteSignature += POWERS[strengthRank(type)];
+                } else {
+                    blackSignature += POWERS[strengthRank(type)];
+                }
+            }
+            // Сильніша сторона стає білими: більше фігур, а за рівної кількості - сильніша перша відмінна
+            boolean swap = compareStrength(whiteSignature, blackSignature) < 0;
+            int strong = swap ? blackSignature : whiteSignature;
+            int weak = swap ? whiteSignature : blackSignature;
+            signature = strong + SIDE_SIGNATURES * weak;
+            whiteToMove = swap != sideWhite;
+            Arrays.fill(nextSlot, 0);
+            int whiteCount = pieceCount(strong);
+            for (int i = 0; i < count; i++) {
+                int type = codes[i] % Board.BLACK_OFFSET;
+                boolean white = (codes[i] < Board.BLACK_OFFSET) != swap;
+                int square = swap ? pieceSquares[i] ^ 56 : pieceSquares[i];
+                if (type == Board.KING) {
+                    squares[white ? 0 : 1] = square;
+                    continue;
+                }
+                // Перед фігурою в слотах її сторони - усі сильніші фігури і вже поставлені такі самі
+                int rank = strengthRank(type);
+                int side = white ? strong : weak;
+                int stronger = 0;
+                for (int other = 0; other < rank; other++) {
+                    stronger += digit(side, other);
+                }
+                int slot = (white ? 2 : 2 + whiteCount) + stronger + nextSlot[rank * 2 + (white ? 0 : 1)]++;
+                squares[slot] = square;
+            }
+            return true;
+        }
+
+        // Назва набору для повідомлень
+        String name() {
+            return "K" + letters(signature % SIDE_SIGNATURES) + "K" + letters(signature / SIDE_SIGNATURES);
+        }
+    }
+
+    // Таблиці і набори за сигнатурою матеріалу; null - набору немає
+    private final ByteBuffer[] tables;
+    private final Material[] materials;
+    private final int tableCount;
+    private final int maxPieces;
+
+    private ChessTablebase(ByteBuffer[] tables, Material[] materials, int tableCount, int maxPieces) {
+        this.tables = tables;
+        this.materials = materials;
+        this.tableCount = tableCount;
+        this.maxPieces = maxPieces;
+    }
+
+    // Відкриває всі файли *.dtm каталогу
+    public static ChessTablebase open(Path directory) throws IOException {
+        ByteBuffer[] tables = new ByteBuffer[SIGNATURES];
+        Material[] materials = new Material[SIGNATURES];
+        int tableCount = 0;
+        int maxPieces = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                name = name.substring(0, name.length() - EXTENSION.length());
+                Material material = Material.of(name);
+                if (tables[material.signature] == null) {
+                    tableCount++;
+                }
+                tables[material.signature] = map(file, material);
+                materials[material.signature] = material;
+                maxPieces = Math.max(maxPieces, material.pieceCount());
+            }
+        }
+        return new ChessTablebase(tables, materials, tableCount, maxPieces);
+    }
+
+    // Таблиці з каталогу за замовчуванням (властивість -Dtablebases або ./tablebases); без файлів - null
+    public static ChessTablebase openDefault() {
+        Path directory = Path.of(System.getProperty("tablebases", DEFAULT_DIRECTORY));
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try {
+            ChessTablebase tablebase = open(directory);
+            return tablebase.tableCount == 0 ? null : tablebase;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to open chess tablebases: " + e.getMessage());
+            return null;
+        }
+    }
+
+    static MappedByteBuffer map(Path file, Material material) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != material.size) {
+                throw new IOException("Not a tablebase for " + material.name + ": " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, material.size);
+        }
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    // Оцінка для сторони на ході в одиницях пошуку: Search.MATE - p для мату за p півходів,
+    // -Search.MATE + p для програшу за p півходів, 0 для нічиєї; UNKNOWN - позиції в таблицях немає
+    public int probe(Board board, Color sideToMove) {
+        return probe(board, sideToMove, new Lookup());
+    }
+
+    // Те саме з Lookup потоку, що питає: так пошук не виділяє пам'яті в кожному вузлі
+    int probe(Board board, Color sideToMove, Lookup lookup) {
+        long occupied = board.getOccupied();
+        int count = Long.bitCount(occupied);
+        if (count > maxPieces || board.getCastlingRights() != 0 || board.getEnPassantSquare() != -1) {
+            return UNKNOWN;
+        }
+        int i = 0;
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            lookup.codes[i] = board.getPieceIndex(square);
+            lookup.pieceSquares[i++] = square;
+        }
+        return probe(lookup, lookup.codes, lookup.pieceSquares, count, sideToMove);
+    }
+
+    // Те саме для дошки партії (BoardView): права на рокіровку і взяття на проході не перевіряються,
+    // тож це підказка для інтерфейсу, а не оцінка для пошуку
+    public int probe(BoardView board, Color sideToMove) {
+        int[] codes = new int[MAX_PIECES];
+        int[] squares = new int[MAX_PIECES];
+        int count = 0;
+        for (int square = 0; square < 64; square++) {
+            int code = board.getPieceIndex(square);
+            if (code == Board.NO_PIECE) {
+                continue;
+            }
+            if (count == maxPieces || code >= Board.WHITE_CHECKERS_MAN) {
+                return UNKNOWN;
+            }
+            codes[count] = code;
+            squares[count++] = square;
+        }
+        return probe(new Lookup(), codes, squares, count, sideToMove);
+    }
+
+    private int probe(Lookup lookup, int[] codes, int[] squares, int count, Color sideToMove) {
+        if (!lookup.set(codes, squares, count, sideToMove == Color.WHITE)) {
+            return UNKNOWN;
+        }
+        // Самі королі - нічия
+        if (lookup.signature == 0) {
+            return 0;
+        }
+        ByteBuffer table = tables[lookup.signature];
+        if (table == null) {
+            return UNKNOWN;
+        }
+        int value = table.get(materials[lookup.signature].index(lookup.squares, lookup.whiteToMove, lookup.mapped)) & 0xFF;
+        return score(value);
+    }
+
+    // Значення байта таблиці як оцінка пошуку
+    static int score(int value) {
+        if (value == 0) {
+            return 0;
+        }
+        if (value == INVALID) {
+            return UNKNOWN;
+        }
+        return (value & 1) != 0 ? Search.MATE - value : -Search.MATE + value - 2;
+    }
+
+    // Цифра сигнатури сторони: кількість фігур роду rank (у порядку STRENGTH_ORDER)
+    private static int digit(int sideSignature, int rank) {
+        return sideSignature / POWERS[rank] % 3;
+    }
+
+    private static int pieceCount(int sideSignature) {
+        int count = 0;
+        for (int rank = 0; rank < POWERS.length; rank++) {
+            count += digit(sideSignature, rank);
+        }
+        return count;
+    }
+
+    private static int sideSignature(String letters) {
+        int signature = 0;
+        for (char letter : letters.toCharArray()) {
+            signature += POWERS[LETTERS.indexOf(letter)];
+        }
+        return signature;
+    }
+
+    private static String letters(int sideSignature) {
+        StringBuilder letters = new StringBuilder();
+        for (int rank = 0; rank < POWERS.length; rank++) {
+            for (int i = digit(sideSignature, rank); i > 0; i--) {
+                letters.append(LETTERS.charAt(rank));
+            }
+        }
+        return letters.toString();
+    }
+
+    // Те саме порівняння, що й для назв: спершу кількість фігур, потім перший рід, якого в сторін різна кількість
+    private static int compareStrength(int first, int second) {
+        int difference = pieceCount(first) - pieceCount(second);
+        for (int rank = 0; difference == 0 && rank < POWERS.length; rank++) {
+            difference = digit(first, rank) - digit(second, rank);
+        }
+        return difference;
+    }
+
+    // Назва набору з літер фігур двох сторін (без королів, у довільному порядку)
+    static String materialName(String first, String second) {
+        first = sortLetters(first);
+        second = sortLetters(second);
+        return compareStrength(first, second) < 0 ? "K" + second + "K" + first : "K" + first + "K" + second;
+    }
+
+    static String letter(int type) {
+        return String.valueOf(LETTERS.charAt(strengthRank(type)));
+    }
+
+    private static String sortLetters(String letters) {
+        StringBuilder sorted = new StringBuilder();
+        for (int rank = 0; rank < LETTERS.length(); rank++) {
+            for (char letter : letters.toCharArray()) {
+                if (letter == LETTERS.charAt(rank)) {
+                    sorted.append(letter);
+                }
+            }
+        }
+        return sorted.toString();
+    }
+
+    static int compareStrength(String first, String second) {
+        if (first.length() != second.length()) {
+            return first.length() - second.length();
+        }
+        for (int i = 0; i < first.length(); i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                return LETTERS.indexOf(second.charAt(i)) - LETTERS.indexOf(first.charAt(i));
+            }
+        }
+        return 0;
+    }
+
+    private static int strengthRank(int type) {
+        for (int rank = 0; rank < STRENGTH_ORDER.length; rank++) {
+            if (STRENGTH_ORDER[rank] == type) {
+                return rank;
+            }
+        }
+        throw new IllegalArgumentException("No tablebase letter for piece type " + type);
+    }
+}
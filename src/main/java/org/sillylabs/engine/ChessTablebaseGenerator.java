@@ -0,0 +1,539 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.pieces.Color;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Ретроградний аналіз шахових ендшпілів з 3-4 фігур, результат - файли ChessTablebase з відстанню до мату.
+// Набори рахуються від меншої кількості фігур до більшої, а при рівній - від меншої кількості пішаків:
+// взяття і перетворення пішака завжди ведуть у вже пораховані набори (або в наявні файли).
+// Всередині набору лишаються тихі ходи без перетворення, тож:
+//  1) прямий прохід знаходить мати, оцінює ходи в інші набори і рахує різні ходи всередині набору;
+//  2) позиції обробляються за зростанням кількості півходів до мату: програш за d дає попередникам
+//     (через зворотні ходи) виграш за d + 1, а попередник, у якого всі ходи ведуть до виграшу
+//     суперника, програє за найдовшим із них;
+//  3) що лишилося невизначеним - нічия.
+// Взяття на проході і рокіровка в таблицях не розглядаються.
+// Використання: ChessTablebaseGenerator [maxPieces] [directory] [набори...]; за замовчуванням усі
+// набори до 4 фігур у каталозі tablebases. Файли, що вже є в каталозі, не перераховуються.
+public final class ChessTablebaseGenerator {
+    private static final int UNRESOLVED = 0;
+    private static final int INVALID = ChessTablebase.INVALID;
+    // Найдовший шлях, який вміщує байт: виграш - непарне p <= 253, програш - p + 2 <= 254
+    private static final int MAX_PLIES = 252;
+    // Хід у нічию чи у виграш поза набором: лічильник ходів такої позиції ніколи не дійде до нуля
+    private static final int EXIT_SENTINEL = 1 << 7;
+    private static final int[] PROMOTIONS = {Board.QUEEN, Board.ROOK, Board.BISHOP, Board.KNIGHT};
+    private static final String LETTERS = "QRBNP";
+
+    private final Path directory;
+    // Готові набори за сигнатурою матеріалу, як у ChessTablebase
+    private final ByteBuffer[] tables = new ByteBuffer[ChessTablebase.SIGNATURES];
+    private final ChessTablebase.Material[] materials = new ChessTablebase.Material[ChessTablebase.SIGNATURES];
+    private final ChessTablebase.Lookup lookup = new ChessTablebase.Lookup();
+
+    // Поточний набір: клітинки фігур за слотами (-1 - фігуру взято) і результати
+    private ChessTablebase.Material material;
+    private int[] squares;
+    private byte[] values;
+    private byte[] counters;
+    private byte[] exitWins;
+    private int[][] buckets;
+    private int[] bucketSizes;
+    private final int[] moves = new int[256];
+    private final int[] children = new int[256];
+    private final int[] codes = new int[ChessTablebase.MAX_PIECES];
+    private final int[] pieceSquares = new int[ChessTablebase.MAX_PIECES];
+
+    public ChessTablebaseGenerator(Path directory) {
+        this.directory = directory;
+    }
+
+    // Усі набори від 3 до maxPieces фігур
+    static List<String> allMaterials(int maxPieces) {
+        Set<String> names = new LinkedHashSet<>();
+        List<String> sides = new ArrayList<>();
+        sides.add("");
+        for (int pieces = 1; pieces <= maxPieces - 2; pieces++) {
+            List<String> longer = new ArrayList<>();
+            for (String side : sides) {
+                for (char letter : LETTERS.toCharArray()) {
+                    if (side.isEmpty() || LETTERS.indexOf(letter) >= LETTERS.indexOf(side.charAt(side.length() - 1))) {
+                        longer.add(side + letter);
+                    }
+                }
+            }
+            sides.addAll(longer);
+            sides = new ArrayList<>(new LinkedHashSet<>(sides));
+        }
+        for (String first : sides) {
+            for (String second : sides) {
+                int pieces = 2 + first.length() + second.length();
+                if (pieces >= 3 && pieces <= maxPieces) {
+                    names.add(ChessTablebase.materialName(first, second));
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    // Набори разом з усіма, у які ведуть взяття і перетворення, у порядку розрахунку
+    static List<String> closure(List<String> requested) {
+        Set<String> names = new LinkedHashSet<>();
+        List<String> pending = new ArrayList<>(requested);
+        while (!pending.isEmpty()) {
+            String name = pending.remove(pending.size() - 1);
+            if (name.equals("KK") || !names.add(name)) {
+                continue;
+            }
+            int split = name.indexOf('K', 1);
+            String first = name.substring(1, split);
+            String second = name.substring(split + 1);
+            for (int i = 0; i < first.length(); i++) {
+                addReduced(pending, first, second, i);
+            }
+            for (int i = 0; i < second.length(); i++) {
+                addReduced(pending, second, first, i);
+            }
+        }
+        List<String> order = new ArrayList<>(names);
+        order.sort(Comparator.comparingInt(String::length).thenComparingInt(name -> ChessTablebase.Material.of(name).pawnCount()));
+        return order;
+    }
+
+    private static void addReduced(List<String> pending, String side, String other, int piece) {
+        String rest = side.substring(0, piece) + side.substring(piece + 1);
+        pending.add(ChessTablebase.materialName(rest, other));
+        if (side.charAt(piece) == 'P') {
+            for (int promotion : PROMOTIONS) {
+                pending.add(ChessTablebase.materialName(rest + ChessTablebase.letter(promotion), other));
+            }
+        }
+    }
+
+    public void generate(List<String> requested) throws IOException {
+        Files.createDirectories(directory);
+        long totalStart = System.nanoTime();
+        for (String name : closure(requested)) {
+            ChessTablebase.Material table = ChessTablebase.Material.of(name);
+            materials[table.signature] = table;
+            Path file = directory.resolve(name + ChessTablebase.EXTENSION);
+            if (Files.exists(file)) {
+                tables[table.signature] = ChessTablebase.map(file, table);
+                System.out.println(name + ": already in " + file);
+                continue;
+            }
+            long start = System.nanoTime();
+            byte[] result = solve(table);
+            write(file, table, result);
+            tables[table.signature] = ByteBuffer.wrap(result);
+            report(name, result, (System.nanoTime() - start) / 1_000_000);
+        }
+        System.out.println("Time: " + (System.nanoTime() - totalStart) / 1_000_000 + " ms");
+    }
+
+    private byte[] solve(ChessTablebase.Material table) {
+        material = table;
+        squares = new int[table.pieceCount()];
+        values = new byte[table.size];
+        counters = new byte[table.size];
+        exitWins = new byte[table.size];
+        buckets = new int[MAX_PLIES + 2][];
+        bucketSizes = new int[MAX_PLIES + 2];
+
+        // Прямий прохід
+        for (int entry = 0; entry < table.size; entry++) {
+            boolean whiteToMove = table.decode(entry, squares);
+            if (!isValid(entry, whiteToMove)) {
+                values[entry] = (byte) INVALID;
+                continue;
+            }
+            analyse(entry, whiteToMove);
+        }
+
+        // Зворотний прохід за зростанням кількості півходів
+        BitSet propagated = new BitSet(table.size);
+        for (int plies = 0; plies <= MAX_PLIES; plies++) {
+            int code = code(plies);
+            for (int i = 0; i < bucketSizes[plies]; i++) {
+                int entry = buckets[plies][i];
+                if (values[entry] == UNRESOLVED) {
+                    values[entry] = (byte) code;
+                }
+                if ((values[entry] & 0xFF) != code || propagated.get(entry)) {
+                    continue;
+                }
+                propagated.set(entry);
+                propagate(entry, plies);
+            }
+            buckets[plies] = null;
+        }
+        if (bucketSizes[MAX_PLIES + 1] > 0) {
+            throw new IllegalStateException("Distance to mate does not fit in a byte: " + table.name);
+        }
+        byte[] result = values;
+        values = null;
+        counters = null;
+        exitWins = null;
+        buckets = null;
+        return result;
+    }
+
+    // Ходи позиції: мат, виходи з набору і кількість різних позицій усередині набору
+    private void analyse(int entry, boolean whiteToMove) {
+        int count = generateMoves(whiteToMove);
+        int inside = 0;
+        int bestWin = Integer.MAX_VALUE;
+        int longestLoss = 0;
+        boolean sentinel = false;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int slot = move & 3;
+            int to = (move >>> 2) & 63;
+            int captured = ((move >>> 8) & 7) - 1;
+            int promotion = (move >>> 11) & 7;
+            if (captured < 0 && promotion == 0) {
+                int from = squares[slot];
+                squares[slot] = to;
+                int child = material.index(squares, !whiteToMove);
+                squares[slot] = from;
+                if (!contains(children, inside, child)) {
+                    children[inside++] = child;
+                }
+                continue;
+            }
+            int value = exitValue(slot, to, captured, promotion - 1, !whiteToMove);
+            if (value == UNRESOLVED) {
+                sentinel = true;
+            } else if ((value & 1) != 0) {
+                longestLoss = Math.max(longestLoss, value);
+            } else {
+                bestWin = Math.min(bestWin, value - 1);
+            }
+        }
+        if (bestWin != Integer.MAX_VALUE) {
+            push(entry, bestWin);
+            sentinel = true;
+        }
+        counters[entry] = (byte) (inside | (sentinel ? EXIT_SENTINEL : 0));
+        exitWins[entry] = (byte) longestLoss;
+        if (count == 0) {
+            // Мат - програш за 0 півходів; пат лишається нічиєю
+            if (inCheck(whiteToMove)) {
+                push(entry, 0);
+            }
+        } else if (inside == 0 && !sentinel) {
+            push(entry, longestLoss + 1);
+        }
+    }
+
+    // Оновлення попередників позиції з відомим результатом за plies півходів
+    private void propagate(int entry, int plies) {
+        boolean whiteToMove = material.decode(entry, squares);
+        boolean moverWhite = !whiteToMove;
+        int king = squares[whiteToMove ? 0 : 1];
+        long occupied = occupancy();
+        int found = 0;
+        for (int slot = 0; slot < squares.length; slot++) {
+            if (material.white[slot] != moverWhite) {
+                continue;
+            }
+            int current = squares[slot];
+            long origins = origins(material.types[slot], moverWhite, current, occupied);
+            for (; origins != 0; origins &= origins - 1) {
+                int from = Long.numberOfTrailingZeros(origins);
+                squares[slot] = from;
+                long before = occupied ^ (1L << current) ^ (1L << from);
+                if (!isAttacked(king, moverWhite, before)) {
+                    int parent = material.index(squares, moverWhite);
+                    if (!contains(children, found, parent)) {
+                        children[found++] = parent;
+                    }
+                }
+                squares[slot] = current;
+            }
+        }
+        boolean loss = (plies & 1) == 0;
+        for (int i = 0; i < found; i++) {
+            int parent = children[i];
+            if (values[parent] != UNRESOLVED) {
+                continue;
+            }
+            if (loss) {
+                values[parent] = (byte) code(plies + 1);
+                push(parent, plies + 1);
+                continue;
+            }
+            int counter = (counters[parent] & 0xFF) - 1;
+            counters[parent] = (byte) counter;
+            if (counter == 0) {
+                push(parent, Math.max(plies, exitWins[parent] & 0xFF) + 1);
+            }
+        }
+    }
+
+    // Клітинки, з яких фігура могла тихо прийти на square
+    private static long origins(int type, boolean white, int square, long occupied) {
+        switch (type) {
+            case Board.PAWN -> {
+                int back = white ? 8 : -8;
+                int from = square + back;
+                if (from < 8 || from >= 56 || (occupied & (1L << from)) != 0) {
+                    return 0;
+                }
+                long origins = 1L << from;
+                int doubleRow = white ? 4 : 3;
+                int start = from + back;
+                if (square / 8 == doubleRow && (occupied & (1L << start)) == 0) {
+                    origins |= 1L << start;
+                }
+                return origins;
+            }
+            case Board.KNIGHT -> {
+                return AttackTables.knightAttacks(square) & ~occupied;
+            }
+            case Board.KING -> {
+                return AttackTables.kingAttacks(square) & ~occupied;
+            }
+            default -> {
+                return attacks(type, white, square, occupied) & ~occupied;
+            }
+        }
+    }
+
+    // Легальні ходи сторони: слот | клітинка << 2 | (взятий слот + 1) << 8 | (перетворення + 1) << 11
+    private int generateMoves(boolean white) {
+        long occupied = occupancy();
+        long own = 0;
+        long enemy = 0;
+        for (int slot = 0; slot < squares.length; slot++) {
+            if (material.white[slot] == white) {
+                own |= 1L << squares[slot];
+            } else {
+                enemy |= 1L << squares[slot];
+            }
+        }
+        int count = 0;
+        for (int slot = 0; slot < squares.length; slot++) {
+            if (material.white[slot] != white) {
+                continue;
+            }
+            int from = squares[slot];
+            int type = material.types[slot];
+            long targets;
+            if (type == Board.PAWN) {
+                int forward = white ? -8 : 8;
+                targets = AttackTables.pawnAttacks(white ? Color.WHITE : Color.BLACK, from) & enemy;
+                int push = from + forward;
+                if ((occupied & (1L << push)) == 0) {
+                    targets |= 1L << push;
+                    int startRow = white ? 6 : 1;
+                    if (from / 8 == startRow && (occupied & (1L << (push + forward))) == 0) {
+                        targets |= 1L << (push + forward);
+                    }
+                }
+            } else {
+                targets = attacks(type, white, from, occupied) & ~own;
+            }
+            for (; targets != 0; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int captured = -1;
+                for (int other = 0; other < squares.length; other++) {
+                    if (other != slot && squares[other] == to) {
+                        captured = other;
+                    }
+                }
+                squares[slot] = to;
+                if (captured >= 0) {
+                    squares[captured] = -1;
+                }
+                boolean legal = !isAttacked(squares[white ? 0 : 1], !white, (occupied & ~(1L << from)) | (1L << to));
+                squares[slot] = from;
+                if (captured >= 0) {
+                    squares[captured] = to;
+                }
+                if (!legal) {
+                    continue;
+                }
+                int move = slot | to << 2 | (captured + 1) << 8;
+                if (type == Board.PAWN && (to < 8 || to >= 56)) {
+                    for (int promotion : PROMOTIONS) {
+                        moves[count++] = move | (promotion + 1) << 11;
+                    }
+                } else {
+                    moves[count++] = move;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Байт результату дочірньої позиції в іншому наборі (для сторони на ході в ній)
+    private int exitValue(int slot, int to, int captured, int promotion, boolean childWhite) {
+        int count = 0;
+        for (int other = 0; other < squares.length; other++) {
+            if (other == captured) {
+                continue;
+            }
+            int type = other == slot && promotion >= 0 ? promotion : material.types[other];
+            codes[count] = material.white[other] ? type : type + Board.BLACK_OFFSET;
+            pieceSquares[count++] = other == slot ? to : squares[other];
+        }
+        lookup.set(codes, pieceSquares, count, childWhite);
+        if (lookup.signature == 0) {
+            return UNRESOLVED;
+        }
+        ByteBuffer table = tables[lookup.signature];
+        if (table == null) {
+            throw new IllegalStateException("Missing dependency " + lookup.name() + " for " + material.name);
+        }
+        int value = table.get(materials[lookup.signature].index(lookup.squares, lookup.whiteToMove, lookup.mapped)) & 0xFF;
+        if (value == INVALID) {
+            throw new IllegalStateException("Legal position marked invalid in " + lookup.name());
+        }
+        return value;
+    }
+
+    // Позиція існує: клітинки різні, пішаки не на крайніх горизонталях, індекс канонічний,
+    // а король сторони, що не ходить, не під шахом (це ж покриває сусідніх королів)
+    private boolean isValid(int entry, boolean whiteToMove) {
+        long occupied = 0;
+        for (int slot = 0; slot < squares.length; slot++) {
+            long bit = 1L << squares[slot];
+            if ((occupied & bit) != 0) {
+                return false;
+            }
+            occupied |= bit;
+            if (material.types[slot] == Board.PAWN && (squares[slot] < 8 || squares[slot] >= 56)) {
+                return false;
+            }
+        }
+        return material.index(squares, whiteToMove) == entry && !isAttacked(squares[whiteToMove ? 1 : 0], whiteToMove, occupied);
+    }
+
+    private boolean inCheck(boolean white) {
+        return isAttacked(squares[white ? 0 : 1], !white, occupancy());
+    }
+
+    // Чи б'ють фігури кольору byWhite клітинку square (взяті фігури мають клітинку -1)
+    private boolean isAttacked(int square, boolean byWhite, long occupied) {
+        for (int slot = 0; slot < squares.length; slot++) {
+            if (material.white[slot] == byWhite && squares[slot] >= 0
+                    && (attacks(material.types[slot], byWhite, squares[slot], occupied) & (1L << square)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long attacks(int type, boolean white, int square, long occupied) {
+        return switch (type) {
+            case Board.PAWN -> AttackTables.pawnAttacks(white ? Color.WHITE : Color.BLACK, square);
+            case Board.KNIGHT -> AttackTables.knightAttacks(square);
+            case Board.BISHOP -> AttackTables.bishopAttacks(square, occupied);
+            case Board.ROOK -> AttackTables.rookAttacks(square, occupied);
+            case Board.QUEEN -> AttackTables.queenAttacks(square, occupied);
+            default -> AttackTables.kingAttacks(square);
+        };
+    }
+
+    private long occupancy() {
+        long occupied = 0;
+        for (int square : squares) {
+            if (square >= 0) {
+                occupied |= 1L << square;
+            }
+        }
+        return occupied;
+    }
+
+    private void push(int entry, int plies) {
+        int bucket = Math.min(plies, MAX_PLIES + 1);
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new int[1024];
+        } else if (bucketSizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSizes[bucket] * 2);
+        }
+        buckets[bucket][bucketSizes[bucket]++] = entry;
+    }
+
+    // Байт таблиці для результату за plies півходів: непарні - виграш, парні - програш
+    private static int code(int plies) {
+        return (plies & 1) != 0 ? plies : plies + 2;
+    }
+
+    private static boolean contains(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void write(Path file, ChessTablebase.Material table, byte[] result) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ChessTablebase.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(ChessTablebase.MAGIC).putInt(ChessTablebase.VERSION).putInt(table.size).putInt(longestMate(result));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(header.array());
+            out.write(result);
+        }
+    }
+
+    private static int longestMate(byte[] result) {
+        int longest = 0;
+        for (byte value : result) {
+            int plies = value & 0xFF;
+            if ((plies & 1) != 0 && plies != INVALID) {
+                longest = Math.max(longest, plies);
+            }
+        }
+        return longest;
+    }
+
+    private static void report(String name, byte[] result, long millis) {
+        long wins = 0;
+        long losses = 0;
+        long draws = 0;
+        for (int entry = 0; entry < result.length; entry += 2) {
+            int value = result[entry] & 0xFF;
+            if (value == INVALID) {
+                continue;
+            }
+            if (value == 0) {
+                draws++;
+            } else if ((value & 1) != 0) {
+                wins++;
+            } else {
+                losses++;
+            }
+        }
+        int longest = longestMate(result);
+        System.out.printf("%-5s white to move: %9d wins %9d losses %9d draws, longest mate %d moves (%d ms)%n",
+                name, wins, losses, draws, (longest + 1) / 2, millis);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxPieces = args.length > 0 ? Integer.parseInt(args[0]) : ChessTablebase.MAX_PIECES;
+        if (maxPieces < 3 || maxPieces > ChessTablebase.MAX_PIECES) {
+            throw new IllegalArgumentException("Tablebases cover 3 to " + ChessTablebase.MAX_PIECES + " pieces");
+        }
+        Path directory = Path.of(args.length > 1 ? args[1] : ChessTablebase.DEFAULT_DIRECTORY);
+        List<String> requested = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : allMaterials(maxPieces);
+        new ChessTablebaseGenerator(directory).generate(requested);
+    }
+}
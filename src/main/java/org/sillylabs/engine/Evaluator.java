@@ -0,0 +1,52 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.PieceSquareTables;
+import org.sillylabs.pieces.Color;
+
+// Статична оцінка позиції: матеріал + таблиці "фігура-клітинка", звужені за фазою гри між
+// мітельшпілем і ендшпілем. Складові Board веде інкрементально, тож оцінка листа - кілька операцій;
+// повний перерахунок лишається для налагодження і перевірки (з -ea перевіряється в кожному виклику).
+public final class Evaluator {
+    // Вартість фігур у сантипішаках у порядку Board.PAWN..Board.KING - для впорядкування ходів і відсікань
+    public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    private Evaluator() {
+    }
+
+    // Оцінка з боку того, хто ходить
+    public static int evaluate(Board board, Color sideToMove) {
+        int score = taper(board.getMidgameScore(), board.getEndgameScore(), board.getPhase());
+        assert score == recompute(board) : "incremental evaluation " + score + " != full " + recompute(board);
+        return sideToMove == Color.WHITE ? score : -score;
+    }
+
+    // Та сама оцінка повним обходом фігур - для перевірки інкрементальних сум
+    public static int evaluateFull(Board board, Color sideToMove) {
+        int score = recompute(board);
+        return sideToMove == Color.WHITE ? score : -score;
+    }
+
+    private static int recompute(Board board) {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int index = 0; index < 2 * Board.BLACK_OFFSET; index++) {
+            long pieces = board.getPieces(index);
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                midgame += PieceSquareTables.midgame(index, square);
+                endgame += PieceSquareTables.endgame(index, square);
+                phase += PieceSquareTables.phase(index);
+                pieces &= pieces - 1;
+            }
+        }
+        return taper(midgame, endgame, phase);
+    }
+
+    // Повна фаза - чистий мітельшпіль, нульова - чистий ендшпіль
+    private static int taper(int midgame, int endgame, int phase) {
+        int weight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (midgame * weight + endgame * (PieceSquareTables.MAX_PHASE - weight)) / PieceSquareTables.MAX_PHASE;
+    }
+}
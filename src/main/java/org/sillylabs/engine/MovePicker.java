@@ -0,0 +1,206 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+
+// Поетапна видача ходів вузла: хід з таблиці транспозицій, вигідні взяття і перетворення за MVV-LVA,
+// ходи-вбивці, решта тихих ходів за таблицею історії і наприкінці програшні за SEE взяття
+// та слабкі перетворення. Генератор дає всі легальні ходи разом,
+// тож етапи стосуються сортування: кожен етап оцінює лише свою частину і вибирає найкращий хід
+// щоразу заново, бо після відсікання решту списку сортувати марно.
+// Один екземпляр на півхід пошуку - масиви виділяються один раз.
+final class MovePicker {
+    private static final int STAGE_HASH = 0;
+    private static final int STAGE_NOISY_INIT = 1;
+    private static final int STAGE_NOISY = 2;
+    private static final int STAGE_KILLERS = 3;
+    private static final int STAGE_QUIET_INIT = 4;
+    private static final int STAGE_QUIET = 5;
+    private static final int STAGE_BAD_NOISY = 6;
+    private static final int STAGE_DONE = 7;
+
+    // Від'ємні оцінки - програшні взяття і слабкі перетворення (не у ферзя): їх видаємо після тихих ходів
+    private static final int UNDERPROMOTION_SCORE = -10_000;
+    private static final int BAD_CAPTURE_SCORE = -20_000;
+
+    private final StaticExchange exchange;
+
+    private final int[] moves = new int[Move.MAX_MOVES];
+    private final int[] scores = new int[Move.MAX_MOVES];
+    private Board board;
+    private int count;
+    private int cursor;
+    private int badCursor;
+    private int noisyEnd;
+    private int stage;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private int killerIndex;
+    private int[] history;
+    private boolean noisyOnly;
+
+    MovePicker(StaticExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    // Генерує легальні ходи і повертає їх кількість; history - рядок таблиці історії для сторони на ході
+    int init(Board board, Color color, int hashMove, int killer1, int killer2, int[] history) {
+        this.board = board;
+        count = ChessMoveGenerator.generateLegal(board, color, moves);
+        this.hashMove = hashMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        this.history = history;
+        noisyOnly = false;
+        stage = STAGE_HASH;
+        return count;
+    }
+
+    // Для пошуку спокою: лише вигідні (за SEE) взяття і перетворення у ферзя, без ходу з таблиці і вбивць.
+    // Повертає кількість усіх легальних ходів, щоб вузол міг розпізнати мат і пат
+    int initNoisy(Board board, Color color) {
+        int legal = init(board, color, Move.NONE, Move.NONE, Move.NONE, null);
+        noisyOnly = true;
+        return legal;
+    }
+
+    // Наступний хід або Move.NONE, коли ходи скінчилися
+    int next() {
+        switch (stage) {
+            case STAGE_HASH:
+                stage = STAGE_NOISY_INIT;
+                if (hashMove != Move.NONE && contains(0, count, hashMove)) {
+                    return hashMove;
+                }
+                // fall through
+            case STAGE_NOISY_INIT:
+                scoreNoisy();
+                cursor = 0;
+                stage = STAGE_NOISY;
+                // fall through
+            case STAGE_NOISY:
+                while (cursor < noisyEnd) {
+                    int move = pickBest(cursor, noisyEnd);
+                    if (scores[cursor] < 0) {
+                        break;
+                    }
+                    cursor++;
+                    if (move != hashMove) {
+                        return move;
+                    }
+                }
+                // Курсор лишається на першому програшному ході - до нього повернемося наприкінці;
+                // пошук спокою програшні взяття відкидає (відсікання за SEE)
+                badCursor = cursor;
+                if (noisyOnly) {
+                    stage = STAGE_DONE;
+                    return Move.NONE;
+                }
+                killerIndex = 0;
+                stage = STAGE_KILLERS;
+                // fall through
+            case STAGE_KILLERS:
+                while (killerIndex < 2) {
+                    int killer = killerIndex++ == 0 ? killer1 : killer2;
+                    if (killer != Move.NONE && killer != hashMove && contains(noisyEnd, count, killer)) {
+                        return killer;
+                    }
+                }
+                stage = STAGE_QUIET_INIT;
+                // fall through
+            case STAGE_QUIET_INIT:
+                scoreQuiet();
+                cursor = noisyEnd;
+                stage = STAGE_QUIET;
+                // fall through
+            case STAGE_QUIET:
+                while (cursor < count) {
+                    int move = pickBest(cursor++, count);
+                    if (move != hashMove && move != killer1 && move != killer2) {
+                        return move;
+                    }
+                }
+                stage = STAGE_BAD_NOISY;
+                // fall through
+            case STAGE_BAD_NOISY:
+                while (badCursor < noisyEnd) {
+                    int move = pickBest(badCursor++, noisyEnd);
+                    if (move != hashMove) {
+                        return move;
+                    }
+                }
+                stage = STAGE_DONE;
+                // fall through
+            default:
+                return Move.NONE;
+        }
+    }
+
+    static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && Move.promotion(move) == 0;
+    }
+
+    // Взяття і перетворення - на початок списку з оцінкою MVV-LVA: найцінніша жертва, найдешевший нападник
+    private void scoreNoisy() {
+        noisyEnd = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (isQuiet(move)) {
+                continue;
+            }
+            int score = 0;
+            if (Move.isCapture(move)) {
+                int victim = Move.isEnPassant(move) ? Board.PAWN : board.getPieceIndex(Move.to(move)) % Board.BLACK_OFFSET;
+                int attacker = board.getPieceIndex(Move.from(move)) % Board.BLACK_OFFSET;
+                score = Evaluator.PIECE_VALUES[victim] * 8 - attacker;
+                // SEE рахуємо лише тоді, коли дешевша жертва може не окупити нападника
+                if (StaticExchange.value(attacker) > StaticExchange.value(victim) && exchange.evaluate(board, move) < 0) {
+                    score += BAD_CAPTURE_SCORE;
+                }
+            }
+            int promotion = Move.promotion(move);
+            if (promotion != 0) {
+                score += promotion == Board.QUEEN ? Evaluator.PIECE_VALUES[Board.QUEEN] * 8 : UNDERPROMOTION_SCORE;
+            }
+            moves[i] = moves[noisyEnd];
+            moves[noisyEnd] = move;
+            scores[noisyEnd++] = score;
+        }
+    }
+
+    private void scoreQuiet() {
+        for (int i = noisyEnd; i < count; i++) {
+            int move = moves[i];
+            scores[i] = history[Move.from(move) * 64 + Move.to(move)];
+        }
+    }
+
+    // Вибір найкращого в [from, to) з обміном на позицію from
+    private int pickBest(int from, int to) {
+        int best = from;
+        for (int i = from + 1; i < to; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[from];
+        moves[from] = move;
+        int score = scores[best];
+        scores[best] = scores[from];
+        scores[from] = score;
+        return move;
+    }
+
+    private boolean contains(int from, int to, int move) {
+        for (int i = from; i < to; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,158 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lazy SMP: головний пошук іде в потоці виклику з межами партії, помічники - без меж на власних копіях дошки.
+// Усіх об'єднує лише спільна таблиця транспозицій: помічники заповнюють її, і головний потік частіше
+// отримує відсікання з таблиці. Коли головний пошук завершується, помічників зупиняємо і беремо
+// найглибшу завершену ітерацію.
+public final class ParallelSearch implements AutoCloseable {
+    private static final SearchLimits UNLIMITED = new SearchLimits(0, 0, 0);
+
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+    private final Board[] helperBoards;
+    private final ExecutorService pool;
+    // Номери пошуків: номер бере потік, що запускає пошук (nextGeneration), а stop() зупиняє всі пошуки
+    // з номером до останнього виданого. Так stop() одразу після запуску не губиться, навіть якщо
+    // потік пошуку ще не дійшов до скидання прапорців
+    private final AtomicLong generations = new AtomicLong();
+    private volatile long stoppedGeneration;
+
+    public ParallelSearch(TranspositionTable table, int threads) {
+        this.table = table;
+        main = new Search(table);
+        int helperCount = Math.max(1, threads) - 1;
+        helpers = new Search[helperCount];
+        helperBoards = new Board[helperCount];
+        for (int i = 0; i < helperCount; i++) {
+            helpers[i] = new Search(table);
+            helperBoards[i] = new Board();
+        }
+        pool = helperCount == 0 ? null : Executors.newFixedThreadPool(helperCount, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Розумна кількість потоків за замовчуванням - по одному на ядро
+    public static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // Таблиці ендшпілів для всіх потоків; null вимикає
+    public void setTablebase(ChessTablebase tablebase) {
+        main.setTablebase(tablebase);
+        for (Search helper : helpers) {
+            helper.setTablebase(tablebase);
+        }
+    }
+
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+    public SearchResult search(Board board, Color sideToMove, SearchLimits limits) {
+        return search(board, sideToMove, limits, new long[0], 0);
+    }
+
+    public SearchResult search(Board board, Color sideToMove, SearchLimits limits, long[] history, int historySize) {
+        return search(board, sideToMove, limits, history, historySize, nextGeneration());
+    }
+
+    // Номер для пошуку, що запуститься в іншому потоці; stop() після цього виклику зупинить і його
+    public long nextGeneration() {
+        return generations.incrementAndGet();
+    }
+
+    // generation - номер з nextGeneration(), узятий до старту потоку пошуку
+    public SearchResult search(Board board, Color sideToMove, SearchLimits limits, long[] history, int historySize,
+                               long generation) {
+        long start = System.nanoTime();
+        table.newSearch();
+        main.reset();
+        // Копії дошки робимо до старту головного пошуку, поки board ще не змінюється
+        Future<?>[] futures = new Future<?>[helpers.length];
+        SearchResult[] helperResults = new SearchResult[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            helperBoards[i].copyFrom(board);
+            helpers[i].reset();
+        }
+        // stop(), що прийшов раніше за reset(), скинуто разом з прапорцями - відновлюємо його за номером
+        if (generation <= stoppedGeneration) {
+            stopSearches();
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            int index = i;
+            // Кожен другий помічник починає на півхід глибше
+            int startDepth = 1 + (i + 1) % 2;
+            futures[i] = pool.submit(() -> {
+                helperResults[index] = helpers[index].run(helperBoards[index], sideToMove, UNLIMITED, history, historySize, startDepth);
+            });
+        }
+
+        SearchResult best = main.run(board, sideToMove, limits, history, historySize, 1);
+        long nodes = best.getNodes();
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < helpers.length; i++) {
+            await(futures[i]);
+            SearchResult result = helperResults[i];
+            if (result == null) {
+                continue;
+            }
+            nodes += result.getNodes();
+            // При рівній глибині довіряємо головному потоку: він шукав з повним вікном від глибини 1
+            if (result.getDepth() > best.getDepth() && result.getBestMove() != Move.NONE) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Зупиняє з іншого потоку поточний пошук і ті, чий номер уже видано
+    public void stop() {
+        stoppedGeneration = generations.get();
+        stopSearches();
+    }
+
+    private void stopSearches() {
+        main.stop();
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Fen;
+import org.sillylabs.GameMode;
+import org.sillylabs.Move;
+import org.sillylabs.MoveList;
+import org.sillylabs.pieces.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+// Дебютна книга у форматі Polyglot (.bin), відображена в пам'ять лише для читання.
+// Файл - відсортовані за ключем записи по 16 байтів (big-endian): ключ позиції, хід, вага, "learn".
+// Ключ Polyglot - власний Zobrist зі стандартної таблиці PolyglotRandom (фігури, рокіровки, взяття
+// на проході, черга), тож підходить будь-яка книга, зібрана polyglot чи сумісними програмами.
+public final class PolyglotBook {
+    public static final String DEFAULT_FILE = "book.bin";
+    static final int ENTRY_BYTES = 16;
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final Random random = new Random();
+    private final Board board = new Board();
+    private final int[] legalMoves = new int[Move.MAX_MOVES];
+
+    private PolyglotBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.entryCount = entries.capacity() / ENTRY_BYTES;
+    }
+
+    public static PolyglotBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_BYTES != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot book: " + file);
+            }
+            ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.BIG_ENDIAN);
+            return new PolyglotBook(entries);
+        }
+    }
+
+    // Книга з файлу за замовчуванням (властивість -Dpolyglot.book або book.bin у робочому каталозі);
+    // без файлу - null, і бот одразу питає рушій
+    public static PolyglotBook openDefault() {
+        Path file = Path.of(System.getProperty("polyglot.book", DEFAULT_FILE));
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Failed to open opening book: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    // Хід з книги після ходів партії від початкової позиції (як у GameCoordinator.getMoveList),
+    // випадковий пропорційно вазі; Move.NONE, якщо позиції в книзі немає
+    public synchronized int getMove(MoveList moves) {
+        board.setupBoard(GameMode.CHESS);
+        Color sideToMove = Color.WHITE;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            sideToMove = sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+        }
+        return getMove(board, sideToMove);
+    }
+
+    public synchronized int getMove(Board position, Color sideToMove) {
+        long key = key(position, sideToMove);
+        int first = lowerBound(key);
+        long totalWeight = 0;
+        for (int i = first; i < entryCount && entries.getLong(i * ENTRY_BYTES) == key; i++) {
+            totalWeight += entries.getShort(i * ENTRY_BYTES + 10) & 0xFFFF;
+        }
+        if (totalWeight == 0) {
+            return Move.NONE;
+        }
+        long pick = (long) (random.nextDouble() * totalWeight);
+        for (int i = first; ; i++) {
+            int weight = entries.getShort(i * ENTRY_BYTES + 10) & 0xFFFF;
+            if (pick < weight) {
+                return toMove(position, sideToMove, entries.getShort(i * ENTRY_BYTES + 8) & 0xFFFF);
+            }
+            pick -= weight;
+        }
+    }
+
+    // Ключ Polyglot: у його нумерації клітинка - горизонталь * 8 + вертикаль від a1,
+    // вид фігури - 2 * тип + 1 для білих (Board.PAWN..KING збігаються з порядком Polyglot)
+    static long key(Board position, Color sideToMove) {
+        long[] randoms = PolyglotRandom.VALUES;
+        long key = 0;
+        for (long pieces = position.getOccupied(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            int code = position.getPieceIndex(square);
+            int kind = 2 * (code % Board.BLACK_OFFSET) + (code < Board.BLACK_OFFSET ? 1 : 0);
+            key ^= randoms[64 * kind + polyglotSquare(square)];
+        }
+        int castling = position.getCastlingRights();
+        int[] rights = {Board.WHITE_KINGSIDE, Board.WHITE_QUEENSIDE, Board.BLACK_KINGSIDE, Board.BLACK_QUEENSIDE};
+        for (int i = 0; i < rights.length; i++) {
+            if ((castling & rights[i]) != 0) {
+                key ^= randoms[PolyglotRandom.CASTLING_OFFSET + i];
+            }
+        }
+        // Взяття на проході входить у ключ, лише коли пішак сторони на ході справді може бити
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant != -1) {
+            Color opponent = sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+            if ((AttackTables.pawnAttacks(opponent, enPassant) & position.getPieces(sideToMove, Board.PAWN)) != 0) {
+                key ^= randoms[PolyglotRandom.EN_PASSANT_OFFSET + enPassant % 8];
+            }
+        }
+        if (sideToMove == Color.WHITE) {
+            key ^= randoms[PolyglotRandom.TURN_OFFSET];
+        }
+        return key;
+    }
+
+    // Хід Polyglot у легальний хід дошки: рокіровка записана як хід короля на свою туру
+    private int toMove(Board position, Color sideToMove, int bookMove) {
+        int to = boardSquare(bookMove & 0x3F);
+        int from = boardSquare((bookMove >>> 6) & 0x3F);
+        int promotion = (bookMove >>> 12) & 0x7;
+        int king = sideToMove == Color.WHITE ? Board.KING : Board.KING + Board.BLACK_OFFSET;
+        int rook = sideToMove == Color.WHITE ? Board.ROOK : Board.ROOK + Board.BLACK_OFFSET;
+        if (position.getPieceIndex(from) == king && position.getPieceIndex(to) == rook) {
+            to = from + (to > from ? 2 : -2);
+        }
+        int count = ChessMoveGenerator.generateLegal(position, sideToMove, legalMoves);
+        for (int i = 0; i < count; i++) {
+            int move = legalMoves[i];
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotion(move) == promotion) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    // Перший запис з ключем не меншим за key (ключі порівнюються як беззнакові)
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(middle * ENTRY_BYTES), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int polyglotSquare(int square) {
+        return (7 - square / 8) * 8 + square % 8;
+    }
+
+    private static int boardSquare(int polyglotSquare) {
+        return polyglotSquare(polyglotSquare);
+    }
+
+    // Консольний запуск: PolyglotBook <book.bin> [FEN]; друкує хід з книги для позиції
+    public static void main(String[] args) throws IOException {
+        PolyglotBook book = open(Path.of(args.length > 0 ? args[0] : DEFAULT_FILE));
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : Fen.START_POSITION;
+        Board position = new Board();
+        Color sideToMove = Fen.load(position, fen);
+        int move = book.getMove(position, sideToMove);
+        System.out.println(book.getEntryCount() + " entries, key " + Long.toHexString(key(position, sideToMove))
+                + ", book move " + (move == Move.NONE ? "none" : Move.toUci(move)));
+    }
+}
@@ -0,0 +1,457 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+
+// Пошук negamax з альфа-бета відсіканням та ітеративним поглибленням.
+// Працює прямо на Board через makeMove/unmakeMove; один екземпляр - один потік
+// (кілька потоків - ParallelSearch, кожен зі своїми Board і Search над спільною таблицею).
+public final class Search {
+    public static final int INFINITY = 32_767;
+    public static final int MATE = 32_000;
+    // Оцінки, ближчі до MATE, ніж MAX_PLY, означають мат за відому кількість півходів
+    public static final int MATE_BOUND = MATE - SearchLimits.MAX_DEPTH * 2;
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH * 2;
+    // Як часто (у вузлах) перевіряти час і зупинку
+    private static final int CHECK_INTERVAL = 2048;
+    public static final int DEFAULT_HASH_MB = 16;
+    // Частка м'якого бюджету (у відсотках), після якої не починаємо нову ітерацію, залежно від того,
+    // скільки ітерацій поспіль найкращий хід не змінювався: нестабільний хід отримує більше часу.
+    // Менше 100%, бо наступна ітерація зазвичай довша за всі попередні разом
+    private static final int[] STABILITY_SCALE = {70, 50, 38, 28, 22};
+
+    private static final int HISTORY_MAX = 16_384;
+    // Запас дельта-відсікання: взяття, яке навіть з цим запасом не піднімає alpha, не розглядаємо
+    private static final int DELTA_MARGIN = 200;
+
+    // Впорядкування: свій MovePicker на кожен півхід, два ходи-вбивці на півхід (тихі ходи,
+    // що дали відсікання в сусідніх вузлах) і таблиця історії "butterfly" [колір][from * 64 + to]
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] butterfly = new int[2][64 * 64];
+    private final int[][] quietsSearched = new int[MAX_PLY + 1][Move.MAX_MOVES];
+    private final StaticExchange exchange = new StaticExchange();
+    // Ключі позицій від початку партії до поточного вузла - для нічиєї повторенням
+    private long[] keys = new long[1024];
+    private int keyCount;
+
+    private final TranspositionTable table;
+    private ChessTablebase tablebase;
+    // Робочі масиви запиту до таблиць - свої в кожного потоку пошуку
+    private final ChessTablebase.Lookup tablebaseLookup = new ChessTablebase.Lookup();
+    private Board board;
+    private long nodes;
+    private long tablebaseHits;
+    // Відсікання у вузлах negamax і скільки з них дав перший же хід - мірило якості впорядкування
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long maxNodes;
+    private long deadline;
+    private volatile boolean stopped;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_HASH_MB));
+    }
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            pickers[ply] = new MovePicker(exchange);
+        }
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // Таблиці ендшпілів для вузлів з малою кількістю фігур; null вимикає
+    public void setTablebase(ChessTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    // Позиція без історії: повторення рахуються лише в межах дерева пошуку
+    public SearchResult search(Board board, Color sideToMove, SearchLimits limits) {
+        return search(board, sideToMove, limits, new long[0], 0);
+    }
+
+    // history - ключі Board.getZobristKey(Color) позицій партії до поточної (не включно)
+    public SearchResult search(Board board, Color sideToMove, SearchLimits limits, long[] history, int historySize) {
+        stopped = false;
+        table.newSearch();
+        return run(board, sideToMove, limits, history, historySize, 1);
+    }
+
+    // Скидає зупинку перед run(); ParallelSearch робить це до старту потоків, щоб ранній stop() не загубився
+    void reset() {
+        stopped = false;
+    }
+
+    // Ітеративне поглиблення від startDepth; помічники Lazy SMP стартують з різних глибин,
+    // щоб не йти по дереву в ногу з головним потоком
+    SearchResult run(Board board, Color sideToMove, SearchLimits limits, long[] history, int historySize, int startDepth) {
+        long start = System.nanoTime();
+        this.board = board;
+        nodes = 0;
+        tablebaseHits = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        // Вбивці прив'язані до дерева попереднього пошуку, а історію лише послаблюємо
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        for (int[] colorHistory : butterfly) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] /= 2;
+            }
+        }
+        maxNodes = limits.getNodes();
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        if (keys.length < historySize + MAX_PLY + 1) {
+            keys = new long[historySize + MAX_PLY + 1];
+        }
+        System.arraycopy(history, 0, keys, 0, historySize);
+        keyCount = historySize;
+
+        int[] rootMoves = new int[Move.MAX_MOVES];
+        int rootCount = ChessMoveGenerator.generateLegal(board, sideToMove, rootMoves);
+        if (rootCount == 0) {
+            int score = isInCheck(sideToMove) ? -MATE : 0;
+            return new SearchResult(Move.NONE, score, 0, 0, elapsedMillis(start));
+        }
+        orderCaptures(rootMoves, rootCount);
+
+        int bestMove = rootMoves[0];
+        int bestScore = -INFINITY;
+        int completedDepth = 0;
+        int stableIterations = 0;
+        long softTime = limits.getSoftTimeMillis();
+        keys[keyCount++] = board.getZobristKey(sideToMove);
+        for (int depth = Math.min(startDepth, limits.getDepth()); depth <= limits.getDepth(); depth++) {
+            int iterationBest = Move.NONE;
+            int iterationScore = -INFINITY;
+            int alpha = -INFINITY;
+            Color opponent = opposite(sideToMove);
+            for (int i = 0; i < rootCount; i++) {
+                int move = rootMoves[i];
+                board.makeMove(move);
+                int score = -negamax(depth - 1, -INFINITY, -alpha, opponent, 1);
+                board.unmakeMove(move);
+                if (stopped) {
+                    break;
+                }
+                if (score > iterationScore) {
+                    iterationScore = score;
+                    iterationBest = move;
+                    if (score > alpha) {
+                        alpha = score;
+                    }
+                }
+            }
+            // Перервана ітерація теж годиться: кожен хід, що підняв alpha, досліджено повністю,
+            // а першим стоїть найкращий хід попередньої ітерації
+            if (iterationBest != Move.NONE) {
+                stableIterations = iterationBest == bestMove ? stableIterations + 1 : 0;
+                bestMove = iterationBest;
+                bestScore = iterationScore;
+                if (!stopped) {
+                    completedDepth = depth;
+                }
+                moveToFront(rootMoves, rootCount, bestMove);
+            }
+            if (stopped || Math.abs(bestScore) >= MATE_BOUND) {
+                break;
+            }
+            if (softTime > 0 && elapsedMillis(start) * 100
+                    >= softTime * STABILITY_SCALE[Math.min(stableIterations, STABILITY_SCALE.length - 1)]) {
+                break;
+            }
+        }
+        keyCount--;
+        return new SearchResult(bestMove, bestScore == -INFINITY ? 0 : bestScore, completedDepth, nodes, elapsedMillis(start));
+    }
+
+    // Зупиняє пошук з іншого потоку; результат - остання завершена ітерація
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    private int negamax(int depth, int alpha, int beta, Color color, int ply) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        long key = board.getZobristKey(color);
+        if (isDraw(key)) {
+            return 0;
+        }
+        // У корені таблиці не питаємо: там потрібен хід, а не лише оцінка
+        if (tablebase != null && ply > 0 && Long.bitCount(board.getOccupied()) <= tablebase.getMaxPieces()) {
+            int score = tablebase.probe(board, color, tablebaseLookup);
+            if (score != ChessTablebase.UNKNOWN) {
+                tablebaseHits++;
+                return score > 0 ? score - ply : score < 0 ? score + ply : 0;
+            }
+        }
+        boolean inCheck = isInCheck(color);
+        // Під шахом дивимося на півхід глибше, щоб не оцінювати позицію посеред матової атаки
+        if (inCheck && ply < MAX_PLY) {
+            depth++;
+        }
+        if (ply >= MAX_PLY) {
+            return Evaluator.evaluate(board, color);
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, color, ply);
+        }
+
+        // Запис з достатньою глибиною одразу дає оцінку або межу; хід із запису пробуємо першим
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        int[] colorHistory = butterfly[Board.colorIndex(color)];
+        int[] plyKillers = killers[ply];
+        if (picker.init(board, color, hashMove, plyKillers[0], plyKillers[1], colorHistory) == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        keys[keyCount++] = key;
+        Color opponent = opposite(color);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        int[] quiets = quietsSearched[ply];
+        int quietCount = 0;
+        int searched = 0;
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            board.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, opponent, ply + 1);
+            board.unmakeMove(move);
+            if (stopped) {
+                break;
+            }
+            boolean quiet = MovePicker.isQuiet(move);
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (searched == 0) {
+                            firstMoveCutoffs++;
+                        }
+                        if (quiet) {
+                            updateQuietStats(plyKillers, colorHistory, move, quiets, quietCount, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+            if (quiet) {
+                quiets[quietCount++] = move;
+            }
+            searched++;
+        }
+        keyCount--;
+
+        if (!stopped) {
+            // Без ходу, що підняв alpha, маємо лише верхню межу, і найкращий хід невідомий
+            int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                    : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+            table.store(key, bestMove, scoreToTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    // Пошук спокою: на листі дограємо взяття, щоб не оцінювати позицію посеред розміну.
+    // Без шаху сторона може "стояти" зі статичною оцінкою (stand pat); під шахом розглядаємо всі відповіді
+    private int quiescence(int alpha, int beta, Color color, int ply) {
+        if ((++nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return Evaluator.evaluate(board, color);
+        }
+
+        boolean inCheck = isInCheck(color);
+        int best = -INFINITY;
+        int standPat = 0;
+        if (!inCheck) {
+            standPat = Evaluator.evaluate(board, color);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            best = standPat;
+        }
+
+        MovePicker picker = pickers[ply];
+        int legal = inCheck
+                ? picker.init(board, color, Move.NONE, Move.NONE, Move.NONE, butterfly[Board.colorIndex(color)])
+                : picker.initNoisy(board, color);
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        Color opponent = opposite(color);
+        for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+            // Дельта-відсікання: навіть із запасом узята фігура не дотягує до alpha
+            if (!inCheck && Move.promotion(move) == 0
+                    && standPat + Evaluator.PIECE_VALUES[capturedType(move)] + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+            board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, opponent, ply + 1);
+            board.unmakeMove(move);
+            if (stopped) {
+                break;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int capturedType(int move) {
+        return Move.isEnPassant(move) ? Board.PAWN : board.getPieceIndex(Move.to(move)) % Board.BLACK_OFFSET;
+    }
+
+    // Тихий хід дав відсікання: він стає першим вбивцею півходу, отримує бонус в історії,
+    // а тихі ходи, переглянуті перед ним, - штраф
+    private static void updateQuietStats(int[] plyKillers, int[] colorHistory, int move, int[] quiets, int quietCount, int depth) {
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int bonus = Math.min(depth * depth, 400);
+        updateHistory(colorHistory, move, bonus);
+        for (int i = 0; i < quietCount; i++) {
+            updateHistory(colorHistory, quiets[i], -bonus);
+        }
+    }
+
+    // Зміна з насиченням: що ближче значення до HISTORY_MAX, то менше воно росте
+    private static void updateHistory(int[] colorHistory, int move, int bonus) {
+        int index = Move.from(move) * 64 + Move.to(move);
+        colorHistory[index] += bonus - colorHistory[index] * Math.abs(bonus) / HISTORY_MAX;
+    }
+
+    // Оцінки мату в таблиці рахуються від поточного вузла, а не від кореня
+    static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score + ply;
+        }
+        return score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) {
+            return score - ply;
+        }
+        return score <= -MATE_BOUND ? score + ply : score;
+    }
+
+    // Правило 50 ходів або повторення позиції з тим самим гравцем на ході після останнього незворотного ходу
+    private boolean isDraw(long key) {
+        int halfmoveClock = board.getHalfmoveClock();
+        if (halfmoveClock >= 100) {
+            return true;
+        }
+        int oldest = Math.max(0, keyCount - halfmoveClock);
+        for (int i = keyCount - 2; i >= oldest; i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkLimits() {
+        if ((maxNodes > 0 && nodes >= maxNodes) || System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+    }
+
+    private boolean isInCheck(Color color) {
+        int kingSquare = board.getKingSquare(color);
+        return kingSquare != -1 && AttackTables.isSquareAttacked(board, kingSquare, opposite(color));
+    }
+
+    // Взяття і перетворення - на початок списку, щоб раніше знаходити відсікання
+    private static void orderCaptures(int[] moves, int count) {
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Move.isCapture(move) || Move.promotion(move) != 0) {
+                moves[i] = moves[next];
+                moves[next++] = move;
+            }
+        }
+    }
+
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    private static Color opposite(Color color) {
+        return color == Color.WHITE ? Color.BLACK : Color.WHITE;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,63 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.Fen;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+
+// Набір позицій для оцінки впорядкування ходів: пошук до фіксованої глибини в одному потоці,
+// друкує вузли, час і частку відсікань першим ходом (чим ближче до 100%, тим краще впорядкування).
+// Використання: SearchBench [depth] [hashMB]; за замовчуванням глибина 7, 16 МБ
+public final class SearchBench {
+    private static final String[][] POSITIONS = {
+            {"startpos", Fen.START_POSITION},
+            {"kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"},
+            {"italian", "r1bqk1nr/pppp1ppp/2n5/2b1p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4"},
+            {"qgd", "r2q1rk1/pp2bppp/2n1pn2/3p4/3P4/2NBPN2/PP3PPP/R2Q1RK1 w - - 0 10"},
+            {"sicilian", "r1b1kb1r/1pqp1ppp/p1n1pn2/8/3NP3/2N1B3/PPP1BPPP/R2QK2R w KQkq - 2 8"},
+            {"middlegame", "2r2rk1/pp1bqppp/2n1pn2/3p4/3P4/P1NBPN2/1P3PPP/2RQ1RK1 w - - 3 14"},
+            {"endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"},
+            {"position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"},
+    };
+
+    private SearchBench() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        int hashMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : Search.DEFAULT_HASH_MB;
+        TranspositionTable table = new TranspositionTable(hashMegabytes);
+        Search search = new Search(table);
+        Board board = new Board();
+
+        long totalNodes = 0;
+        long totalNanos = 0;
+        long totalCutoffs = 0;
+        long totalFirstMoveCutoffs = 0;
+        System.out.printf("%-11s %12s %9s %10s %8s  %s%n", "position", "nodes", "time ms", "cutoffs", "first %", "best");
+        for (String[] position : POSITIONS) {
+            table.clear();
+            Color sideToMove = Fen.load(board, position[1]);
+            long start = System.nanoTime();
+            SearchResult result = search.search(board, sideToMove, SearchLimits.depth(depth));
+            long nanos = System.nanoTime() - start;
+            totalNodes += result.getNodes();
+            totalNanos += nanos;
+            totalCutoffs += search.getCutoffs();
+            totalFirstMoveCutoffs += search.getFirstMoveCutoffs();
+            System.out.printf("%-11s %12d %9d %10d %8.1f  %s%n", position[0], result.getNodes(), nanos / 1_000_000,
+                    search.getCutoffs(), percent(search.getFirstMoveCutoffs(), search.getCutoffs()),
+                    Move.toUci(result.getBestMove()));
+        }
+        System.out.println();
+        System.out.println("Depth: " + depth);
+        System.out.println("Nodes: " + totalNodes);
+        System.out.println("Time: " + totalNanos / 1_000_000 + " ms");
+        System.out.println("NPS: " + (totalNanos == 0 ? 0 : totalNodes * 1_000_000_000L / totalNanos));
+        System.out.printf("First-move cutoffs: %.1f%% of %d%n", percent(totalFirstMoveCutoffs, totalCutoffs), totalCutoffs);
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0.0 : 100.0 * part / total;
+    }
+}
@@ -0,0 +1,52 @@
+package org.sillylabs.engine;
+
+// Межі пошуку: глибина, кількість вузлів і час; 0 означає "без обмеження".
+// timeMillis - жорстка межа (пошук переривається), softTimeMillis - м'яка: нову ітерацію не починаємо,
+// а при стабільному найкращому ході зупиняємось ще раніше (див. TimeManager)
+public final class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+    private final long softTimeMillis;
+
+    public SearchLimits(int depth, long nodes, long timeMillis) {
+        this(depth, nodes, timeMillis, 0);
+    }
+
+    public SearchLimits(int depth, long nodes, long timeMillis, long softTimeMillis) {
+        this.depth = depth <= 0 ? MAX_DEPTH : Math.min(depth, MAX_DEPTH);
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.softTimeMillis = softTimeMillis;
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, nodes, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, 0, timeMillis);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getSoftTimeMillis() {
+        return softTimeMillis;
+    }
+}
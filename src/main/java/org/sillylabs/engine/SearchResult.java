@@ -0,0 +1,47 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Move;
+
+// Підсумок останньої завершеної ітерації пошуку
+public final class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long timeMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    // Оцінка в сантипішаках з боку того, хто ходить; мат - близько до ±Search.MATE
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " time " + timeMillis
+                + " bestmove " + (bestMove == Move.NONE ? "(none)" : Move.toUci(bestMove));
+    }
+}
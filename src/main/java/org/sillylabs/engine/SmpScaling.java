@@ -0,0 +1,73 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.Fen;
+import org.sillylabs.pieces.Color;
+
+// Крива масштабування Lazy SMP: для 1, 2, 4, ... потоків шукає набір позицій до фіксованої глибини
+// і друкує сумарний час до глибини, прискорення, вузли, NPS та приріст NPS відносно одного потоку.
+// Використання: SmpScaling [maxThreads] [depth] [hashMB]; за замовчуванням - усі ядра, глибина 7, 64 МБ
+public final class SmpScaling {
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+            "r2q1rk1/pp2bppp/2n1pn2/3p4/3P4/2NBPN2/PP3PPP/R2Q1RK1 w - - 0 10",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+    };
+
+    private SmpScaling() {
+    }
+
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : ParallelSearch.defaultThreads();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        System.out.println("cores " + Runtime.getRuntime().availableProcessors() + ", depth " + depth
+                + ", hash " + hashMegabytes + " MB, " + POSITIONS.length + " positions");
+        System.out.printf("%7s %10s %8s %12s %10s %8s%n", "threads", "time ms", "speedup", "nodes", "nps", "nps x");
+
+        TranspositionTable table = new TranspositionTable(hashMegabytes);
+        Board board = new Board();
+        // Прогрів JIT, інакше рядок для одного потоку виглядає гіршим, ніж є
+        try (ParallelSearch warmup = new ParallelSearch(table, 1)) {
+            for (String fen : POSITIONS) {
+                table.clear();
+                Color sideToMove = Fen.load(board, fen);
+                warmup.search(board, sideToMove, SearchLimits.depth(Math.min(depth, 5)));
+            }
+        }
+        long baseNanos = 0;
+        long baseNps = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            long nodes = 0;
+            long nanos = 0;
+            try (ParallelSearch search = new ParallelSearch(table, threads)) {
+                for (String fen : POSITIONS) {
+                    // Кожна позиція - з порожньою таблицею, щоб потоки не користувалися чужою роботою
+                    table.clear();
+                    Color sideToMove = Fen.load(board, fen);
+                    long start = System.nanoTime();
+                    SearchResult result = search.search(board, sideToMove, SearchLimits.depth(depth));
+                    nanos += System.nanoTime() - start;
+                    nodes += result.getNodes();
+                }
+            }
+            long nps = nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+            if (threads == 1) {
+                baseNanos = nanos;
+                baseNps = nps;
+            }
+            System.out.printf("%7d %10d %8.2f %12d %10d %8.2f%n", threads, nanos / 1_000_000,
+                    (double) baseNanos / nanos, nodes, nps, baseNps == 0 ? 0.0 : (double) nps / baseNps);
+        }
+    }
+
+    // Степені двійки, а останнім - саме maxThreads, навіть якщо це не степінь двійки
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+}
@@ -0,0 +1,95 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+
+// Статична оцінка розміну (SEE) на клітинці ходу: сторони по черзі б'ють найдешевшою фігурою,
+// і кожна може зупинитися, коли продовження їй невигідне. Рентгенівські атаки (тура за турою,
+// слон за ферзем) відкриваються, коли фігура спереду йде з лінії.
+// Екземпляр тримає буфер розміну, тож один екземпляр - один потік.
+public final class StaticExchange {
+    // Король у розміні дорожчий за все, тож ним б'ють лише останнім
+    private static final int[] VALUES = {100, 320, 330, 500, 900, 20_000};
+    private static final int MAX_EXCHANGE = 32;
+
+    private final int[] gain = new int[MAX_EXCHANGE];
+
+    public static int value(int pieceType) {
+        return VALUES[pieceType];
+    }
+
+    // Матеріальний підсумок ходу для того, хто ходить, якщо обидві сторони розмінюються оптимально
+    public int evaluate(Board board, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moverIndex = board.getPieceIndex(from);
+        Color side = moverIndex >= Board.BLACK_OFFSET ? Color.BLACK : Color.WHITE;
+
+        long occupied = board.getOccupied() ^ (1L << from);
+        if (Move.isEnPassant(move)) {
+            gain[0] = VALUES[Board.PAWN];
+            occupied ^= 1L << (side == Color.WHITE ? to + 8 : to - 8);
+        } else {
+            int victim = board.getPieceIndex(to);
+            gain[0] = victim == Board.NO_PIECE ? 0 : VALUES[victim % Board.BLACK_OFFSET];
+        }
+        // Фігура, що стоїть на клітинці після ходу, - наступна жертва
+        int onSquare = VALUES[moverIndex % Board.BLACK_OFFSET];
+        int promotion = Move.promotion(move);
+        if (promotion != 0) {
+            gain[0] += VALUES[promotion] - VALUES[Board.PAWN];
+            onSquare = VALUES[promotion];
+        }
+
+        long diagonal = board.getPieces(Board.BISHOP) | board.getPieces(Board.BISHOP + Board.BLACK_OFFSET)
+                | board.getPieces(Board.QUEEN) | board.getPieces(Board.QUEEN + Board.BLACK_OFFSET);
+        long straight = board.getPieces(Board.ROOK) | board.getPieces(Board.ROOK + Board.BLACK_OFFSET)
+                | board.getPieces(Board.QUEEN) | board.getPieces(Board.QUEEN + Board.BLACK_OFFSET);
+        long attackers = AttackTables.attackersTo(board, to, occupied) & occupied;
+        side = opposite(side);
+
+        int depth = 0;
+        while (depth + 1 < MAX_EXCHANGE) {
+            long own = attackers & board.getOccupancy(side);
+            if (own == 0) {
+                break;
+            }
+            int type = Board.PAWN;
+            long candidates = 0;
+            for (; type <= Board.KING; type++) {
+                candidates = own & board.getPieces(side, type);
+                if (candidates != 0) {
+                    break;
+                }
+            }
+            // Король не може бити на захищену клітинку
+            if (type == Board.KING && (attackers & board.getOccupancy(opposite(side))) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = VALUES[type];
+            occupied ^= Long.lowestOneBit(candidates);
+            if (type == Board.PAWN || type == Board.BISHOP || type == Board.QUEEN) {
+                attackers |= AttackTables.bishopAttacks(to, occupied) & diagonal;
+            }
+            if (type == Board.ROOK || type == Board.QUEEN) {
+                attackers |= AttackTables.rookAttacks(to, occupied) & straight;
+            }
+            attackers &= occupied;
+            side = opposite(side);
+        }
+        // Згортаємо з кінця: кожна сторона вибирає між "бити далі" і "зупинитися"
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    private static Color opposite(Color color) {
+        return color == Color.WHITE ? Color.BLACK : Color.WHITE;
+    }
+}
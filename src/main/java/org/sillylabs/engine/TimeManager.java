@@ -0,0 +1,34 @@
+package org.sillylabs.engine;
+
+// Розподіл часу на хід за годинником партії (як wtime/btime/winc/binc в UCI).
+// М'який бюджет - звичайна частка залишку плюс більша частина додавання; жорсткий - запас для складних
+// позицій, але не більше третини залишку, щоб один хід не з'їв партію.
+public final class TimeManager {
+    // Скільки ходів ще чекаємо, якщо контроль не каже (раптова смерть)
+    public static final int DEFAULT_MOVES_TO_GO = 30;
+    // Запас на передачу ходу і затримки потоків
+    public static final long MOVE_OVERHEAD = 30;
+    private static final int HARD_TO_SOFT_RATIO = 4;
+
+    private TimeManager() {
+    }
+
+    public static SearchLimits limits(long remaining, long increment) {
+        return limits(remaining, increment, 0);
+    }
+
+    // movesToGo 0 - до кінця партії без нового контролю
+    public static SearchLimits limits(long remaining, long increment, int movesToGo) {
+        long available = Math.max(1, remaining - MOVE_OVERHEAD);
+        int moves = movesToGo > 0 ? Math.min(movesToGo, DEFAULT_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+        long soft = available / moves + increment * 3 / 4;
+        long hard = Math.min(soft * HARD_TO_SOFT_RATIO, available / 3 + increment);
+        // Останній хід перед контролем може взяти весь запас
+        if (movesToGo == 1) {
+            hard = available;
+        }
+        hard = Math.max(1, Math.min(hard, available));
+        soft = Math.max(1, Math.min(soft, hard));
+        return new SearchLimits(0, 0, hard, soft);
+    }
+}
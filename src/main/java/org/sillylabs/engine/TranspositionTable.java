@@ -0,0 +1,187 @@
+package org.sillylabs.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Таблиця транспозицій поза купою: прямі ByteBuffer-и, тож навіть кілька гігабайтів не навантажують GC.
+// Кошик - 64 байти (4 записи по 16 байтів: ключ + дані). Розмір кошиків - степінь двійки,
+// пам'ять ділиться на шматки до 1 ГБ, бо один ByteBuffer не може бути більшим за 2 ГБ.
+// Таблицю ділять потоки Lazy SMP без блокувань: у запис кладеться key ^ data, тож "розірваний"
+// запис від двох одночасних store просто не збігається з ключем. Лічильники - LongAdder: потоки додають
+// у різні комірки, тож не змагаються за одну змінну і не гублять приростів.
+public final class TranspositionTable {
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * ENTRIES_PER_BUCKET;
+    private static final int CHUNK_SHIFT = 30;
+    private static final int BUCKETS_PER_CHUNK_SHIFT = CHUNK_SHIFT - 6;
+    private static final int AGE_MASK = 0x3F;
+
+    private final ByteBuffer[] chunks;
+    private final long bucketMask;
+    private int age;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    public TranspositionTable(int megabytes) {
+        long bytes = Math.max(1, megabytes) * (1L << 20);
+        long buckets = Long.highestOneBit(bytes / BUCKET_BYTES);
+        bucketMask = buckets - 1;
+        long totalBytes = buckets * BUCKET_BYTES;
+        int chunkCount = (int) ((totalBytes + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+        chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int size = (int) Math.min(1L << CHUNK_SHIFT, totalBytes - ((long) i << CHUNK_SHIFT));
+            chunks[i] = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    // Дані запису за ключем або 0, якщо запису немає
+    public long probe(long key) {
+        ByteBuffer chunk = chunk(key);
+        int offset = bucketOffset(key);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++, offset += ENTRY_BYTES) {
+            long data = chunk.getLong(offset + 8);
+            if (data != 0 && (chunk.getLong(offset) ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return 0;
+    }
+
+    // Заміна в кошику: той самий ключ, інакше порожній запис, інакше найменш цінний -
+    // записи старих пошуків дешевші за свіжі, а серед однолітків дешевший менш глибокий
+    public void store(long key, int move, int score, int depth, int bound) {
+        ByteBuffer chunk = chunk(key);
+        int base = bucketOffset(key);
+        int target = base;
+        int worstValue = Integer.MAX_VALUE;
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long entryData = chunk.getLong(offset + 8);
+            long entryKey = chunk.getLong(offset) ^ entryData;
+            if (entryKey == key || entryData == 0) {
+                target = offset;
+                // Нове значення без ходу не затирає вже відомий найкращий хід цієї позиції
+                if (entryKey == key && move == 0) {
+                    move = move(entryData);
+                }
+                worstValue = Integer.MIN_VALUE;
+                break;
+            }
+            int value = depth(entryData) - 8 * ((age - age(entryData)) & AGE_MASK);
+            if (value < worstValue) {
+                worstValue = value;
+                target = offset;
+            }
+        }
+        if (worstValue != Integer.MIN_VALUE) {
+            overwrites.increment();
+        }
+        stores.increment();
+        long data = pack(move, score, depth, bound, age);
+        chunk.putLong(target, key ^ data);
+        chunk.putLong(target + 8, data);
+    }
+
+    // Новий пошук: записи попередніх стають старшими і першими йдуть на заміну
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        for (ByteBuffer chunk : chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += 8) {
+                chunk.putLong(offset, 0L);
+            }
+        }
+        age = 0;
+        resetCounters();
+    }
+
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+        stores.reset();
+        overwrites.reset();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    // Скільки разів новий запис витіснив дійсний запис іншої позиції
+    public long getOverwrites() {
+        return overwrites.sum();
+    }
+
+    // Заповненість у проміле за першими 1000 записами поточного пошуку, як "hashfull" в UCI
+    public int getHashfull() {
+        int used = 0;
+        ByteBuffer chunk = chunks[0];
+        int entries = Math.min(1000, chunk.capacity() / ENTRY_BYTES);
+        for (int i = 0; i < entries; i++) {
+            long data = chunk.getLong(i * ENTRY_BYTES + 8);
+            if (data != 0 && age(data) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / entries;
+    }
+
+    public long getCapacityBytes() {
+        return (bucketMask + 1) * BUCKET_BYTES;
+    }
+
+    private ByteBuffer chunk(long key) {
+        return chunks[(int) ((key & bucketMask) >>> BUCKETS_PER_CHUNK_SHIFT)];
+    }
+
+    private int bucketOffset(long key) {
+        return (int) (key & bucketMask & ((1L << BUCKETS_PER_CHUNK_SHIFT) - 1)) * BUCKET_BYTES;
+    }
+
+    // Біти даних: 0-31 хід, 32-47 оцінка, 48-55 глибина, 56-57 тип межі, 58-63 вік
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFFFFFL) | ((long) (score & 0xFFFF) << 32) | ((long) (depth & 0xFF) << 48)
+                | ((long) bound << 56) | ((long) age << 58);
+    }
+
+    public static int move(long data) {
+        return (int) data;
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 32);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 56) & 0x3;
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 58) & AGE_MASK;
+    }
+}
@@ -0,0 +1,235 @@
+package org.sillylabs.engine;
+
+import org.sillylabs.Board;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Fen;
+import org.sillylabs.Move;
+import org.sillylabs.MoveList;
+import org.sillylabs.pieces.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+// Вбудований рушій як UCI-програма на stdin/stdout: його можна підключити до будь-якої оболонки
+// чи запустити в UciEnginePool замість Stockfish. Підтримуються uci, isready, ucinewgame,
+// setoption (Hash, Threads), position startpos|fen ... [moves ...], go (movetime, wtime/btime/winc/binc,
+// movestogo, depth, nodes, infinite), stop і quit. Пошук іде в окремому потоці, тож stop діє одразу.
+public final class UciMain {
+    private static final int MAX_HASH_MB = 1024;
+    private static final int MAX_THREADS = 64;
+
+    private final ChessTablebase tablebase = ChessTablebase.openDefault();
+    private int hashMegabytes = Search.DEFAULT_HASH_MB;
+    private int threads = 1;
+    private BuiltinEngine engine;
+    private Thread searchThread;
+
+    private String fen = Fen.START_POSITION;
+    private final MoveList moves = new MoveList();
+    private final Board board = new Board();
+    private Color sideToMove = Color.WHITE;
+    private final int[] legalMoves = new int[Move.MAX_MOVES];
+
+    private UciMain() {
+        engine = createEngine();
+    }
+
+    public static void main(String[] args) throws IOException {
+        new UciMain().loop();
+    }
+
+    private void loop() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        for (String line = in.readLine(); line != null; line = in.readLine()) {
+            String[] tokens = line.trim().split("\\s+");
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name ChessChekers");
+                    send("id author sillylabs");
+                    send("option name Hash type spin default " + Search.DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "ucinewgame" -> {
+                    awaitSearch();
+                    engine.getTable().clear();
+                }
+                case "setoption" -> setOption(tokens);
+                case "position" -> {
+                    awaitSearch();
+                    setPosition(tokens);
+                }
+                case "go" -> {
+                    awaitSearch();
+                    go(tokens);
+                }
+                case "stop" -> engine.stopEngine();
+                case "quit" -> {
+                    engine.stopEngine();
+                    awaitSearch();
+                    engine.close();
+                    return;
+                }
+                default -> {
+                    // Невідомі команди UCI велить мовчки пропускати
+                }
+            }
+        }
+        engine.stopEngine();
+        awaitSearch();
+        engine.close();
+    }
+
+    // setoption name <Hash|Threads> value <N>; рушій створюється заново з новими розмірами
+    private void setOption(String[] tokens) {
+        if (tokens.length < 5 || !tokens[1].equals("name") || !tokens[3].equals("value")) {
+            return;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(tokens[4]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        switch (tokens[2]) {
+            case "Hash" -> hashMegabytes = Math.max(1, Math.min(value, MAX_HASH_MB));
+            case "Threads" -> threads = Math.max(1, Math.min(value, MAX_THREADS));
+            default -> {
+                return;
+            }
+        }
+        awaitSearch();
+        engine.close();
+        engine = createEngine();
+    }
+
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder text = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                text.append(text.length() > 0 ? " " : "").append(tokens[index]);
+            }
+            fen = text.toString();
+        } else {
+            fen = Fen.START_POSITION;
+            index = 2;
+        }
+        moves.clear();
+        sideToMove = Fen.load(board, fen);
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                int move = resolve(tokens[index]);
+                if (move == Move.NONE) {
+                    break;
+                }
+                moves.add(move);
+                board.makeMove(move);
+                sideToMove = sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+            }
+        }
+    }
+
+    // Хід UCI без прапорців у легальний хід дошки (рокіровка, взяття на проході, подвійний хід пішака)
+    private int resolve(String uci) {
+        int parsed = Move.fromUci(uci);
+        if (parsed == Move.NONE) {
+            return Move.NONE;
+        }
+        int count = ChessMoveGenerator.generateLegal(board, sideToMove, legalMoves);
+        for (int i = 0; i < count; i++) {
+            int move = legalMoves[i];
+            if (Move.from(move) == Move.from(parsed) && Move.to(move) == Move.to(parsed)
+                    && Move.promotion(move) == Move.promotion(parsed)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    private void go(String[] tokens) {
+        long whiteTime = 0;
+        long blackTime = 0;
+        long whiteIncrement = 0;
+        long blackIncrement = 0;
+        int movesToGo = 0;
+        long moveTime = 0;
+        int depth = 0;
+        long nodes = 0;
+        for (int i = 1; i + 1 < tokens.length; i++) {
+            // Неправильне число пропускаємо разом з його ключем: решта команди лишається в силі
+            try {
+                switch (tokens[i]) {
+                    case "wtime" -> whiteTime = Long.parseLong(tokens[++i]);
+                    case "btime" -> blackTime = Long.parseLong(tokens[++i]);
+                    case "winc" -> whiteIncrement = Long.parseLong(tokens[++i]);
+                    case "binc" -> blackIncrement = Long.parseLong(tokens[++i]);
+                    case "movestogo" -> movesToGo = Integer.parseInt(tokens[++i]);
+                    case "movetime" -> moveTime = Long.parseLong(tokens[++i]);
+                    case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                    case "nodes" -> nodes = Long.parseLong(tokens[++i]);
+                    default -> {
+                    }
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        long remaining = sideToMove == Color.WHITE ? whiteTime : blackTime;
+        long increment = sideToMove == Color.WHITE ? whiteIncrement : blackIncrement;
+        // Без жодної межі (go infinite чи просто go) пошук іде до stop
+        SearchLimits limits;
+        if (moveTime > 0 || remaining <= 0) {
+            limits = new SearchLimits(depth, nodes, moveTime);
+        } else {
+            // Годинник задає лише час; depth і nodes з тієї ж команди теж обмежують пошук
+            SearchLimits clock = TimeManager.limits(remaining, increment, movesToGo);
+            limits = new SearchLimits(depth, nodes, clock.getTimeMillis(), clock.getSoftTimeMillis());
+        }
+        BuiltinEngine searching = engine;
+        String position = fen;
+        MoveList played = moves.copy();
+        // Номер пошуку беремо тут: "stop" одразу після "go" зупинить пошук, навіть якщо потік ще не стартував
+        long generation = searching.nextGeneration();
+        searchThread = new Thread(() -> {
+            SearchResult result = searching.search(position, played, limits, generation);
+            send("info depth " + result.getDepth() + " score " + score(result.getScore()) + " nodes " + result.getNodes()
+                    + " time " + result.getTimeMillis());
+            send("bestmove " + (result.getBestMove() == Move.NONE ? "0000" : Move.toUci(result.getBestMove())));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    private void awaitSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private BuiltinEngine createEngine() {
+        BuiltinEngine created = new BuiltinEngine(hashMegabytes, threads);
+        created.setTablebase(tablebase);
+        return created;
+    }
+
+    // "cp N" або "mate N" (у ходах, від'ємне - мат нам)
+    private static String score(int score) {
+        if (Math.abs(score) < Search.MATE_BOUND) {
+            return "cp " + score;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return "mate " + (score > 0 ? (plies + 1) / 2 : -(plies / 2));
+    }
+
+    private static synchronized void send(String line) {
+        System.out.println(line);
+        System.out.flush();
+    }
+}
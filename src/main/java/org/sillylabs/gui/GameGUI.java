@@ -1,5 +1,7 @@
 package org.sillylabs.gui;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.beans.binding.Bindings;
 import javafx.beans.binding.DoubleBinding;
 import javafx.geometry.Insets;
@@ -18,12 +20,26 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.sillylabs.*;
+import org.sillylabs.engine.BuiltinEngine;
+import org.sillylabs.engine.CheckersEndgameDatabase;
+import org.sillylabs.engine.CheckersOpeningBook;
+import org.sillylabs.engine.ChessTablebase;
+import org.sillylabs.engine.PolyglotBook;
+import org.sillylabs.engine.CheckersEngine;
+import org.sillylabs.engine.ParallelSearch;
+import org.sillylabs.engine.Search;
+import org.sillylabs.engine.SearchLimits;
+import org.sillylabs.engine.TimeManager;
 import org.sillylabs.pieces.*;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javafx.scene.control.Alert;
 
 public class GameGUI implements GameObserver {
@@ -41,7 +57,33 @@ public class GameGUI implements GameObserver {
     // --- НОВЕ: Прапорець для перевірки режиму гри (Проти ШІ чи 2 гравця) ---
     private boolean playAgainstAI = false;
 
-    private StockfishEngine stockfishEngine;
+    // Потоки пошуку для обох рушіїв: властивість -Dthreads=N, за замовчуванням по одному на ядро
+    private static final int ENGINE_THREADS = Math.max(1, Integer.getInteger("threads", ParallelSearch.defaultThreads()));
+
+    // Вбудований рушій грає завжди (Lazy SMP на ENGINE_THREADS потоках); Stockfish запускається лише тоді, коли його обрали
+    private final BuiltinEngine builtinEngine = new BuiltinEngine(Search.DEFAULT_HASH_MB, ENGINE_THREADS);
+    // Stockfish - через пул UCI-процесів: запит з межею часу, без блокування потоку на читанні
+    private final UciEnginePool stockfishPool = UciEnginePool.stockfish(1, Search.DEFAULT_HASH_MB, ENGINE_THREADS);
+    private boolean stockfishStarted = false;
+    private boolean stockfishBot = false;
+    // Хід бота (шаховий чи шлях шашкового), якого ще чекаємо; нова партія чи кінець гри його скасовує
+    private CompletableFuture<?> pendingBotMove;
+    // Пошуки вбудованих рушіїв ідуть по черзі в одному потоці: скасований пошук ще може добігати,
+    // і наступний не почне міняти ту саму дошку рушія, доки той не закінчиться
+    private final ExecutorService botExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bot-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Дебютна книга Polyglot (book.bin); без неї кожен хід бота рахує рушій
+    private final PolyglotBook openingBook = PolyglotBook.openDefault();
+    // У шашках грає окремий рушій на бітбордах 32 темних клітинок
+    private final CheckersEngine checkersEngine = new CheckersEngine();
+    private final MoveList legalMoves = new MoveList();
+
+    // Контроль часу "хвилини+секунди додавання"; годинник оновлює напис щосекунди
+    private static final String NO_CLOCK = "Без годинника";
+    private final Timeline clockTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> onClockTick()));
 
     private static final String LIGHT_SQUARE = "#F0D9B5";
     private static final String DARK_SQUARE = "#B58863";
@@ -50,6 +92,13 @@ public class GameGUI implements GameObserver {
     private static final String CAPTURE_MOVE = "#FF6B6B";
 
     private static final Map<String, Image> pieceImageCache = new HashMap<>();
+    // Ключ зображення і запасний символ за кодом фігури (Piece.getCode): шахові 0-11, шашки 12-15
+    private static final String[] PIECE_IMAGE_KEYS = {
+            "wp.png", "wn.png", "wb.png", "wr.png", "wq.png", "wk.png",
+            "bp.png", "bn.png", "bb.png", "br.png", "bq.png", "bk.png",
+            "wm.png", "ww.png", "bm.png", "bw.png"};
+    private static final String[] PIECE_SYMBOLS = {
+            "♙", "♘", "♗", "♖", "♕", "♔", "♟", "♞", "♝", "♜", "♛", "♚", "⛂", "⛁", "⛂", "⛁"};
 
     static {
         String[] colors = {"w", "b"};
@@ -88,13 +137,17 @@ public class GameGUI implements GameObserver {
         primaryStage.setWidth(1000);
         primaryStage.setHeight(800);
 
-        this.stockfishEngine = new StockfishEngine();
-        this.stockfishEngine.startEngine();
+        // База шашкових ендшпілів необов'язкова: без файлу рушій просто шукає далі
+        checkersEngine.setEndgameDatabase(CheckersEndgameDatabase.openDefault());
+        checkersEngine.setOpeningBook(CheckersOpeningBook.openDefault());
+        // Так само шахові таблиці ендшпілів (каталог tablebases)
+        builtinEngine.setTablebase(ChessTablebase.openDefault());
 
         this.primaryStage.setOnCloseRequest(event -> {
-            if (stockfishEngine != null) {
-                stockfishEngine.stopEngine();
-            }
+            cancelPendingBotMove();
+            botExecutor.shutdownNow();
+            builtinEngine.close();
+            stockfishPool.close();
         });
 
         setupGUI();
@@ -136,20 +189,25 @@ public class GameGUI implements GameObserver {
 
         // --- НОВЕ: Вибір суперника ---
         ComboBox<String> opponentSelector = new ComboBox<>();
-        opponentSelector.getItems().addAll("2 гравця", "Проти ШІ");
+        opponentSelector.getItems().addAll("2 гравця", "Проти ШІ", "Проти Stockfish");
         opponentSelector.setValue("2 гравця"); // За замовчуванням 2 гравця
         opponentSelector.styleProperty().bind(Bindings.createStringBinding(
                 () -> "-fx-font-size: " + Math.max(12, padding.get() * 1.4) + "px;",
                 padding
         ));
 
-        // Блокуємо ШІ, якщо обрано Шашки
+        ComboBox<String> timeControlSelector = new ComboBox<>();
+        timeControlSelector.getItems().addAll(NO_CLOCK, "3+2", "5+3", "15+10");
+        timeControlSelector.setValue(NO_CLOCK);
+        timeControlSelector.styleProperty().bind(Bindings.createStringBinding(
+                () -> "-fx-font-size: " + Math.max(12, padding.get() * 1.4) + "px;",
+                padding
+        ));
+
+        // Stockfish грає тільки в шахи: у шашках суперник - вбудований рушій
         modeSelector.valueProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal == GameMode.CHECKERS) {
-                opponentSelector.setValue("2 гравця");
-                opponentSelector.setDisable(true); // Stockfish грає тільки в шахи
-            } else {
-                opponentSelector.setDisable(false);
+            if (newVal == GameMode.CHECKERS && opponentSelector.getValue().equals("Проти Stockfish")) {
+                opponentSelector.setValue("Проти ШІ");
             }
         });
         // ------------------------------
@@ -170,12 +228,18 @@ public class GameGUI implements GameObserver {
         ));
         startButton.setOnAction(e -> {
             // Зберігаємо вибір користувача
-            playAgainstAI = opponentSelector.getValue().equals("Проти ШІ");
+            playAgainstAI = !opponentSelector.getValue().equals("2 гравця");
+            boolean stockfishChosen = opponentSelector.getValue().equals("Проти Stockfish") && modeSelector.getValue() == GameMode.CHESS;
+            stockfishBot = stockfishChosen && startStockfish();
+            cancelPendingBotMove();
 
             gameOver = false;
             setupBoard();
-            coordinator.start(modeSelector.getValue());
+            startGame(modeSelector.getValue(), timeControlSelector.getValue());
             primaryStage.setScene(scene);
+            if (stockfishChosen && !stockfishBot) {
+                onStatusUpdate("Stockfish не знайдено, грає вбудований рушій");
+            }
 
             triggerBotMoveIfNeeded();
         });
@@ -188,7 +252,7 @@ public class GameGUI implements GameObserver {
         ));
 
         // Додали opponentSelector у контейнер
-        root.getChildren().addAll(title, instruction, modeSelector, opponentSelector, startButton);
+        root.getChildren().addAll(title, instruction, modeSelector, opponentSelector, timeControlSelector, startButton);
 
         Scene startScene = new Scene(root);
         primaryStage.setScene(startScene);
@@ -351,6 +415,7 @@ public class GameGUI implements GameObserver {
 
         mainMenuButton.setOnAction(e -> {
             gameOver = true;
+            cancelPendingBotMove();
             selectedRow = -1;
             selectedColumn = -1;
             setupGUI();
@@ -401,7 +466,7 @@ public class GameGUI implements GameObserver {
             return;
         }
 
-        Piece piece = coordinator.getBoardState()[row][column];
+        Piece piece = coordinator.getBoardState().getPieceAt(row, column);
 
         if (selectedRow == -1 && piece != null && piece.getColor() == (coordinator.isWhiteTurn() ? Color.WHITE : Color.BLACK)) {
             if (coordinator.isMultiJump() && (row != coordinator.getMultiJumpFromRow() || column != coordinator.getMultiJumpFromColumn())) {
@@ -444,39 +509,15 @@ public class GameGUI implements GameObserver {
     }
 
     private void highlightPossibleMoves(int fromRow, int fromColumn) {
-        Piece piece = coordinator.getBoardState()[fromRow][fromColumn];
-        if (piece == null) return;
-
-        for (int row = 0; row < 8; row++) {
-            for (int column = 0; column < 8; column++) {
-                Button square = getSquareButton(row, column);
-                if (square == null) continue;
-
-                if (coordinator.isValidMove(fromRow, fromColumn, row, column)) {
-                    boolean isCapture = false;
-                    if (piece instanceof CheckersPiece checkersPiece) {
-                        List<int[]> captureMoves = checkersPiece.getCaptureMoves(fromRow, fromColumn, coordinator.getBoardState(), coordinator.getGameMode());
-                        for (int[] move : captureMoves) {
-                            if (move[0] == row && move[1] == column) {
-                                isCapture = true;
-                                break;
-                            }
-                        }
-                    } else if (piece instanceof Pawn &&
-                            Math.abs(column - fromColumn) == 1 &&
-                            coordinator.getBoardState()[row][column] == null &&
-                            row == coordinator.getEnPassantTargetRow() &&
-                            column == coordinator.getEnPassantTargetColumn() &&
-                            coordinator.isEnPassantPossible()) {
-                        isCapture = true;
-                    } else if (coordinator.getBoardState()[row][column] != null &&
-                            coordinator.getBoardState()[row][column].getColor() != piece.getColor()) {
-                        isCapture = true;
-                    }
-
-                    square.setStyle(getSquareStyle(row, column, isCapture ? CAPTURE_MOVE : POSSIBLE_MOVE));
-                }
-            }
+        coordinator.getLegalMoves(fromRow, fromColumn, legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            int row = Move.to(move) / 8;
+            int column = Move.to(move) % 8;
+            Button square = getSquareButton(row, column);
+            if (square == null) continue;
+
+            square.setStyle(getSquareStyle(row, column, Move.isCapture(move) ? CAPTURE_MOVE : POSSIBLE_MOVE));
         }
     }
 
@@ -523,6 +564,7 @@ public class GameGUI implements GameObserver {
     public void onGameOver(boolean isGameOver, Color winner) {
         this.gameOver = isGameOver;
         if (isGameOver) {
+            cancelPendingBotMove();
             String title = "Кінець гри";
             String headerText;
 
@@ -544,38 +586,19 @@ public class GameGUI implements GameObserver {
     }
 
     private void updateBoardDisplay() {
-        Piece[][] grid = coordinator.getBoardState();
+        BoardView board = coordinator.getBoardState();
 
         for (int row = 0; row < 8; row++) {
             for (int column = 0; column < 8; column++) {
                 Button square = getSquareButton(row, column);
                 if (square == null) continue;
 
-                Piece piece = grid[row][column];
+                Piece piece = board.getPieceAt(row, column);
                 square.setGraphic(null);
                 square.setText("");
 
                 if (piece != null) {
-                    String imageKey;
-                    if (piece instanceof CheckersPiece checkersPiece) {
-                        String colorPrefix = piece.getColor() == Color.WHITE ? "w" : "b";
-                        String typeSuffix = checkersPiece.isKing() ? "w" : "m";
-                        imageKey = colorPrefix + typeSuffix + ".png";
-                    } else {
-                        String colorPrefix = piece.getColor() == Color.WHITE ? "w" : "b";
-                        String typeKey = switch (piece.getType().toLowerCase()) {
-                            case "king" -> "k";
-                            case "queen" -> "q";
-                            case "rook" -> "r";
-                            case "bishop" -> "b";
-                            case "knight" -> "n";
-                            case "pawn" -> "p";
-                            default -> "";
-                        };
-                        imageKey = colorPrefix + typeKey + ".png";
-                    }
-
-                    Image image = pieceImageCache.get(imageKey);
+                    Image image = pieceImageCache.get(PIECE_IMAGE_KEYS[piece.getCode()]);
                     if (image != null) {
                         ImageView imageView = new ImageView(image);
                         imageView.fitWidthProperty().bind(square.widthProperty().multiply(0.8));
@@ -594,18 +617,7 @@ public class GameGUI implements GameObserver {
     }
 
     private String getPieceSymbol(Piece piece) {
-        if (piece instanceof CheckersPiece checkersPiece) {
-            return checkersPiece.isKing() ? "⛁" : "⛂";
-        }
-        return switch (piece.getType()) {
-            case "King" -> piece.getColor() == Color.WHITE ? "♔" : "♚";
-            case "Queen" -> piece.getColor() == Color.WHITE ? "♕" : "♛";
-            case "Rook" -> piece.getColor() == Color.WHITE ? "♖" : "♜";
-            case "Bishop" -> piece.getColor() == Color.WHITE ? "♗" : "♝";
-            case "Knight" -> piece.getColor() == Color.WHITE ? "♘" : "♞";
-            case "Pawn" -> piece.getColor() == Color.WHITE ? "♙" : "♟";
-            default -> "";
-        };
+        return PIECE_SYMBOLS[piece.getCode()];
     }
 
     private String getPieceTextStyle(Color pieceColor) {
@@ -630,8 +642,74 @@ public class GameGUI implements GameObserver {
         blackMovesArea.setText(blackMoves.toString());
     }
 
+    private void startGame(GameMode mode, String timeControl) {
+        clockTimeline.stop();
+        if (timeControl.equals(NO_CLOCK)) {
+            coordinator.start(mode);
+        } else {
+            String[] parts = timeControl.split("\\+");
+            coordinator.start(mode, Long.parseLong(parts[0]) * 60_000, Long.parseLong(parts[1]) * 1000);
+            clockTimeline.setCycleCount(Timeline.INDEFINITE);
+            clockTimeline.play();
+        }
+    }
+
+    private void onClockTick() {
+        if (gameOver) {
+            clockTimeline.stop();
+            return;
+        }
+        if (!coordinator.checkTimeout()) {
+            updateTurnLabel();
+        }
+    }
+
     private void updateTurnLabel() {
-        turnLabel.setText("Хід: " + (coordinator.isWhiteTurn() ? "Білі" : "Чорні"));
+        String text = "Хід: " + (coordinator.isWhiteTurn() ? "Білі" : "Чорні");
+        if (coordinator.hasClock()) {
+            text += "   Білі " + formatClock(coordinator.getRemainingTime(Color.WHITE))
+                    + "   Чорні " + formatClock(coordinator.getRemainingTime(Color.BLACK));
+        }
+        if (coordinator.getGameMode() == GameMode.CHECKERS) {
+            text += endgameVerdict();
+        } else {
+            text += tablebaseVerdict();
+        }
+        turnLabel.setText(text);
+    }
+
+    // Результат з бази ендшпілів, коли на дошці мало фігур: хто виграє за правильної гри
+    private String endgameVerdict() {
+        Color sideToMove = coordinator.isWhiteTurn() ? Color.WHITE : Color.BLACK;
+        int result = checkersEngine.probeEndgame(coordinator.getBoardState(), sideToMove);
+        if (result == CheckersEndgameDatabase.UNKNOWN) {
+            return "";
+        }
+        if (result == CheckersEndgameDatabase.DRAW) {
+            return "   База: нічия";
+        }
+        boolean whiteWins = (result == CheckersEndgameDatabase.WIN) == (sideToMove == Color.WHITE);
+        return "   База: виграють " + (whiteWins ? "Білі" : "Чорні");
+    }
+
+    // Відстань до мату з шахових таблиць, коли на дошці 3-4 фігури
+    private String tablebaseVerdict() {
+        Color sideToMove = coordinator.isWhiteTurn() ? Color.WHITE : Color.BLACK;
+        int score = builtinEngine.probeTablebase(coordinator.getBoardState(), sideToMove);
+        if (score == ChessTablebase.UNKNOWN) {
+            return "";
+        }
+        if (score == 0) {
+            return "   Таблиці: нічия";
+        }
+        int moves = (Search.MATE - Math.abs(score) + 1) / 2;
+        boolean whiteWins = (score > 0) == (sideToMove == Color.WHITE);
+        return "   Таблиці: " + (whiteWins ? "Білі" : "Чорні") + " ставлять мат за " + moves;
+    }
+
+    private static String formatClock(long millis) {
+        long seconds = Math.max(0, millis) / 1000;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
     }
 
     private void showPromotionDialog(int row, int column, Color color) {
@@ -676,89 +754,118 @@ public class GameGUI implements GameObserver {
         dialog.show();
     }
 
+    // Запускає процес Stockfish при першому виборі; якщо його немає, грає вбудований рушій
+    private boolean startStockfish() {
+        if (!stockfishStarted) {
+            stockfishStarted = stockfishPool.start();
+        }
+        return stockfishStarted;
+    }
+
+    private void cancelPendingBotMove() {
+        if (pendingBotMove != null && !pendingBotMove.isDone()) {
+            pendingBotMove.cancel(true);
+            builtinEngine.stopEngine();
+            checkersEngine.stopEngine();
+        }
+        pendingBotMove = null;
+    }
+
     private void triggerBotMoveIfNeeded() {
+        if (playAgainstAI && !gameOver && !coordinator.isWhiteTurn() && coordinator.getGameMode() == GameMode.CHECKERS) {
+            triggerCheckersBotMove();
+            return;
+        }
         // --- НОВЕ: Перевіряємо змінну playAgainstAI ---
         if (playAgainstAI && !gameOver && !coordinator.isWhiteTurn() && coordinator.getGameMode() == GameMode.CHESS) {
 
-            new Thread(() -> {
-                String fen = generateFEN(coordinator.getBoardState(), coordinator.isWhiteTurn());
-                String bestMove = stockfishEngine.getBestMove(fen, 500);
-
-                if (bestMove != null && bestMove.length() >= 4) {
-                    int fromCol = bestMove.charAt(0) - 'a';
-                    int fromRow = 8 - Character.getNumericValue(bestMove.charAt(1));
-                    int toCol = bestMove.charAt(2) - 'a';
-                    int toRow = 8 - Character.getNumericValue(bestMove.charAt(3));
-
-                    String promotionPiece = bestMove.length() > 4 ? String.valueOf(bestMove.charAt(4)) : null;
-
-                    javafx.application.Platform.runLater(() -> {
-                        boolean botMoveMade = coordinator.makeMove(fromRow, fromCol, toRow, toCol);
-
-                        if (botMoveMade && coordinator.isWaitingForPromotion()) {
-                            String pieceName = "Queen";
-                            if (promotionPiece != null) {
-                                switch (promotionPiece) {
-                                    case "r": pieceName = "Rook"; break;
-                                    case "b": pieceName = "Bishop"; break;
-                                    case "n": pieceName = "Knight"; break;
-                                    case "q": pieceName = "Queen"; break;
-                                }
-                            }
-                            coordinator.completePawnPromotion(pieceName);
-                        }
-
-                        updateBoardDisplay();
-                        updateTurnLabel();
-                        updateMoveHistory();
-                    });
+            MoveList moves = coordinator.getMoveList();
+            // Годинник читаємо тут, у потоці інтерфейсу; з ним рушій ділить час сам, інакше думає фіксовані 500 мс
+            boolean clock = coordinator.hasClock();
+            long whiteTime = clock ? coordinator.getRemainingTime(Color.WHITE) : 0;
+            long blackTime = clock ? coordinator.getRemainingTime(Color.BLACK) : 0;
+            long increment = coordinator.getIncrement();
+            // Спершу дебютна книга: відома позиція не коштує рушію жодного часу
+            int bookMove = openingBook == null ? Move.NONE : openingBook.getMove(moves);
+            CompletableFuture<Integer> reply;
+            if (bookMove != Move.NONE) {
+                reply = CompletableFuture.completedFuture(bookMove);
+            } else if (stockfishBot) {
+                // Межа запиту - весь залишок годинника: після неї пул зупиняє рушій і бере найкращий хід
+                reply = (clock
+                        ? stockfishPool.bestMove(moves, whiteTime, blackTime, increment, increment, blackTime + increment)
+                        : stockfishPool.bestMove(moves, 500)).thenApply(BestMove::getMove);
+            } else {
+                // Номер пошуку - тут, у потоці інтерфейсу: нова партія одразу після старту пошуку його зупинить
+                long generation = builtinEngine.nextGeneration();
+                SearchLimits limits = clock ? TimeManager.limits(blackTime, increment) : SearchLimits.time(500);
+                reply = CompletableFuture.supplyAsync(() -> builtinEngine.search(moves, limits, generation).getBestMove(), botExecutor);
+            }
+            pendingBotMove = reply;
+            reply.whenComplete((bestMove, error) -> javafx.application.Platform.runLater(() -> {
+                // Відповідь для вже скасованої партії відкидаємо
+                if (reply != pendingBotMove) {
+                    return;
+                }
+                pendingBotMove = null;
+                if (error != null && stockfishBot) {
+                    // Stockfish не відповів вчасно чи впав - далі партію веде вбудований рушій
+                    stockfishBot = false;
+                    onStatusUpdate("Stockfish не відповів, грає вбудований рушій");
+                    triggerBotMoveIfNeeded();
+                    return;
+                }
+                if (error != null) {
+                    onStatusUpdate("Рушій не зміг зробити хід: " + error.getMessage());
+                    return;
+                }
+                if (bestMove != Move.NONE) {
+                    // Фігура перетворення входить у хід, координатор ставить її сам
+                    coordinator.makeMove(bestMove);
+
+                    updateBoardDisplay();
+                    updateTurnLabel();
+                    updateMoveHistory();
                 }
-            }).start();
+            }));
         }
     }
 
-    private String generateFEN(Piece[][] board, boolean isWhiteTurn) {
-        StringBuilder fen = new StringBuilder();
-        for (int row = 0; row < 8; row++) {
-            int emptySquares = 0;
-            for (int col = 0; col < 8; col++) {
-                Piece p = board[row][col];
-                if (p == null) {
-                    emptySquares++;
-                } else {
-                    if (emptySquares > 0) {
-                        fen.append(emptySquares);
-                        emptySquares = 0;
-                    }
-                    char pieceChar = getPieceChar(p);
-                    if (p.getColor() == Color.WHITE) {
-                        fen.append(Character.toUpperCase(pieceChar));
-                    } else {
-                        fen.append(Character.toLowerCase(pieceChar));
-                    }
-                }
-            }
-            if (emptySquares > 0) {
-                fen.append(emptySquares);
+    // Рушій шашок відповідає шляхом ходу; координатор приймає серію по одному стрибку
+    private void triggerCheckersBotMove() {
+        BoardView position = coordinator.getBoardSnapshot();
+        long[] history = coordinator.getRepetitionHistory();
+        SearchLimits limits = coordinator.hasClock()
+                ? TimeManager.limits(coordinator.getRemainingTime(Color.BLACK), coordinator.getIncrement())
+                : SearchLimits.time(500);
+        // Як і в шахах: номер пошуку береться тут, пошук іде в потоці ботів, відповідь для скасованої партії відкидаємо
+        long generation = checkersEngine.nextGeneration();
+        CompletableFuture<int[]> reply = CompletableFuture.supplyAsync(
+                () -> checkersEngine.getBestPath(position, Color.BLACK, limits, history, generation), botExecutor);
+        pendingBotMove = reply;
+        reply.whenComplete((path, error) -> javafx.application.Platform.runLater(() -> {
+            if (reply != pendingBotMove) {
+                return;
             }
-            if (row < 7) {
-                fen.append("/");
+            pendingBotMove = null;
+            if (error != null) {
+                onStatusUpdate("Рушій не зміг зробити хід: " + error.getMessage());
+                return;
             }
-        }
-        fen.append(isWhiteTurn ? " w" : " b").append(" - - 0 1");
-        return fen.toString();
-    }
+            if (path.length > 0) {
+                for (int i = 1; i < path.length; i++) {
+                    coordinator.makeMove(path[i - 1] / 8, path[i - 1] % 8, path[i] / 8, path[i] % 8);
+                }
+                // Довгий тихий хід дамки координатор теж перевіряє на продовження; серію рушія закінчуємо самі
+                if (coordinator.isMultiJump()) {
+                    int last = path[path.length - 1];
+                    coordinator.makeMove(last / 8, last % 8, last / 8, last % 8);
+                }
 
-    private char getPieceChar(Piece p) {
-        String name = p.getType();
-        return switch (name) {
-            case "Pawn" -> 'p';
-            case "Knight" -> 'n';
-            case "Bishop" -> 'b';
-            case "Rook" -> 'r';
-            case "Queen" -> 'q';
-            case "King" -> 'k';
-            default -> 'p';
-        };
+                updateBoardDisplay();
+                updateTurnLabel();
+                updateMoveHistory();
+            }
+        }));
     }
 }
\ No newline at end of file
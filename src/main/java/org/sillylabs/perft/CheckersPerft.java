@@ -0,0 +1,239 @@
+package org.sillylabs.perft;
+
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.CheckersRules;
+import org.sillylabs.Fen;
+import org.sillylabs.GameMode;
+import org.sillylabs.Move;
+import org.sillylabs.engine.CheckersBitboard;
+import org.sillylabs.pieces.CheckersPiece;
+import org.sillylabs.pieces.Color;
+import org.sillylabs.pieces.Piece;
+import org.sillylabs.pieces.Pieces;
+
+// Консольний perft для шашок: один вузол - це повний хід, тобто вся серія взяттів однією шашкою.
+// Серія продовжується, доки є взяття (як у стандартних правилах), перетворення в дамку - в кінці серії,
+// як у PromotionHandler. Однакові серії (та сама шашка, та сама кінцева клітинка, ті самі збиті фігури)
+// рахуються один раз. Набір тестів перевіряє тими ж кількостями і генератор рушія на бітбордах (CheckersBitboard).
+// Використання:
+//   CheckersPerft --suite [maxDepth]        початкова позиція з відомими кількостями
+//   CheckersPerft [--divide] <depth>        perft для початкової позиції
+public final class CheckersPerft {
+    private static final int MAX_DEPTH = 20;
+    // Більше 12 взяттів за хід не буває: у суперника лише 12 шашок
+    private static final int MAX_JUMPS = 12;
+    private static final int MAX_TURNS = 512;
+
+    // Кількості для початкової позиції за правилами гри (прості б'ють і назад, дамки далекобійні).
+    // До глибини 4 збігаються з англійськими шашками (7, 49, 302, 1469); з глибини 5 відрізняються через
+    // взяття назад простими, з глибини 9 - ще й через далекобійних дамок.
+    private static final long[] START_POSITION_COUNTS = {7, 49, 302, 1469, 7482, 37986, 190146, 929896, 4570536, 22438407};
+
+    private final CheckersRules rules = new CheckersRules();
+    private final Board board = new Board();
+    private final int[][] buffers = new int[MAX_DEPTH + 1][Move.MAX_MOVES];
+    // Продовження серії: окремо для кожної глибини і кожного стрибка, бо кінець серії запускає рекурсію
+    private final int[][][] jumpBuffers = new int[MAX_DEPTH + 1][MAX_JUMPS + 1][Move.MAX_MOVES];
+    // Уже пораховані серії взяттів на кожному рівні: клітинки "звідки/куди" та маска збитих фігур
+    private final int[][] seenEndpoints = new int[MAX_DEPTH + 1][MAX_TURNS];
+    private final long[][] seenCaptured = new long[MAX_DEPTH + 1][MAX_TURNS];
+    private final int[] seenCount = new int[MAX_DEPTH + 1];
+
+    public CheckersPerft() {
+        board.setupBoard(GameMode.CHECKERS);
+    }
+
+    public long perft(int depth) {
+        return perft(Color.WHITE, depth);
+    }
+
+    // Той самий perft генератором CheckersBitboard: позиція кожного рівня - копія попередньої
+    static long bitboardPerft(CheckersBitboard[] positions, long[][] moves, int depth) {
+        CheckersBitboard position = positions[depth];
+        int count = position.generate(moves[depth]);
+        if (depth == 1) {
+            return count;
+        }
+        CheckersBitboard child = positions[depth - 1];
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(moves[depth][i]);
+            nodes += bitboardPerft(positions, moves, depth - 1);
+        }
+        return nodes;
+    }
+
+    private long perft(Color color, int depth) {
+        int[] moves = buffers[depth];
+        int count = rules.generateMoves(board, color, moves);
+        seenCount[depth] = 0;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            nodes += playMove(color, depth, moves[i]);
+        }
+        return nodes;
+    }
+
+    private long playMove(Color color, int depth, int move) {
+        int from = Move.from(move);
+        if (Move.isCapture(move)) {
+            return jump(color, depth, from, from, Move.to(move), 0L, 0);
+        }
+        int to = Move.to(move);
+        Piece piece = board.getPieceAt(from / 8, from % 8);
+        board.setPieceAt(to / 8, to % 8, piece);
+        board.setPieceAt(from / 8, from % 8, null);
+        long nodes = finishTurn(color, depth, piece, to);
+        board.setPieceAt(from / 8, from % 8, piece);
+        board.setPieceAt(to / 8, to % 8, null);
+        return nodes;
+    }
+
+    // Один стрибок серії: збиваємо фігуру між from і to, далі продовжуємо з to, поки є взяття
+    private long jump(Color color, int depth, int origin, int from, int to, long captured, int jumps) {
+        Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int capturedSquare = Long.numberOfTrailingZeros(AttackTables.between(from, to) & board.getOccupancy(opponent));
+        Piece piece = board.getPieceAt(from / 8, from % 8);
+        Piece capturedPiece = board.getPieceAt(capturedSquare / 8, capturedSquare % 8);
+        board.setPieceAt(capturedSquare / 8, capturedSquare % 8, null);
+        board.setPieceAt(to / 8, to % 8, piece);
+        board.setPieceAt(from / 8, from % 8, null);
+        captured |= 1L << capturedSquare;
+
+        long nodes = 0;
+        int[] continuations = jumpBuffers[depth][jumps];
+        int count = rules.generateCaptures(board, color, to, continuations, 0);
+        if (count == 0) {
+            if (isNewSequence(depth, origin, to, captured)) {
+                nodes = finishTurn(color, depth, piece, to);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                nodes += jump(color, depth, origin, to, Move.to(continuations[i]), captured, jumps + 1);
+            }
+        }
+
+        board.setPieceAt(from / 8, from % 8, piece);
+        board.setPieceAt(to / 8, to % 8, null);
+        board.setPieceAt(capturedSquare / 8, capturedSquare % 8, capturedPiece);
+        return nodes;
+    }
+
+    private boolean isNewSequence(int depth, int origin, int to, long captured) {
+        int endpoints = origin | (to << 6);
+        int[] ends = seenEndpoints[depth];
+        long[] masks = seenCaptured[depth];
+        for (int i = 0; i < seenCount[depth]; i++) {
+            if (ends[i] == endpoints && masks[i] == captured) {
+                return false;
+            }
+        }
+        ends[seenCount[depth]] = endpoints;
+        masks[seenCount[depth]++] = captured;
+        return true;
+    }
+
+    // Хід завершено: перетворення в дамку на останній горизонталі, потім хід суперника
+    private long finishTurn(Color color, int depth, Piece piece, int to) {
+        boolean promotes = !((CheckersPiece) piece).isKing() && to / 8 == (color == Color.WHITE ? 0 : 7);
+        if (promotes) {
+            board.setPieceAt(to / 8, to % 8, Pieces.checkers(color, true));
+        }
+        long nodes = depth == 1 ? 1 : perft(color == Color.WHITE ? Color.BLACK : Color.WHITE, depth - 1);
+        if (promotes) {
+            board.setPieceAt(to / 8, to % 8, piece);
+        }
+        return nodes;
+    }
+
+    // Кількість вузлів під кожним першим кроком кореня
+    public long divide(int depth) {
+        int[] moves = new int[Move.MAX_MOVES];
+        int count = rules.generateMoves(board, Color.WHITE, moves);
+        seenCount[depth] = 0;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long nodes = playMove(Color.WHITE, depth, moves[i]);
+            System.out.println(Fen.squareName(Move.from(moves[i])) + (Move.isCapture(moves[i]) ? "x" : "-")
+                    + Fen.squareName(Move.to(moves[i])) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].equals("--suite")) {
+            int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+            System.exit(runSuite(maxDepth) ? 0 : 1);
+        }
+
+        boolean divide = args[0].equals("--divide");
+        int first = divide ? 1 : 0;
+        if (args.length <= first) {
+            System.err.println("Вкажіть глибину: CheckersPerft [--divide] <depth>");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[first]);
+        if (depth < 1 || depth > MAX_DEPTH) {
+            System.err.println("Глибина має бути від 1 до " + MAX_DEPTH);
+            System.exit(2);
+        }
+
+        CheckersPerft perft = new CheckersPerft();
+        long start = System.nanoTime();
+        long nodes = divide ? perft.divide(depth) : perft.perft(depth);
+        long elapsed = System.nanoTime() - start;
+        System.out.println();
+        System.out.println("Nodes: " + nodes);
+        printTiming(nodes, elapsed);
+    }
+
+    private static boolean runSuite(int maxDepth) {
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+        CheckersPerft perft = new CheckersPerft();
+        CheckersBitboard[] positions = new CheckersBitboard[MAX_DEPTH + 1];
+        for (int i = 0; i <= MAX_DEPTH; i++) {
+            positions[i] = new CheckersBitboard();
+        }
+        long[][] bitboardMoves = new long[MAX_DEPTH + 1][CheckersBitboard.MAX_MOVES];
+        for (int depth = 1; depth <= Math.min(maxDepth, START_POSITION_COUNTS.length); depth++) {
+            long start = System.nanoTime();
+            long nodes = perft.perft(depth);
+            long elapsed = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalTime += elapsed;
+            long expected = START_POSITION_COUNTS[depth - 1];
+            boolean ok = nodes == expected;
+            passed &= ok;
+            System.out.printf("startpos   depth %d: %12d %s (%d ms, %s nps)%n", depth, nodes,
+                    ok ? "OK" : "FAIL, expected " + expected, elapsed / 1_000_000, nps(nodes, elapsed));
+
+            positions[depth].copyFrom(CheckersBitboard.startPosition());
+            start = System.nanoTime();
+            long bitboardNodes = bitboardPerft(positions, bitboardMoves, depth);
+            elapsed = System.nanoTime() - start;
+            boolean bitboardOk = bitboardNodes == expected;
+            passed &= bitboardOk;
+            System.out.printf("bitboard   depth %d: %12d %s (%d ms, %s nps)%n", depth, bitboardNodes,
+                    bitboardOk ? "OK" : "FAIL, expected " + expected, elapsed / 1_000_000, nps(bitboardNodes, elapsed));
+        }
+        System.out.println();
+        System.out.println(passed ? "All depths match" : "MISMATCH");
+        System.out.println("Nodes: " + totalNodes);
+        printTiming(totalNodes, totalTime);
+        return passed;
+    }
+
+    private static void printTiming(long nodes, long elapsedNanos) {
+        System.out.println("Time: " + elapsedNanos / 1_000_000 + " ms");
+        System.out.println("NPS: " + nps(nodes, elapsedNanos));
+    }
+
+    private static long nps(long nodes, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+}
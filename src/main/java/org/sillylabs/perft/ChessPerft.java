@@ -0,0 +1,150 @@
+package org.sillylabs.perft;
+
+import org.sillylabs.Board;
+import org.sillylabs.ChessRules;
+import org.sillylabs.Fen;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+
+import java.util.Arrays;
+
+// Консольний perft для шахових правил: рахує вузли дерева ходів до заданої глибини без JavaFX.
+// Використання:
+//   ChessPerft --suite [maxDepth]        еталонні позиції з відомими кількостями
+//   ChessPerft <depth> [FEN]             perft для позиції (за замовчуванням - початкова)
+//   ChessPerft --divide <depth> [FEN]    кількість вузлів під кожним ходом кореня
+public final class ChessPerft {
+    private static final int MAX_DEPTH = 16;
+
+    // FEN і очікувані кількості вузлів для глибин 1, 2, 3...
+    private static final Object[][] SUITE = {
+            {"startpos", Fen.START_POSITION,
+                    new long[]{20, 400, 8902, 197281, 4865609, 119060324}},
+            {"kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    new long[]{48, 2039, 97862, 4085603, 193690690}},
+            {"position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    new long[]{14, 191, 2812, 43238, 674624, 11030083}},
+            {"position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    new long[]{6, 264, 9467, 422333, 15833292}},
+            {"position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    new long[]{44, 1486, 62379, 2103487, 89941194}},
+            {"position6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    new long[]{46, 2079, 89890, 3894594, 164075551}},
+    };
+
+    private final ChessRules rules = new ChessRules();
+    private final Board board = new Board();
+    // Окремий буфер на кожен рівень, щоб рекурсія не затирала ходи батьківського вузла
+    private final int[][] buffers = new int[MAX_DEPTH + 1][Move.MAX_MOVES];
+    private Color sideToMove;
+
+    public ChessPerft(String fen) {
+        sideToMove = Fen.load(board, fen);
+    }
+
+    public long perft(int depth) {
+        return perft(sideToMove, depth);
+    }
+
+    private long perft(Color color, int depth) {
+        int[] moves = buffers[depth];
+        int count = rules.generateMoves(board, color, moves);
+        // На останньому рівні досить кількості легальних ходів
+        if (depth == 1) {
+            return count;
+        }
+        Color opponent = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(opponent, depth - 1);
+            board.unmakeMove(moves[i]);
+        }
+        return nodes;
+    }
+
+    // Друкує кількість вузлів під кожним ходом кореня, як "go perft" у UCI-рушіях
+    public long divide(int depth) {
+        int[] moves = new int[Move.MAX_MOVES];
+        int count = rules.generateMoves(board, sideToMove, moves);
+        Color opponent = sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long nodes = 1;
+            if (depth > 1) {
+                board.makeMove(moves[i]);
+                nodes = perft(opponent, depth - 1);
+                board.unmakeMove(moves[i]);
+            }
+            System.out.println(Move.toUci(moves[i]) + ": " + nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].equals("--suite")) {
+            int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+            System.exit(runSuite(maxDepth) ? 0 : 1);
+        }
+
+        boolean divide = args[0].equals("--divide");
+        int first = divide ? 1 : 0;
+        if (args.length <= first) {
+            System.err.println("Вкажіть глибину: ChessPerft [--divide] <depth> [FEN]");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[first]);
+        if (depth < 1 || depth > MAX_DEPTH) {
+            System.err.println("Глибина має бути від 1 до " + MAX_DEPTH);
+            System.exit(2);
+        }
+        String fen = args.length > first + 1 ? String.join(" ", Arrays.copyOfRange(args, first + 1, args.length)) : Fen.START_POSITION;
+
+        ChessPerft perft = new ChessPerft(fen);
+        long start = System.nanoTime();
+        long nodes = divide ? perft.divide(depth) : perft.perft(depth);
+        long elapsed = System.nanoTime() - start;
+        System.out.println();
+        System.out.println("Nodes: " + nodes);
+        printTiming(nodes, elapsed);
+    }
+
+    // Проганяє еталонні позиції до maxDepth і повертає false при першій розбіжності
+    public static boolean runSuite(int maxDepth) {
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalTime = 0;
+        for (Object[] entry : SUITE) {
+            String name = (String) entry[0];
+            String fen = (String) entry[1];
+            long[] expected = (long[]) entry[2];
+            ChessPerft perft = new ChessPerft(fen);
+            for (int depth = 1; depth <= Math.min(maxDepth, expected.length); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(depth);
+                long elapsed = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalTime += elapsed;
+                boolean ok = nodes == expected[depth - 1];
+                passed &= ok;
+                System.out.printf("%-10s depth %d: %12d %s (%d ms, %s nps)%n", name, depth, nodes,
+                        ok ? "OK" : "FAIL, expected " + expected[depth - 1], elapsed / 1_000_000, nps(nodes, elapsed));
+            }
+        }
+        System.out.println();
+        System.out.println(passed ? "All positions match" : "MISMATCH");
+        System.out.println("Nodes: " + totalNodes);
+        printTiming(totalNodes, totalTime);
+        return passed;
+    }
+
+    private static void printTiming(long nodes, long elapsedNanos) {
+        System.out.println("Time: " + elapsedNanos / 1_000_000 + " ms");
+        System.out.println("NPS: " + nps(nodes, elapsedNanos));
+    }
+
+    private static long nps(long nodes, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+}
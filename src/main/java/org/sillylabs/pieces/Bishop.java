@@ -1,20 +1,23 @@
 package org.sillylabs.pieces;
 
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
+
 public class Bishop extends ChessPiece {
-    public Bishop(Color color, int row, int column) {
-        super("Bishop", color, row, column);
+    Bishop(Color color) {
+        super("Bishop", color, Board.BISHOP + (color == Color.WHITE ? 0 : Board.BLACK_OFFSET));
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toColumn, MoveContext context) {
-        Piece[][] grid = context.grid;
+    public boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context) {
+        BoardView board = context.board;
         if (Math.abs(toRow - row) != Math.abs(toColumn - column)) return false;
         int dRow = toRow > row ? 1 : -1;
         int dColumn = toColumn > column ? 1 : -1;
         int steps = Math.abs(toRow - row);
         for (int i = 1; i < steps; i++) {
-            if (grid[row + i * dRow][column + i * dColumn] != null) return false;
+            if (board.getPieceAt(row + i * dRow, column + i * dColumn) != null) return false;
         }
-        return grid[toRow][toColumn] == null || grid[toRow][toColumn].getColor() != color;
+        return board.getPieceAt(toRow, toColumn) == null || board.getPieceAt(toRow, toColumn).getColor() != color;
     }
 }
\ No newline at end of file
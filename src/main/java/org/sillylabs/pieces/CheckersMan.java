@@ -1,19 +1,21 @@
 package org.sillylabs.pieces;
 
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
 import org.sillylabs.GameMode;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class CheckersMan extends CheckersPiece {
-    public CheckersMan(Color color, int row, int column) {
-        super("CheckersMan", color, row, column);
+    CheckersMan(Color color, boolean king) {
+        super("CheckersMan", color, (color == Color.WHITE ? Board.WHITE_CHECKERS_MAN : Board.BLACK_CHECKERS_MAN) + (king ? 1 : 0), king);
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toColumn, MoveContext context) {
-        Piece[][] grid = context.grid;
-        if (toRow < 0 || toRow >= 8 || toColumn < 0 || toColumn >= 8 || grid[toRow][toColumn] != null) {
+    public boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context) {
+        BoardView board = context.board;
+        if (toRow < 0 || toRow >= 8 || toColumn < 0 || toColumn >= 8 || board.getPieceAt(toRow, toColumn) != null) {
             return false;
         }
 
@@ -30,13 +32,13 @@ public class CheckersMan extends CheckersPiece {
         int stepRow = dRow > 0 ? 1 : -1;
         int stepColumn = dColumn > 0 ? 1 : -1;
 
-        List<int[]> captureMoves = getCaptureMoves(row, column, grid, GameMode.CHECKERS);
+        List<int[]> captureMoves = getCaptureMoves(row, column, board, GameMode.CHECKERS);
         if (!captureMoves.isEmpty()) {
             if (absDRow < 2) {
                 System.out.println("Invalid: Must capture when possible");
                 return false;
             }
-            return isCapture(toRow, toColumn, grid);
+            return isCapture(row, column, toRow, toColumn, board);
         }
 
         if (!isKing) {
@@ -48,7 +50,7 @@ public class CheckersMan extends CheckersPiece {
             for (int i = 1; i < absDRow; i++) {
                 int checkRow = row + i * stepRow;
                 int checkColumn = column + i * stepColumn;
-                if (checkRow < 0 || checkRow >= 8 || checkColumn < 0 || checkColumn >= 8 || grid[checkRow][checkColumn] != null) {
+                if (checkRow < 0 || checkRow >= 8 || checkColumn < 0 || checkColumn >= 8 || board.getPieceAt(checkRow, checkColumn) != null) {
                     return false;
                 }
             }
@@ -57,8 +59,8 @@ public class CheckersMan extends CheckersPiece {
     }
 
     @Override
-    public boolean isValidMoveWithMultiJump(int toRow, int toColumn, Piece[][] grid, boolean isMultiJump) {
-        if (toRow < 0 || toRow >= 8 || toColumn < 0 || toColumn >= 8 || grid[toRow][toColumn] != null) {
+    public boolean isValidMoveWithMultiJump(int row, int column, int toRow, int toColumn, BoardView board, boolean isMultiJump) {
+        if (toRow < 0 || toRow >= 8 || toColumn < 0 || toColumn >= 8 || board.getPieceAt(toRow, toColumn) != null) {
             return false;
         }
 
@@ -72,15 +74,15 @@ public class CheckersMan extends CheckersPiece {
         }
 
         if (isMultiJump) {
-            return isCapture(toRow, toColumn, grid);
+            return isCapture(row, column, toRow, toColumn, board);
         }
 
-        MoveContext context = new MoveContext(grid, -1, -1, false);
-        return isValidMove(toRow, toColumn, context);
+        MoveContext context = new MoveContext(board, -1, -1, false);
+        return isValidMove(row, column, toRow, toColumn, context);
     }
 
     @Override
-    protected boolean isCapture(int toRow, int toColumn, Piece[][] grid) {
+    protected boolean isCapture(int row, int column, int toRow, int toColumn, BoardView board) {
         int dRow = toRow - row;
         int dColumn = toColumn - column;
         int absDRow = Math.abs(dRow);
@@ -93,14 +95,14 @@ public class CheckersMan extends CheckersPiece {
                 int midRow = row + stepRow;
                 int midColumn = column + stepColumn;
                 return midRow >= 0 && midRow < 8 && midColumn >= 0 && midColumn < 8 &&
-                        grid[midRow][midColumn] != null && grid[midRow][midColumn].getColor() != color;
+                        board.getPieceAt(midRow, midColumn) != null && board.getPieceAt(midRow, midColumn).getColor() != color;
             }
         } else {
             int opponentCount = 0;
             for (int i = 1; i < absDRow; i++) {
                 int checkRow = row + i * stepRow;
                 int checkColumn = column + i * stepColumn;
-                Piece p = grid[checkRow][checkColumn];
+                Piece p = board.getPieceAt(checkRow, checkColumn);
                 if (p != null) {
                     if (p.getColor() == color) return false; // Заблоковано власною фігурою
                     opponentCount++;
@@ -112,7 +114,7 @@ public class CheckersMan extends CheckersPiece {
     }
 
     @Override
-    public List<int[]> getCaptureMoves(int fromRow, int fromColumn, Piece[][] grid, GameMode gameMode) {
+    public List<int[]> getCaptureMoves(int fromRow, int fromColumn, BoardView board, GameMode gameMode) {
         List<int[]> captureMoves = new ArrayList<>();
         int direction = color == Color.WHITE ? -1 : 1;
 
@@ -125,9 +127,9 @@ public class CheckersMan extends CheckersPiece {
                 int midColumn = fromColumn + dir[1];
                 int toRow = fromRow + 2 * dir[0];
                 int toColumn = fromColumn + 2 * dir[1];
-                if (toRow >= 0 && toRow < 8 && toColumn >= 0 && toColumn < 8 && grid[toRow][toColumn] == null &&
-                        midRow >= 0 && midColumn >= 0 && midColumn < 8 && grid[midRow][midColumn] != null &&
-                        grid[midRow][midColumn].getColor() != color) {
+                if (toRow >= 0 && toRow < 8 && toColumn >= 0 && toColumn < 8 && board.getPieceAt(toRow, toColumn) == null &&
+                        midRow >= 0 && midColumn >= 0 && midColumn < 8 && board.getPieceAt(midRow, midColumn) != null &&
+                        board.getPieceAt(midRow, midColumn).getColor() != color) {
                     captureMoves.add(new int[]{toRow, toColumn});
                 }
             }
@@ -141,7 +143,7 @@ public class CheckersMan extends CheckersPiece {
                     int checkColumn = fromColumn + i * dir[1];
                     if (checkRow < 0 || checkRow >= 8 || checkColumn < 0 || checkColumn >= 8) break;
 
-                    Piece p = grid[checkRow][checkColumn];
+                    Piece p = board.getPieceAt(checkRow, checkColumn);
                     if (!opponentFound) {
                         if (p != null) {
                             if (p.getColor() == color) {
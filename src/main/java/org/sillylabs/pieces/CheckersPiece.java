@@ -1,39 +1,37 @@
 package org.sillylabs.pieces;
 
+import org.sillylabs.BoardView;
 import org.sillylabs.GameMode;
 
 import java.util.List;
 
 public abstract class CheckersPiece extends Piece {
-    protected boolean isKing;
+    // Дамка - окремий екземпляр (див. Pieces.checkers), перетворення лише міняє фігуру на клітинці
+    protected final boolean isKing;
 
-    public CheckersPiece(String type, Color color, int row, int column) {
-        super(type, color, row, column);
-        isKing = false;
+    protected CheckersPiece(String type, Color color, int code, boolean isKing) {
+        super(type, color, code);
+        this.isKing = isKing;
     }
 
     public boolean isKing() {
         return isKing;
     }
 
-    public void setKing(boolean king) {
-        isKing = king;
-    }
-
-    public abstract List<int[]> getCaptureMoves(int fromRow, int fromColumn, Piece[][] grid, GameMode gameMode);
+    public abstract List<int[]> getCaptureMoves(int fromRow, int fromColumn, BoardView board, GameMode gameMode);
 
-    public boolean isValidMoveWithMultiJump(int toRow, int toColumn, Piece[][] grid, boolean isMultiJump) {
+    public boolean isValidMoveWithMultiJump(int row, int column, int toRow, int toColumn, BoardView board, boolean isMultiJump) {
         if (!isMultiJump) {
-            List<int[]> availableCaptures = getCaptureMoves(row, column, grid, GameMode.CHECKERS);
+            List<int[]> availableCaptures = getCaptureMoves(row, column, board, GameMode.CHECKERS);
             if (!availableCaptures.isEmpty()) {
-                return isCapture(toRow, toColumn, grid);
+                return isCapture(row, column, toRow, toColumn, board);
             }
         }
-        MoveContext context = new MoveContext(grid, -1, -1, false);
-        return isValidMove(toRow, toColumn, context);
+        MoveContext context = new MoveContext(board, -1, -1, false);
+        return isValidMove(row, column, toRow, toColumn, context);
     }
 
-    protected boolean isCapture(int toRow, int toColumn, Piece[][] grid) {
+    protected boolean isCapture(int row, int column, int toRow, int toColumn, BoardView board) {
         int dRow = toRow - row;
         int dColumn = toColumn - column;
         int absDRow = Math.abs(dRow);
@@ -51,14 +49,14 @@ public abstract class CheckersPiece extends Piece {
                 int midRow = row + stepRow;
                 int midColumn = column + stepColumn;
                 return midRow >= 0 && midRow < 8 && midColumn >= 0 && midColumn < 8 &&
-                        grid[midRow][midColumn] != null && grid[midRow][midColumn].getColor() != color;
+                        board.getPieceAt(midRow, midColumn) != null && board.getPieceAt(midRow, midColumn).getColor() != color;
             }
         } else {
             int opponentCount = 0;
             for (int i = 1; i < absDRow; i++) {
                 int checkRow = row + i * stepRow;
                 int checkColumn = column + i * stepColumn;
-                Piece p = grid[checkRow][checkColumn];
+                Piece p = board.getPieceAt(checkRow, checkColumn);
                 if (p != null) {
                     if (p.getColor() == color) return false;
                     opponentCount++;
@@ -70,5 +68,5 @@ public abstract class CheckersPiece extends Piece {
     }
 
     @Override
-    public abstract boolean isValidMove(int toRow, int toColumn, MoveContext context);
+    public abstract boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context);
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package org.sillylabs.pieces;
 
 public abstract class ChessPiece extends Piece {
-    public ChessPiece(String type, Color color, int row, int column) {
-        super(type, color, row, column);
+    protected ChessPiece(String type, Color color, int code) {
+        super(type, color, code);
     }
 }
\ No newline at end of file
@@ -1,55 +1,47 @@
 package org.sillylabs.pieces;
 
-public class King extends ChessPiece {
-    private boolean hasMoved;
-
-    public King(Color color, int row, int column) {
-        super("King", color, row, column);
-        this.hasMoved = false;
-    }
-
-    public boolean getHasMoved() {
-        return hasMoved;
-    }
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
 
-    public void setHasMoved(boolean hasMoved) {
-        this.hasMoved = hasMoved;
+public class King extends ChessPiece {
+    King(Color color) {
+        super("King", color, Board.KING + (color == Color.WHITE ? 0 : Board.BLACK_OFFSET));
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toColumn, MoveContext context) {
-        Piece[][] grid = context.grid;
+    public boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context) {
+        BoardView board = context.board;
         int dRow = Math.abs(toRow - row);
         int dColumn = Math.abs(toColumn - column);
 
         // Звичайний хід короля (на 1 клітинку)
         if (dRow <= 1 && dColumn <= 1) {
-            Piece target = grid[toRow][toColumn];
+            Piece target = board.getPieceAt(toRow, toColumn);
             return target == null || target.getColor() != color;
         }
 
         // СПЕЦІАЛЬНИЙ ХІД: Рокировка (Король стрибає на 2 клітинки по горизонталі)
-        // Умова: Король ще жодного разу не ходив
-        if (dRow == 0 && dColumn == 2 && !this.getHasMoved()) {
+        // Умова: є право на рокировку в цей бік (король і тура ще не ходили), див. MoveContext.castlingRights
+        if (dRow == 0 && dColumn == 2 && hasCastlingRight(toColumn > column, context.castlingRights)) {
 
             // Коротка рокировка (вправо)
             if (toColumn == column + 2) {
-                Piece rook = grid[row][column + 3];
-                // Перевіряємо, чи стоїть на своєму місці тура, чи не ходила вона, і чи ПУСТІ 2 поля між ними
-                if (rook instanceof Rook && !((Rook) rook).getHasMoved() &&
-                        grid[row][column + 1] == null &&
-                        grid[row][column + 2] == null) {
+                Piece rook = board.getPieceAt(row, column + 3);
+                // Перевіряємо, чи стоїть на своєму місці тура і чи ПУСТІ 2 поля між ними
+                if (rook instanceof Rook && rook.getColor() == color &&
+                        board.getPieceAt(row, column + 1) == null &&
+                        board.getPieceAt(row, column + 2) == null) {
                     return true;
                 }
             }
             // Довга рокировка (вліво)
             else if (toColumn == column - 2) {
-                Piece rook = grid[row][column - 4];
+                Piece rook = board.getPieceAt(row, column - 4);
                 // Перевіряємо туру і ПУСТІ 3 поля між королем та турою
-                if (rook instanceof Rook && !((Rook) rook).getHasMoved() &&
-                        grid[row][column - 1] == null &&
-                        grid[row][column - 2] == null &&
-                        grid[row][column - 3] == null) {
+                if (rook instanceof Rook && rook.getColor() == color &&
+                        board.getPieceAt(row, column - 1) == null &&
+                        board.getPieceAt(row, column - 2) == null &&
+                        board.getPieceAt(row, column - 3) == null) {
                     return true;
                 }
             }
@@ -58,13 +50,21 @@ public class King extends ChessPiece {
         return false;
     }
 
-    public boolean isInCheck(Piece[][] grid) {
+    private boolean hasCastlingRight(boolean kingside, int castlingRights) {
+        int right = color == Color.WHITE
+                ? (kingside ? Board.WHITE_KINGSIDE : Board.WHITE_QUEENSIDE)
+                : (kingside ? Board.BLACK_KINGSIDE : Board.BLACK_QUEENSIDE);
+        return (castlingRights & right) != 0;
+    }
+
+    // Координати короля передаються явно: фігура не знає, де стоїть
+    public boolean isInCheck(int row, int column, BoardView board) {
+        MoveContext context = new MoveContext(board, -1, -1, false); // En passant not needed for check
         for (int i = 0; i < 8; i++) {
             for (int j = 0; j < 8; j++) {
-                Piece piece = grid[i][j];
+                Piece piece = board.getPieceAt(i, j);
                 if (piece != null && piece.getColor() != color) {
-                    MoveContext context = new MoveContext(grid, -1, -1, false); // En passant not needed for check
-                    if (piece.isValidMove(row, column, context)) {
+                    if (piece.isValidMove(i, j, row, column, context)) {
                         return true;
                     }
                 }
@@ -1,16 +1,19 @@
 package org.sillylabs.pieces;
 
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
+
 public class Knight extends ChessPiece {
-    public Knight(Color color, int row, int column) {
-        super("Knight", color, row, column);
+    Knight(Color color) {
+        super("Knight", color, Board.KNIGHT + (color == Color.WHITE ? 0 : Board.BLACK_OFFSET));
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toColumn, MoveContext context) {
-        Piece[][] grid = context.grid;
+    public boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context) {
+        BoardView board = context.board;
         int dRow = Math.abs(toRow - row);
         int dColumn = Math.abs(toColumn - column);
         boolean isLShape = (dRow == 2 && dColumn == 1) || (dRow == 1 && dColumn == 2);
-        return isLShape && (grid[toRow][toColumn] == null || grid[toRow][toColumn].getColor() != color);
+        return isLShape && (board.getPieceAt(toRow, toColumn) == null || board.getPieceAt(toRow, toColumn).getColor() != color);
     }
 }
@@ -1,15 +1,24 @@
 package org.sillylabs.pieces;
 
+import org.sillylabs.BoardView;
+
 public class MoveContext {
-    public final Piece[][] grid;
+    public final BoardView board;
     public final int enPassantTargetRow;
     public final int enPassantTargetColumn;
     public final boolean isEnPassantPossible;
+    // Права на рокіровку у форматі Board.getCastlingRights()
+    public final int castlingRights;
+
+    public MoveContext(BoardView board, int enPassantTargetRow, int enPassantTargetColumn, boolean isEnPassantPossible) {
+        this(board, enPassantTargetRow, enPassantTargetColumn, isEnPassantPossible, 0);
+    }
 
-    public MoveContext(Piece[][] grid, int enPassantTargetRow, int enPassantTargetColumn, boolean isEnPassantPossible) {
-        this.grid = grid;
+    public MoveContext(BoardView board, int enPassantTargetRow, int enPassantTargetColumn, boolean isEnPassantPossible, int castlingRights) {
+        this.board = board;
         this.enPassantTargetRow = enPassantTargetRow;
         this.enPassantTargetColumn = enPassantTargetColumn;
         this.isEnPassantPossible = isEnPassantPossible;
+        this.castlingRights = castlingRights;
     }
 }
\ No newline at end of file
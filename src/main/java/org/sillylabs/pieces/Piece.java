@@ -1,16 +1,15 @@
 package org.sillylabs.pieces;
 
+// Фігура без стану: один екземпляр на код (див. Pieces), позиція зберігається лише на дошці
 public abstract class Piece {
-    protected String type;
-    protected Color color;
-    protected int row;
-    protected int column;
+    protected final String type;
+    protected final Color color;
+    protected final byte code;
 
-    public Piece(String type, Color color, int row, int column) {
+    protected Piece(String type, Color color, int code) {
         this.type = type;
         this.color = color;
-        this.row = row;
-        this.column = column;
+        this.code = (byte) code;
     }
 
     public String getType() {
@@ -21,20 +20,12 @@ public abstract class Piece {
         return color;
     }
 
-    public int getRow() {
-        return row;
+    // Код фігури, як у Board.pieceIndex: 0-5 білі шахові, 6-11 чорні шахові, 12-15 шашки
+    public byte getCode() {
+        return code;
     }
 
-    public int getColumn() {
-        return column;
-    }
-
-    public void setPosition(int row, int column) {
-        this.row = row;
-        this.column = column;
-    }
-
-    public abstract boolean isValidMove(int toRow, int toColumn, MoveContext context);
+    public abstract boolean isValidMove(int fromRow, int fromColumn, int toRow, int toColumn, MoveContext context);
 
     protected boolean isWithinBoard(int row, int column) {
         return row >= 0 && row < 8 && column >= 0 && column < 8;
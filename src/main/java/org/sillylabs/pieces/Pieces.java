@@ -0,0 +1,41 @@
+package org.sillylabs.pieces;
+
+import org.sillylabs.Board;
+
+// Реєстр фігур-одинаків: по одному екземпляру на код, тож ходи, взяття і перетворення не створюють об'єктів
+public final class Pieces {
+    private static final Piece[] BY_CODE = new Piece[16];
+
+    static {
+        for (Color color : Color.values()) {
+            int offset = color == Color.WHITE ? 0 : Board.BLACK_OFFSET;
+            BY_CODE[Board.PAWN + offset] = new Pawn(color);
+            BY_CODE[Board.KNIGHT + offset] = new Knight(color);
+            BY_CODE[Board.BISHOP + offset] = new Bishop(color);
+            BY_CODE[Board.ROOK + offset] = new Rook(color);
+            BY_CODE[Board.QUEEN + offset] = new Queen(color);
+            BY_CODE[Board.KING + offset] = new King(color);
+            CheckersMan man = new CheckersMan(color, false);
+            CheckersMan king = new CheckersMan(color, true);
+            BY_CODE[man.getCode()] = man;
+            BY_CODE[king.getCode()] = king;
+        }
+    }
+
+    private Pieces() {
+    }
+
+    // Фігура за кодом (див. Board.getPieceIndex) або null для Board.NO_PIECE
+    public static Piece of(int code) {
+        return code == Board.NO_PIECE ? null : BY_CODE[code];
+    }
+
+    public static Piece chess(Color color, int type) {
+        return BY_CODE[type + (color == Color.WHITE ? 0 : Board.BLACK_OFFSET)];
+    }
+
+    public static CheckersPiece checkers(Color color, boolean king) {
+        int code = color == Color.WHITE ? Board.WHITE_CHECKERS_MAN : Board.BLACK_CHECKERS_MAN;
+        return (CheckersPiece) BY_CODE[king ? code + 1 : code];
+    }
+}
@@ -1,30 +1,33 @@
 package org.sillylabs.pieces;
 
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
+
 public class Queen extends ChessPiece {
-    public Queen(Color color, int row, int column) {
-        super("Queen", color, row, column);
+    Queen(Color color) {
+        super("Queen", color, Board.QUEEN + (color == Color.WHITE ? 0 : Board.BLACK_OFFSET));
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toColumn, MoveContext context) {
-        Piece[][] grid = context.grid;
+    public boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context) {
+        BoardView board = context.board;
         if (toRow == row || toColumn == column) {
             int start = toRow == row ? Math.min(column, toColumn) : Math.min(row, toRow);
             int end = toRow == row ? Math.max(column, toColumn) : Math.max(row, toRow);
             for (int i = start + 1; i < end; i++) {
-                if (toRow == row && grid[toRow][i] != null) return false;
-                if (toColumn == column && grid[i][toColumn] != null) return false;
+                if (toRow == row && board.getPieceAt(toRow, i) != null) return false;
+                if (toColumn == column && board.getPieceAt(i, toColumn) != null) return false;
             }
         } else if (Math.abs(toRow - row) == Math.abs(toColumn - column)) {
             int dRow = toRow > row ? 1 : -1;
             int dColumn = toColumn > column ? 1 : -1;
             int steps = Math.abs(toRow - row);
             for (int i = 1; i < steps; i++) {
-                if (grid[row + i * dRow][column + i * dColumn] != null) return false;
+                if (board.getPieceAt(row + i * dRow, column + i * dColumn) != null) return false;
             }
         } else {
             return false;
         }
-        return grid[toRow][toColumn] == null || grid[toRow][toColumn].getColor() != color;
+        return board.getPieceAt(toRow, toColumn) == null || board.getPieceAt(toRow, toColumn).getColor() != color;
     }
 }
\ No newline at end of file
@@ -1,24 +1,16 @@
 package org.sillylabs.pieces;
 
-public class Rook extends ChessPiece {
-    private boolean hasMoved;
-
-    public Rook(Color color, int row, int column) {
-        super("Rook", color, row, column);
-        this.hasMoved = false;
-    }
+import org.sillylabs.Board;
+import org.sillylabs.BoardView;
 
-    public boolean getHasMoved() {
-        return hasMoved;
-    }
-
-    public void setHasMoved(boolean hasMoved) {
-        this.hasMoved = hasMoved;
+public class Rook extends ChessPiece {
+    Rook(Color color) {
+        super("Rook", color, Board.ROOK + (color == Color.WHITE ? 0 : Board.BLACK_OFFSET));
     }
 
     @Override
-    public boolean isValidMove(int toRow, int toColumn, MoveContext context) {
-        Piece[][] grid = context.grid;
+    public boolean isValidMove(int row, int column, int toRow, int toColumn, MoveContext context) {
+        BoardView board = context.board;
         if (toRow != row && toColumn != column) return false;
 
         int start, end;
@@ -26,15 +18,15 @@ public class Rook extends ChessPiece {
             start = Math.min(column, toColumn);
             end = Math.max(column, toColumn);
             for (int i = start + 1; i < end; i++) {
-                if (grid[toRow][i] != null) return false;
+                if (board.getPieceAt(toRow, i) != null) return false;
             }
         } else {
             start = Math.min(row, toRow);
             end = Math.max(row, toRow);
             for (int i = start + 1; i < end; i++) {
-                if (grid[i][toColumn] != null) return false;
+                if (board.getPieceAt(i, toColumn) != null) return false;
             }
         }
-        return grid[toRow][toColumn] == null || grid[toRow][toColumn].getColor() != color;
+        return board.getPieceAt(toRow, toColumn) == null || board.getPieceAt(toRow, toColumn).getColor() != color;
     }
 }
@@ -0,0 +1,85 @@
+package org.sillylabs;
+
+import org.junit.jupiter.api.Test;
+import org.sillylabs.engine.Evaluator;
+import org.sillylabs.pieces.Color;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Інкрементальний стан дошки (ключ Zobrist, складові оцінки, стек скасування) проти повного перерахунку
+class BoardTest {
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+    private static final int PLAYOUTS = 40;
+    private static final int MAX_PLIES = 100;
+
+    @Test
+    void incrementalStateMatchesRecomputationAndUnmakeRestoresIt() {
+        Random random = new Random(20261018);
+        Board board = new Board();
+        int[] moves = new int[Move.MAX_MOVES];
+        int[] played = new int[MAX_PLIES];
+        for (String fen : POSITIONS) {
+            for (int playout = 0; playout < PLAYOUTS; playout++) {
+                Color color = Fen.load(board, fen);
+                Board start = copy(board);
+                int plies = 0;
+                while (plies < MAX_PLIES) {
+                    int count = ChessMoveGenerator.generateLegal(board, color, moves);
+                    if (count == 0) {
+                        break;
+                    }
+                    played[plies] = moves[random.nextInt(count)];
+                    board.makeMove(played[plies++]);
+                    color = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+                    String where = fen + ", ply " + plies;
+                    assertEquals(Evaluator.evaluateFull(board, color), Evaluator.evaluate(board, color), where);
+                    assertEquals(copy(board).getZobristKey(), board.getZobristKey(), where);
+                }
+                while (plies > 0) {
+                    board.unmakeMove(played[--plies]);
+                }
+                assertSameState(start, board, fen);
+            }
+        }
+    }
+
+    // Нова дошка з тією ж розстановкою і станом: її ключ і суми пораховані з нуля
+    private static Board copy(Board board) {
+        Board copy = new Board();
+        copy.clear();
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                copy.setPieceAt(row, column, board.getPieceAt(row, column));
+            }
+        }
+        copy.setCastlingRights(board.getCastlingRights());
+        copy.setEnPassantSquare(board.getEnPassantSquare());
+        copy.setHalfmoveClock(board.getHalfmoveClock());
+        return copy;
+    }
+
+    private static void assertSameState(Board expected, Board actual, String where) {
+        for (int index = 0; index < 2 * Board.BLACK_OFFSET; index++) {
+            assertEquals(expected.getPieces(index), actual.getPieces(index), where + ", pieces " + index);
+        }
+        for (int square = 0; square < 64; square++) {
+            assertEquals(expected.getPieceAt(square / 8, square % 8), actual.getPieceAt(square / 8, square % 8), where);
+        }
+        assertEquals(expected.getOccupied(), actual.getOccupied(), where);
+        assertEquals(expected.getCastlingRights(), actual.getCastlingRights(), where);
+        assertEquals(expected.getEnPassantSquare(), actual.getEnPassantSquare(), where);
+        assertEquals(expected.getHalfmoveClock(), actual.getHalfmoveClock(), where);
+        assertEquals(expected.getZobristKey(), actual.getZobristKey(), where);
+        assertEquals(expected.getMidgameScore(), actual.getMidgameScore(), where);
+        assertEquals(expected.getEndgameScore(), actual.getEndgameScore(), where);
+        assertEquals(expected.getPhase(), actual.getPhase(), where);
+    }
+}
@@ -0,0 +1,95 @@
+package org.sillylabs;
+
+import org.junit.jupiter.api.Test;
+import org.sillylabs.perft.ChessPerft;
+import org.sillylabs.pieces.Color;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Генератор легальних ходів (шахи і зв'язки за масками) проти повільної перевірки через makeMove/unmakeMove
+class ChessMoveGeneratorTest {
+    private static final String[] POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+    };
+    private static final int PLAYOUTS = 40;
+    private static final int MAX_PLIES = 80;
+
+    private final ChessRules rules = new ChessRules();
+    private final int[] pseudoLegal = new int[Move.MAX_MOVES];
+    private final int[] legal = new int[Move.MAX_MOVES];
+    private final int[] pieceMoves = new int[ChessMoveGenerator.MAX_PIECE_MOVES];
+
+    @Test
+    void legalMovesMatchMakeUnmakeCheckOverRandomPlayouts() {
+        Random random = new Random(20261018);
+        Board board = new Board();
+        for (String fen : POSITIONS) {
+            for (int playout = 0; playout < PLAYOUTS; playout++) {
+                Color color = Fen.load(board, fen);
+                for (int ply = 0; ply < MAX_PLIES; ply++) {
+                    int count = assertLegalMoves(board, color, fen, ply);
+                    if (count == 0) {
+                        break;
+                    }
+                    board.makeMove(legal[random.nextInt(count)]);
+                    color = color == Color.WHITE ? Color.BLACK : Color.WHITE;
+                }
+            }
+        }
+    }
+
+    @Test
+    void perftReferenceSuite() {
+        assertTrue(ChessPerft.runSuite(3));
+    }
+
+    // Порівнює множини ходів і повертає кількість легальних; у legal лишаються ходи позиції
+    private int assertLegalMoves(Board board, Color color, String fen, int ply) {
+        int pseudoCount = ChessMoveGenerator.generatePseudoLegal(board, color, pseudoLegal);
+        int[] expected = new int[pseudoCount];
+        int expectedCount = 0;
+        for (int i = 0; i < pseudoCount; i++) {
+            if (rules.isLegal(board, pseudoLegal[i])) {
+                expected[expectedCount++] = pseudoLegal[i];
+            }
+        }
+        int count = ChessMoveGenerator.generateLegal(board, color, legal);
+        String where = fen + ", ply " + ply;
+        assertArrayEquals(sorted(expected, expectedCount), sorted(legal, count), where);
+
+        // Ходи однієї фігури - ті самі, що серед ходів усієї позиції
+        long own = board.getOccupancy(color);
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+            int[] fromSquare = new int[count];
+            int fromCount = 0;
+            long targets = 0L;
+            for (int i = 0; i < count; i++) {
+                if (Move.from(legal[i]) == from) {
+                    fromSquare[fromCount++] = legal[i];
+                    targets |= 1L << Move.to(legal[i]);
+                }
+            }
+            int pieceCount = ChessMoveGenerator.generateLegalFrom(board, color, from, pieceMoves);
+            assertArrayEquals(sorted(fromSquare, fromCount), sorted(pieceMoves, pieceCount), where);
+            assertEquals(targets, rules.getLegalTargets(board, from / 8, from % 8), where);
+        }
+        return count;
+    }
+
+    private static int[] sorted(int[] moves, int count) {
+        int[] copy = Arrays.copyOf(moves, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,84 @@
+package org.sillylabs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пул проти локального UCI-процесу: вбудований рушій (engine.UciMain) у окремій JVM
+class UciEnginePoolTest {
+    private static final String START_POSITION = "position startpos";
+
+    private static UciEnginePool pool(int size) {
+        // Класи проєкту можуть бути і на шляху класів, і на шляху модулів - процесу рушія потрібні обидва
+        String classPath = String.join(File.pathSeparator, System.getProperty("java.class.path", ""),
+                System.getProperty("jdk.module.path", ""));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new UciEnginePool(List.of(java, "-cp", classPath, "org.sillylabs.engine.UciMain"), size, 16, 1);
+    }
+
+    @Test
+    void answersWithinMoveTime() throws Exception {
+        try (UciEnginePool pool = pool(1)) {
+            assertTrue(pool.start());
+            BestMove reply = pool.bestMove(new MoveList(), 100).get(10, TimeUnit.SECONDS);
+            assertNotEquals(Move.NONE, reply.getMove());
+        }
+    }
+
+    @Test
+    void deadlineStopsInfiniteSearch() throws Exception {
+        try (UciEnginePool pool = pool(1)) {
+            assertTrue(pool.start());
+            // На межі рушій отримує "stop" і віддає хід, а не мовчить до вбивства процесу
+            BestMove reply = pool.submit(START_POSITION, "go infinite", 300).get(10, TimeUnit.SECONDS);
+            assertNotEquals(Move.NONE, reply.getMove());
+            assertTrue(reply.getTimeMillis() < UciEnginePool.STOP_GRACE_MILLIS, reply.toString());
+        }
+    }
+
+    @Test
+    void cancelledRequestLeavesProcessReusable() throws Exception {
+        try (UciEnginePool pool = pool(1)) {
+            assertTrue(pool.start());
+            // Скасування і під час пошуку, і одразу після "go", поки потік пошуку ще не стартував
+            for (int delay : new int[]{200, 20, 5, 1}) {
+                CompletableFuture<BestMove> endless = pool.submit(START_POSITION, "go infinite", 60_000);
+                Thread.sleep(delay);
+                assertTrue(endless.cancel(true));
+                // Скасування надіслало "stop": той самий процес одразу береться за наступний запит
+                long start = System.nanoTime();
+                BestMove reply = pool.bestMove(new MoveList(), 100).get(10, TimeUnit.SECONDS);
+                assertNotEquals(Move.NONE, reply.getMove());
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < UciEnginePool.STOP_GRACE_MILLIS,
+                        "after cancelling at " + delay + " ms");
+            }
+        }
+    }
+
+    @Test
+    void closeFailsQueuedRequests() throws Exception {
+        UciEnginePool pool = pool(1);
+        assertTrue(pool.start());
+        CompletableFuture<BestMove> running = pool.submit(START_POSITION, "go infinite", 60_000);
+        CompletableFuture<BestMove> queued = pool.bestMove(new MoveList(), 100);
+        Thread.sleep(200);
+        pool.close();
+        for (CompletableFuture<BestMove> future : List.of(running, queued)) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        }
+        CompletableFuture<BestMove> late = pool.bestMove(new MoveList(), 100);
+        assertTrue(late.isCompletedExceptionally());
+    }
+}
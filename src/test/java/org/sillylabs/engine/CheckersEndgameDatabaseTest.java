@@ -0,0 +1,82 @@
+package org.sillylabs.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// Кожне значення бази узгоджене з ходами позиції: виграш - якщо якийсь хід веде до програшу суперника,
+// програш - якщо всі ходи (або жодного) ведуть до його виграшу, інакше нічия
+class CheckersEndgameDatabaseTest {
+    private static final int MAX_PIECES = 3;
+
+    private final long[] moves = new long[CheckersBitboard.MAX_MOVES];
+    private final CheckersBitboard position = new CheckersBitboard();
+    private final CheckersBitboard child = new CheckersBitboard();
+    private CheckersEndgameDatabase database;
+    private int checked;
+
+    @Test
+    void everyValueAgreesWithItsChildren() throws IOException {
+        Path directory = Files.createTempDirectory("egdb");
+        Path file = directory.resolve(CheckersEndgameDatabase.DEFAULT_FILE);
+        try {
+            new CheckersEndgameGenerator(MAX_PIECES).generate(file);
+            database = CheckersEndgameDatabase.open(file);
+            place(0, 0, 0, 0, 0);
+            assertNotEquals(0, checked);
+        } finally {
+            database = null;
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    // Усі розстановки до MAX_PIECES фігур: кожна наступна фігура - на клітинці з більшим номером
+    private void place(int first, int pieces, int white, int black, int kings) {
+        if (white != 0 && black != 0) {
+            check(white, black, kings, true);
+            check(white, black, kings, false);
+        }
+        if (pieces == MAX_PIECES) {
+            return;
+        }
+        for (int bit = first; bit < CheckersBitboard.SQUARES; bit++) {
+            int mask = 1 << bit;
+            // Проста не стоїть на своїй горизонталі перетворення
+            if ((mask & CheckersBitboard.WHITE_PROMOTION) == 0) {
+                place(bit + 1, pieces + 1, white | mask, black, kings);
+            }
+            place(bit + 1, pieces + 1, white | mask, black, kings | mask);
+            if ((mask & CheckersBitboard.BLACK_PROMOTION) == 0) {
+                place(bit + 1, pieces + 1, white, black | mask, kings);
+            }
+            place(bit + 1, pieces + 1, white, black | mask, kings | mask);
+        }
+    }
+
+    private void check(int white, int black, int kings, boolean whiteToMove) {
+        position.set(white, black, kings, whiteToMove);
+        int value = database.probe(position);
+        int count = position.generate(moves);
+        boolean anyLoss = false;
+        boolean allWins = true;
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            int childValue = database.probe(child);
+            assertNotEquals(CheckersEndgameDatabase.UNKNOWN, childValue);
+            anyLoss |= childValue == CheckersEndgameDatabase.LOSS;
+            allWins &= childValue == CheckersEndgameDatabase.WIN;
+        }
+        int expected = anyLoss ? CheckersEndgameDatabase.WIN
+                : allWins ? CheckersEndgameDatabase.LOSS : CheckersEndgameDatabase.DRAW;
+        assertEquals(expected, value, "white " + Integer.toHexString(white) + " black " + Integer.toHexString(black)
+                + " kings " + Integer.toHexString(kings) + (whiteToMove ? " white" : " black") + " to move");
+        checked++;
+    }
+}
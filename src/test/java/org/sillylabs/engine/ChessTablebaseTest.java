@@ -0,0 +1,90 @@
+package org.sillylabs.engine;
+
+import org.junit.jupiter.api.Test;
+import org.sillylabs.AttackTables;
+import org.sillylabs.Board;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Move;
+import org.sillylabs.pieces.Color;
+import org.sillylabs.pieces.Pieces;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// KQK і KRK: найдовші мати відомі (10 і 16 ходів), а кожне значення таблиці має випливати
+// з ходу на один півхід уперед
+class ChessTablebaseTest {
+    @Test
+    void longestMatesAndOnePlyConsistency() throws IOException {
+        Path directory = Files.createTempDirectory("tablebases");
+        try {
+            new ChessTablebaseGenerator(directory).generate(List.of("KQK", "KRK"));
+            ChessTablebase tablebase = ChessTablebase.open(directory);
+            assertEquals(10, check(tablebase, directory, "KQK"));
+            assertEquals(16, check(tablebase, directory, "KRK"));
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    // Перевіряє всі позиції набору і повертає найдовший мат у ходах
+    private static int check(ChessTablebase tablebase, Path directory, String name) throws IOException {
+        ChessTablebase.Material material = ChessTablebase.Material.of(name);
+        ByteBuffer table = ChessTablebase.map(directory.resolve(name + ChessTablebase.EXTENSION), material);
+        Board board = new Board();
+        int[] squares = new int[material.pieceCount()];
+        int[] moves = new int[Move.MAX_MOVES];
+        int longest = 0;
+        for (int index = 0; index < material.size; index++) {
+            int value = table.get(index) & 0xFF;
+            if (value == ChessTablebase.INVALID) {
+                continue;
+            }
+            boolean whiteToMove = material.decode(index, squares);
+            if (whiteToMove && (value & 1) != 0) {
+                longest = Math.max(longest, (value + 1) / 2);
+            }
+            board.clear();
+            for (int slot = 0; slot < squares.length; slot++) {
+                Color color = material.white[slot] ? Color.WHITE : Color.BLACK;
+                board.setPieceAt(squares[slot] / 8, squares[slot] % 8, Pieces.chess(color, material.types[slot]));
+            }
+            Color side = whiteToMove ? Color.WHITE : Color.BLACK;
+            int score = tablebase.probe(board, side);
+            assertEquals(ChessTablebase.score(value), score, name + " index " + index);
+            assertEquals(expectedScore(tablebase, board, side, moves), score, name + " index " + index);
+        }
+        return longest;
+    }
+
+    // Оцінка з дочірніх позицій: мат у q півходів у дитини - це програш за q + 1 тут і навпаки
+    private static int expectedScore(ChessTablebase tablebase, Board board, Color side, int[] moves) {
+        Color opponent = side == Color.WHITE ? Color.BLACK : Color.WHITE;
+        int count = ChessMoveGenerator.generateLegal(board, side, moves);
+        if (count == 0) {
+            boolean inCheck = AttackTables.isSquareAttacked(board, board.getKingSquare(side), opponent);
+            return inCheck ? -Search.MATE : 0;
+        }
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            int child = tablebase.probe(board, opponent);
+            board.unmakeMove(moves[i]);
+            assertNotEquals(ChessTablebase.UNKNOWN, child);
+            best = Math.max(best, child > 0 ? -child + 1 : child < 0 ? -child - 1 : 0);
+        }
+        return best;
+    }
+}
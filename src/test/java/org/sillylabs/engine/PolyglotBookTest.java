@@ -0,0 +1,92 @@
+package org.sillylabs.engine;
+
+import org.junit.jupiter.api.Test;
+import org.sillylabs.Board;
+import org.sillylabs.ChessMoveGenerator;
+import org.sillylabs.Fen;
+import org.sillylabs.Move;
+import org.sillylabs.MoveList;
+import org.sillylabs.pieces.Color;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// Ключі з опису формату Polyglot: кожен перевіряє свою частину таблиці Random64
+class PolyglotBookTest {
+    @Test
+    void startPositionKey() {
+        assertKey(0x463b96181691fc9cL);
+    }
+
+    @Test
+    void keysAfterMoves() {
+        assertKey(0x823c9b50fd114196L, "e2e4");
+        assertKey(0x0756b94461c50fb0L, "e2e4", "d7d5");
+        assertKey(0x662fafb965db29d4L, "e2e4", "d7d5", "e4e5");
+        // Взяття на проході можливе - вертикаль f входить у ключ
+        assertKey(0x22a48b5a8e47ff78L, "e2e4", "d7d5", "e4e5", "f7f5");
+        // Хід короля знімає права рокіровки
+        assertKey(0x652a607ca3f242c1L, "e2e4", "d7d5", "e4e5", "f7f5", "e1e2");
+        assertKey(0x00fdd303c946bdd9L, "e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7");
+        assertKey(0x3c8123ea7b067637L, "a2a4", "b7b5", "h2h4", "b5b4", "c2c4");
+        assertKey(0x5c3f9b829b279560L, "a2a4", "b7b5", "h2h4", "b5b4", "c2c4", "b4c3", "a1a3");
+    }
+
+    @Test
+    void readsMoveFromBook() throws IOException {
+        // Книга з одного запису: з початкової позиції e2e4 (у Polyglot - з e2 = 12 на e4 = 28)
+        Path file = Files.createTempFile("book", ".bin");
+        try {
+            ByteBuffer entry = ByteBuffer.allocate(PolyglotBook.ENTRY_BYTES)
+                    .putLong(0x463b96181691fc9cL).putShort((short) (12 << 6 | 28)).putShort((short) 1).putInt(0);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(entry.array());
+            }
+            PolyglotBook book = PolyglotBook.open(file);
+            assertEquals("e2e4", Move.toUci(book.getMove(new MoveList())));
+            assertEquals(Move.NONE, book.getMove(played("e2e4").moves));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void assertKey(long expected, String... moves) {
+        Position position = played(moves);
+        assertEquals(Long.toHexString(expected), Long.toHexString(PolyglotBook.key(position.board, position.sideToMove)),
+                String.join(" ", moves));
+    }
+
+    // Ходи UCI від початкової позиції, зіставлені з легальними (прапорці подвійного ходу і взяття на проході)
+    private static Position played(String... moves) {
+        Position position = new Position();
+        position.sideToMove = Fen.load(position.board, Fen.START_POSITION);
+        int[] legal = new int[Move.MAX_MOVES];
+        for (String uci : moves) {
+            int parsed = Move.fromUci(uci);
+            int count = ChessMoveGenerator.generateLegal(position.board, position.sideToMove, legal);
+            int move = Move.NONE;
+            for (int i = 0; i < count; i++) {
+                if (Move.from(legal[i]) == Move.from(parsed) && Move.to(legal[i]) == Move.to(parsed)) {
+                    move = legal[i];
+                }
+            }
+            assertNotEquals(Move.NONE, move, uci);
+            position.board.makeMove(move);
+            position.moves.add(move);
+            position.sideToMove = position.sideToMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+        }
+        return position;
+    }
+
+    private static final class Position {
+        final Board board = new Board();
+        final MoveList moves = new MoveList();
+        Color sideToMove;
+    }
+}